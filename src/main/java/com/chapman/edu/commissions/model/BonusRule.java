@@ -3,6 +3,7 @@ package com.chapman.edu.commissions.model;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -21,6 +22,7 @@ public class BonusRule {
     private LocalDate startDate;
     private LocalDate endDate;
     private String planId;
+    private volatile CommissionPlan owner;
     
     /**
      * Default constructor
@@ -51,6 +53,7 @@ public class BonusRule {
     
     public void setId(String id) {
         this.id = id;
+        changed();
     }
     
     public String getName() {
@@ -59,6 +62,7 @@ public class BonusRule {
     
     public void setName(String name) {
         this.name = name;
+        changed();
     }
     
     public String getDescription() {
@@ -67,6 +71,7 @@ public class BonusRule {
     
     public void setDescription(String description) {
         this.description = description;
+        changed();
     }
     
     public BigDecimal getAmount() {
@@ -75,6 +80,7 @@ public class BonusRule {
     
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
+        changed();
     }
     
     public boolean isPercentage() {
@@ -83,18 +89,25 @@ public class BonusRule {
     
     public void setPercentage(boolean percentage) {
         isPercentage = percentage;
+        changed();
     }
     
+    /**
+     * Get the conditions of this bonus rule
+     * @return a read-only view of the conditions; use addCondition or setConditions to change them
+     */
     public List<RuleCondition> getConditions() {
-        return conditions;
+        return Collections.unmodifiableList(conditions);
     }
     
     public void setConditions(List<RuleCondition> conditions) {
-        this.conditions = conditions;
+        this.conditions = conditions != null ? new ArrayList<>(conditions) : new ArrayList<>();
+        changed();
     }
     
     public void addCondition(RuleCondition condition) {
         this.conditions.add(condition);
+        changed();
     }
     
     public BonusType getType() {
@@ -103,6 +116,7 @@ public class BonusRule {
     
     public void setType(BonusType type) {
         this.type = type;
+        changed();
     }
     
     public LocalDate getStartDate() {
@@ -111,6 +125,7 @@ public class BonusRule {
     
     public void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
+        changed();
     }
     
     public LocalDate getEndDate() {
@@ -119,6 +134,7 @@ public class BonusRule {
     
     public void setEndDate(LocalDate endDate) {
         this.endDate = endDate;
+        changed();
     }
     
     public String getPlanId() {
@@ -127,6 +143,7 @@ public class BonusRule {
     
     public void setPlanId(String planId) {
         this.planId = planId;
+        changed();
     }
     
     /**
@@ -154,6 +171,21 @@ public class BonusRule {
         }
     }
     
+    /**
+     * Set the plan whose version must be incremented when this bonus rule changes
+     * @param owner the plan this bonus rule was added to
+     */
+    void setOwner(CommissionPlan owner) {
+        this.owner = owner;
+    }
+    
+    private void changed() {
+        CommissionPlan plan = owner;
+        if (plan != null) {
+            plan.incrementVersion();
+        }
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
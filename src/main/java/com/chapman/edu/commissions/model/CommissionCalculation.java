@@ -3,6 +3,7 @@ package com.chapman.edu.commissions.model;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -11,19 +12,26 @@ import java.util.Objects;
  * Commission calculations store the results of applying commission rules to deals.
  */
 public class CommissionCalculation {
+    private static final int UNRESOLVED_ORDINAL = -2;
+    
     private String id;
     private String dealId;
     private String salesRepId;
+    private int salesRepOrdinal = UNRESOLVED_ORDINAL;
     private BigDecimal baseCommission;
     private List<BonusCalculation> bonuses;
     private List<AcceleratorCalculation> accelerators;
+    private BigDecimal bonusTotal;
+    private BigDecimal acceleratorMultiplier;
     private BigDecimal grossCommission;
     private BigDecimal netCommission;
     private CommissionStatus status;
     private LocalDate calculationDate;
     private LocalDate payoutDate;
     private String planId;
+    private int planOrdinal = UNRESOLVED_ORDINAL;
     private String calculatedBy;
+    private String adjustedCalculationId;
     
     /**
      * Default constructor
@@ -31,6 +39,8 @@ public class CommissionCalculation {
     public CommissionCalculation() {
         this.bonuses = new ArrayList<>();
         this.accelerators = new ArrayList<>();
+        this.bonusTotal = BigDecimal.ZERO;
+        this.acceleratorMultiplier = BigDecimal.ONE;
         this.baseCommission = BigDecimal.ZERO;
         this.grossCommission = BigDecimal.ZERO;
         this.netCommission = BigDecimal.ZERO;
@@ -74,6 +84,20 @@ public class CommissionCalculation {
     
     public void setSalesRepId(String salesRepId) {
         this.salesRepId = salesRepId;
+        this.salesRepOrdinal = UNRESOLVED_ORDINAL;
+    }
+    
+    /**
+     * Get the ordinal of the sales rep in the global IdDictionary, resolved once per sales rep ID
+     * @return the ordinal, or IdDictionary.NO_ORDINAL if there is no sales rep ID
+     */
+    public int getSalesRepOrdinal() {
+        int ordinal = salesRepOrdinal;
+        if (ordinal == UNRESOLVED_ORDINAL) {
+            ordinal = IdDictionary.global().ordinalOf(IdDictionary.IdType.SALES_REP, salesRepId);
+            salesRepOrdinal = ordinal;
+        }
+        return ordinal;
     }
     
     public BigDecimal getBaseCommission() {
@@ -84,28 +108,68 @@ public class CommissionCalculation {
         this.baseCommission = baseCommission;
     }
     
+    /**
+     * Get the bonuses applied to this calculation
+     * @return a read-only view of the bonuses; use addBonus or setBonuses to change them
+     */
     public List<BonusCalculation> getBonuses() {
-        return bonuses;
+        return Collections.unmodifiableList(bonuses);
     }
     
     public void setBonuses(List<BonusCalculation> bonuses) {
-        this.bonuses = bonuses;
+        this.bonuses = new ArrayList<>();
+        this.bonusTotal = BigDecimal.ZERO;
+        if (bonuses != null) {
+            for (BonusCalculation bonus : bonuses) {
+                this.bonuses.add(bonus);
+                this.bonusTotal = this.bonusTotal.add(bonus.getAmount());
+            }
+        }
     }
     
     public void addBonus(BonusCalculation bonus) {
         this.bonuses.add(bonus);
+        this.bonusTotal = this.bonusTotal.add(bonus.getAmount());
     }
     
+    /**
+     * Get the accelerators applied to this calculation
+     * @return a read-only view of the accelerators; use addAccelerator or setAccelerators to change them
+     */
     public List<AcceleratorCalculation> getAccelerators() {
-        return accelerators;
+        return Collections.unmodifiableList(accelerators);
     }
     
     public void setAccelerators(List<AcceleratorCalculation> accelerators) {
-        this.accelerators = accelerators;
+        this.accelerators = new ArrayList<>();
+        this.acceleratorMultiplier = BigDecimal.ONE;
+        if (accelerators != null) {
+            for (AcceleratorCalculation accelerator : accelerators) {
+                this.accelerators.add(accelerator);
+                this.acceleratorMultiplier = this.acceleratorMultiplier.multiply(accelerator.getMultiplier());
+            }
+        }
     }
     
     public void addAccelerator(AcceleratorCalculation accelerator) {
         this.accelerators.add(accelerator);
+        this.acceleratorMultiplier = this.acceleratorMultiplier.multiply(accelerator.getMultiplier());
+    }
+    
+    /**
+     * Get the sum of all bonus amounts, maintained as bonuses are added
+     * @return the total bonus amount
+     */
+    public BigDecimal getBonusTotal() {
+        return bonusTotal;
+    }
+    
+    /**
+     * Get the product of all accelerator multipliers, maintained as accelerators are added
+     * @return the combined accelerator multiplier
+     */
+    public BigDecimal getAcceleratorMultiplier() {
+        return acceleratorMultiplier;
     }
     
     public BigDecimal getGrossCommission() {
@@ -154,6 +218,20 @@ public class CommissionCalculation {
     
     public void setPlanId(String planId) {
         this.planId = planId;
+        this.planOrdinal = UNRESOLVED_ORDINAL;
+    }
+    
+    /**
+     * Get the ordinal of the plan in the global IdDictionary, resolved once per plan ID
+     * @return the ordinal, or IdDictionary.NO_ORDINAL if there is no plan ID
+     */
+    public int getPlanOrdinal() {
+        int ordinal = planOrdinal;
+        if (ordinal == UNRESOLVED_ORDINAL) {
+            ordinal = IdDictionary.global().ordinalOf(IdDictionary.IdType.PLAN, planId);
+            planOrdinal = ordinal;
+        }
+        return ordinal;
     }
     
     public String getCalculatedBy() {
@@ -165,23 +243,26 @@ public class CommissionCalculation {
     }
     
     /**
-     * Calculate the total commission amount including base, bonuses, and accelerators
+     * Get the ID of the calculation this entry adjusts, for entries that correct another calculation
+     * @return the adjusted calculation's ID, or null for an ordinary calculation
+     */
+    public String getAdjustedCalculationId() {
+        return adjustedCalculationId;
+    }
+    
+    public void setAdjustedCalculationId(String adjustedCalculationId) {
+        this.adjustedCalculationId = adjustedCalculationId;
+    }
+    
+    /**
+     * Calculate the total commission amount including base, bonuses, and accelerators.
+     * Uses the running bonus total and accelerator multiplier, so the cost does not grow
+     * with the number of adjustments. Bonus amounts and multipliers are captured when they
+     * are added; re-add them through setBonuses or setAccelerators after changing them.
      * @return the total commission amount
      */
     public BigDecimal calculateTotalCommission() {
-        BigDecimal total = baseCommission;
-        
-        // Add bonuses
-        for (BonusCalculation bonus : bonuses) {
-            total = total.add(bonus.getAmount());
-        }
-        
-        // Apply accelerators
-        for (AcceleratorCalculation accelerator : accelerators) {
-            total = total.multiply(accelerator.getMultiplier());
-        }
-        
-        return total;
+        return baseCommission.add(bonusTotal).multiply(acceleratorMultiplier);
     }
     
     /**
@@ -227,7 +308,8 @@ public class CommissionCalculation {
         PAID("Paid"),
         DISPUTED("Disputed"),
         ADJUSTED("Adjusted"),
-        CANCELLED("Cancelled");
+        CANCELLED("Cancelled"),
+        REVERSED("Reversed");
         
         private final String displayName;
         
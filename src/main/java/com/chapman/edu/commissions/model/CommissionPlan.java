@@ -2,15 +2,24 @@ package com.chapman.edu.commissions.model;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Currency;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * Represents a commission plan in the system.
  * Commission plans define the rules and tiers for calculating commissions.
+ * The version moves to the next number of a sequence shared by all deals and plans on every
+ * change to the plan, including changes made through the setters of its rules, tiers and bonus
+ * rules, so results derived from a version can be reused until it changes, and a reloaded
+ * copy with the same ID never has the version of an earlier copy. The lists are read-only views; use the add and set methods to change them.
  */
 public class CommissionPlan {
+    private static final AtomicLongFieldUpdater<CommissionPlan> VERSION =
+            AtomicLongFieldUpdater.newUpdater(CommissionPlan.class, "version");
+    
     private String id;
     private String name;
     private List<CommissionRule> rules;
@@ -22,6 +31,7 @@ public class CommissionPlan {
     private LocalDate effectiveEndDate;
     private LocalDate createdDate;
     private LocalDate lastModifiedDate;
+    private volatile long version = VersionSequence.next();
     private String createdBy;
     
     /**
@@ -53,6 +63,7 @@ public class CommissionPlan {
     
     public void setId(String id) {
         this.id = id;
+        incrementVersion();
     }
     
     public String getName() {
@@ -61,42 +72,70 @@ public class CommissionPlan {
     
     public void setName(String name) {
         this.name = name;
+        incrementVersion();
     }
     
     public List<CommissionRule> getRules() {
-        return rules;
+        return Collections.unmodifiableList(rules);
     }
     
     public void setRules(List<CommissionRule> rules) {
-        this.rules = rules;
+        this.rules = new ArrayList<>();
+        if (rules != null) {
+            for (CommissionRule rule : rules) {
+                rule.setOwner(this);
+                this.rules.add(rule);
+            }
+        }
+        incrementVersion();
     }
     
     public void addRule(CommissionRule rule) {
+        rule.setOwner(this);
         this.rules.add(rule);
+        incrementVersion();
     }
     
     public List<CommissionTier> getTiers() {
-        return tiers;
+        return Collections.unmodifiableList(tiers);
     }
     
     public void setTiers(List<CommissionTier> tiers) {
-        this.tiers = tiers;
+        this.tiers = new ArrayList<>();
+        if (tiers != null) {
+            for (CommissionTier tier : tiers) {
+                tier.setOwner(this);
+                this.tiers.add(tier);
+            }
+        }
+        incrementVersion();
     }
     
     public void addTier(CommissionTier tier) {
+        tier.setOwner(this);
         this.tiers.add(tier);
+        incrementVersion();
     }
     
     public List<BonusRule> getBonuses() {
-        return bonuses;
+        return Collections.unmodifiableList(bonuses);
     }
     
     public void setBonuses(List<BonusRule> bonuses) {
-        this.bonuses = bonuses;
+        this.bonuses = new ArrayList<>();
+        if (bonuses != null) {
+            for (BonusRule bonus : bonuses) {
+                bonus.setOwner(this);
+                this.bonuses.add(bonus);
+            }
+        }
+        incrementVersion();
     }
     
     public void addBonus(BonusRule bonus) {
+        bonus.setOwner(this);
         this.bonuses.add(bonus);
+        incrementVersion();
     }
     
     public Currency getCurrency() {
@@ -105,6 +144,7 @@ public class CommissionPlan {
     
     public void setCurrency(Currency currency) {
         this.currency = currency;
+        incrementVersion();
     }
     
     public PlanStatus getStatus() {
@@ -114,6 +154,7 @@ public class CommissionPlan {
     public void setStatus(PlanStatus status) {
         this.status = status;
         this.lastModifiedDate = LocalDate.now();
+        incrementVersion();
     }
     
     public LocalDate getEffectiveStartDate() {
@@ -122,6 +163,7 @@ public class CommissionPlan {
     
     public void setEffectiveStartDate(LocalDate effectiveStartDate) {
         this.effectiveStartDate = effectiveStartDate;
+        incrementVersion();
     }
     
     public LocalDate getEffectiveEndDate() {
@@ -130,6 +172,7 @@ public class CommissionPlan {
     
     public void setEffectiveEndDate(LocalDate effectiveEndDate) {
         this.effectiveEndDate = effectiveEndDate;
+        incrementVersion();
     }
     
     public LocalDate getCreatedDate() {
@@ -138,6 +181,7 @@ public class CommissionPlan {
     
     public void setCreatedDate(LocalDate createdDate) {
         this.createdDate = createdDate;
+        incrementVersion();
     }
     
     public LocalDate getLastModifiedDate() {
@@ -146,6 +190,24 @@ public class CommissionPlan {
     
     public void setLastModifiedDate(LocalDate lastModifiedDate) {
         this.lastModifiedDate = lastModifiedDate;
+        incrementVersion();
+    }
+    
+    /**
+     * Get the version of this plan, advanced on every change to the plan or its rules, tiers and bonus rules.
+     * Versions come from one sequence shared by all deals and plans, so no two plans share one
+     * @return the current version
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Advance the version, called by the setters of this plan and of its rules, tiers and bonus rules
+     */
+    void incrementVersion() {
+        // Never move backwards if another change took a later version first
+        VERSION.accumulateAndGet(this, VersionSequence.next(), Math::max);
     }
     
     public String getCreatedBy() {
@@ -154,6 +216,7 @@ public class CommissionPlan {
     
     public void setCreatedBy(String createdBy) {
         this.createdBy = createdBy;
+        incrementVersion();
     }
     
     /**
@@ -2,6 +2,7 @@ package com.chapman.edu.commissions.model;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -18,6 +19,7 @@ public class CommissionRule {
     private RuleType type;
     private int priority;
     private String planId;
+    private volatile CommissionPlan owner;
     
     /**
      * Default constructor
@@ -47,6 +49,7 @@ public class CommissionRule {
     
     public void setId(String id) {
         this.id = id;
+        changed();
     }
     
     public String getName() {
@@ -55,6 +58,7 @@ public class CommissionRule {
     
     public void setName(String name) {
         this.name = name;
+        changed();
     }
     
     public String getDescription() {
@@ -63,18 +67,25 @@ public class CommissionRule {
     
     public void setDescription(String description) {
         this.description = description;
+        changed();
     }
     
+    /**
+     * Get the conditions of this rule
+     * @return a read-only view of the conditions; use addCondition or setConditions to change them
+     */
     public List<RuleCondition> getConditions() {
-        return conditions;
+        return Collections.unmodifiableList(conditions);
     }
     
     public void setConditions(List<RuleCondition> conditions) {
-        this.conditions = conditions;
+        this.conditions = conditions != null ? new ArrayList<>(conditions) : new ArrayList<>();
+        changed();
     }
     
     public void addCondition(RuleCondition condition) {
         this.conditions.add(condition);
+        changed();
     }
     
     public BigDecimal getRate() {
@@ -83,6 +94,7 @@ public class CommissionRule {
     
     public void setRate(BigDecimal rate) {
         this.rate = rate;
+        changed();
     }
     
     public RuleType getType() {
@@ -91,6 +103,7 @@ public class CommissionRule {
     
     public void setType(RuleType type) {
         this.type = type;
+        changed();
     }
     
     public int getPriority() {
@@ -99,6 +112,7 @@ public class CommissionRule {
     
     public void setPriority(int priority) {
         this.priority = priority;
+        changed();
     }
     
     public String getPlanId() {
@@ -107,6 +121,22 @@ public class CommissionRule {
     
     public void setPlanId(String planId) {
         this.planId = planId;
+        changed();
+    }
+    
+    /**
+     * Set the plan whose version must be incremented when this rule changes
+     * @param owner the plan this rule was added to
+     */
+    void setOwner(CommissionPlan owner) {
+        this.owner = owner;
+    }
+    
+    private void changed() {
+        CommissionPlan plan = owner;
+        if (plan != null) {
+            plan.incrementVersion();
+        }
     }
     
     @Override
@@ -15,6 +15,7 @@ public class CommissionTier {
     private BigDecimal rate;
     private boolean isPercentage;
     private String planId;
+    private volatile CommissionPlan owner;
     
     /**
      * Default constructor
@@ -44,6 +45,7 @@ public class CommissionTier {
     
     public void setId(String id) {
         this.id = id;
+        changed();
     }
     
     public String getName() {
@@ -52,6 +54,7 @@ public class CommissionTier {
     
     public void setName(String name) {
         this.name = name;
+        changed();
     }
     
     public BigDecimal getLowerBound() {
@@ -60,6 +63,7 @@ public class CommissionTier {
     
     public void setLowerBound(BigDecimal lowerBound) {
         this.lowerBound = lowerBound;
+        changed();
     }
     
     public BigDecimal getUpperBound() {
@@ -68,6 +72,7 @@ public class CommissionTier {
     
     public void setUpperBound(BigDecimal upperBound) {
         this.upperBound = upperBound;
+        changed();
     }
     
     public BigDecimal getRate() {
@@ -76,6 +81,7 @@ public class CommissionTier {
     
     public void setRate(BigDecimal rate) {
         this.rate = rate;
+        changed();
     }
     
     public boolean isPercentage() {
@@ -84,6 +90,7 @@ public class CommissionTier {
     
     public void setPercentage(boolean percentage) {
         isPercentage = percentage;
+        changed();
     }
     
     public String getPlanId() {
@@ -92,6 +99,7 @@ public class CommissionTier {
     
     public void setPlanId(String planId) {
         this.planId = planId;
+        changed();
     }
     
     /**
@@ -125,6 +133,21 @@ public class CommissionTier {
         }
     }
     
+    /**
+     * Set the plan whose version must be incremented when this tier changes
+     * @param owner the plan this tier was added to
+     */
+    void setOwner(CommissionPlan owner) {
+        this.owner = owner;
+    }
+    
+    private void changed() {
+        CommissionPlan plan = owner;
+        if (plan != null) {
+            plan.incrementVersion();
+        }
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
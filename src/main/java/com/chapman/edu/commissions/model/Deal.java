@@ -3,23 +3,43 @@ package com.chapman.edu.commissions.model;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * Represents a sales deal in the system.
  * Deals are the primary entities for which commissions are calculated.
+ * The total value is cached until a product is added, the products are replaced or one of
+ * the products changes its quantity, price or discount. The product list is only changed
+ * through addProduct and setProducts, so every change reaches the cache and the version.
+ * A product belongs to at most one deal at a time, so its changes always reach the deal whose
+ * total includes it; to give another deal the same line items, add copies.
  */
 public class Deal {
+    private static final int UNRESOLVED_ORDINAL = -2;
+    private static final AtomicLongFieldUpdater<Deal> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Deal.class, "version");
+    private static final AtomicLongFieldUpdater<Deal> TOTAL_VALUE_STAMP =
+            AtomicLongFieldUpdater.newUpdater(Deal.class, "totalValueStamp");
+    
     private String id;
     private String title;
     private BigDecimal value;
     private DealStatus status;
+    private DealStage stage;
     private String salesRepId;
+    private int salesRepOrdinal = UNRESOLVED_ORDINAL;
     private List<DealProduct> products;
     private LocalDate closeDate;
     private LocalDate createdDate;
     private LocalDate lastModifiedDate;
+    private volatile long version = VersionSequence.next();
+    private final List<DealStatusListener> statusListeners = new CopyOnWriteArrayList<>();
+    private volatile long totalValueStamp;
+    private volatile CachedTotalValue cachedTotalValue;
     
     /**
      * Default constructor
@@ -39,6 +59,7 @@ public class Deal {
         this.value = value;
         this.salesRepId = salesRepId;
         this.status = DealStatus.OPEN;
+        this.stage = DealStage.PROSPECTING;
     }
     
     // Getters and Setters
@@ -49,6 +70,7 @@ public class Deal {
     
     public void setId(String id) {
         this.id = id;
+        incrementVersion();
     }
     
     public String getTitle() {
@@ -57,6 +79,7 @@ public class Deal {
     
     public void setTitle(String title) {
         this.title = title;
+        incrementVersion();
     }
     
     public BigDecimal getValue() {
@@ -65,6 +88,7 @@ public class Deal {
     
     public void setValue(BigDecimal value) {
         this.value = value;
+        incrementVersion();
     }
     
     public DealStatus getStatus() {
@@ -72,8 +96,37 @@ public class Deal {
     }
     
     public void setStatus(DealStatus status) {
+        DealStatus previousStatus = this.status;
         this.status = status;
         this.lastModifiedDate = LocalDate.now();
+        incrementVersion();
+        if (previousStatus != status) {
+            for (DealStatusListener listener : statusListeners) {
+                listener.statusChanged(this, previousStatus, status);
+            }
+        }
+    }
+    
+    /**
+     * Register a listener to be notified when the status of this deal changes
+     * @param listener the listener to add
+     */
+    public void addStatusListener(DealStatusListener listener) {
+        statusListeners.add(listener);
+    }
+    
+    public void removeStatusListener(DealStatusListener listener) {
+        statusListeners.remove(listener);
+    }
+    
+    public DealStage getStage() {
+        return stage;
+    }
+    
+    public void setStage(DealStage stage) {
+        this.stage = stage;
+        this.lastModifiedDate = LocalDate.now();
+        incrementVersion();
     }
     
     public String getSalesRepId() {
@@ -82,18 +135,66 @@ public class Deal {
     
     public void setSalesRepId(String salesRepId) {
         this.salesRepId = salesRepId;
+        this.salesRepOrdinal = UNRESOLVED_ORDINAL;
+        incrementVersion();
     }
     
+    /**
+     * Get the ordinal of the sales rep in the global IdDictionary, resolved once per sales rep ID
+     * @return the ordinal, or IdDictionary.NO_ORDINAL if there is no sales rep ID
+     */
+    public int getSalesRepOrdinal() {
+        int ordinal = salesRepOrdinal;
+        if (ordinal == UNRESOLVED_ORDINAL) {
+            ordinal = IdDictionary.global().ordinalOf(IdDictionary.IdType.SALES_REP, salesRepId);
+            salesRepOrdinal = ordinal;
+        }
+        return ordinal;
+    }
+    
+    /**
+     * Get the products of this deal as a read-only view; use addProduct or setProducts to change them
+     * @return the products of this deal
+     */
     public List<DealProduct> getProducts() {
-        return products;
+        return Collections.unmodifiableList(products);
     }
     
+    /**
+     * Replace the products of this deal; products no longer in the deal can be added to another deal
+     * @param products the new products; later changes to the given list do not reach the deal
+     * @throws IllegalArgumentException if a product belongs to another deal
+     */
     public void setProducts(List<DealProduct> products) {
-        this.products = products;
+        List<DealProduct> replacement = new ArrayList<>();
+        if (products != null) {
+            for (DealProduct product : products) {
+                checkNotOwnedElsewhere(product);
+                replacement.add(product);
+            }
+        }
+        for (DealProduct product : this.products) {
+            product.releaseOwner(this);
+        }
+        for (DealProduct product : replacement) {
+            product.setOwner(this);
+        }
+        this.products = replacement;
+        incrementVersion();
+        invalidateTotalValue();
     }
     
+    /**
+     * Add a product to this deal
+     * @param product the product to add
+     * @throws IllegalArgumentException if the product belongs to another deal
+     */
     public void addProduct(DealProduct product) {
+        checkNotOwnedElsewhere(product);
         this.products.add(product);
+        product.setOwner(this);
+        incrementVersion();
+        invalidateTotalValue();
     }
     
     public LocalDate getCloseDate() {
@@ -102,6 +203,7 @@ public class Deal {
     
     public void setCloseDate(LocalDate closeDate) {
         this.closeDate = closeDate;
+        incrementVersion();
     }
     
     public LocalDate getCreatedDate() {
@@ -110,6 +212,7 @@ public class Deal {
     
     public void setCreatedDate(LocalDate createdDate) {
         this.createdDate = createdDate;
+        incrementVersion();
     }
     
     public LocalDate getLastModifiedDate() {
@@ -118,6 +221,22 @@ public class Deal {
     
     public void setLastModifiedDate(LocalDate lastModifiedDate) {
         this.lastModifiedDate = lastModifiedDate;
+        incrementVersion();
+    }
+    
+    /**
+     * Get the version of this deal, advanced on every change to the deal or to the quantity,
+     * price or discount of its products. Versions come from one sequence shared by all deals
+     * and plans, so a reloaded copy with the same ID never has the version of an earlier copy
+     * @return the current version
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    private void incrementVersion() {
+        // Never move backwards if another change took a later version first
+        VERSION.accumulateAndGet(this, VersionSequence.next(), Math::max);
     }
     
     /**
@@ -125,9 +244,38 @@ public class Deal {
      * @return the total value of all products in the deal
      */
     public BigDecimal calculateTotalValue() {
-        return products.stream()
-                .map(product -> product.getPrice().multiply(new BigDecimal(product.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Read the stamp first, so a total computed while a product changes is never reused
+        long stamp = totalValueStamp;
+        List<DealProduct> lines = products;
+        CachedTotalValue cached = cachedTotalValue;
+        if (cached != null && cached.stamp() == stamp) {
+            return cached.total();
+        }
+        BigDecimal total = LineItemEvaluator.sum(lines, DealProduct::calculateGrossPrice);
+        cachedTotalValue = new CachedTotalValue(stamp, total);
+        return total;
+    }
+    
+    /**
+     * Clear the cached total value and increment the version, called when a product of this deal changes
+     */
+    void productChanged() {
+        invalidateTotalValue();
+        incrementVersion();
+    }
+    
+    private void invalidateTotalValue() {
+        // Products of this deal may change from several threads, so no bump may be lost
+        TOTAL_VALUE_STAMP.incrementAndGet(this);
+        cachedTotalValue = null;
+    }
+    
+    private void checkNotOwnedElsewhere(DealProduct product) {
+        Deal owner = product.getOwner();
+        if (owner != null && owner != this) {
+            throw new IllegalArgumentException("Product " + product.getId() + " already belongs to deal "
+                    + owner.getId() + "; add a copy instead");
+        }
     }
     
     @Override
@@ -150,8 +298,12 @@ public class Deal {
                 ", title='" + title + '\'' +
                 ", value=" + value +
                 ", status=" + status +
+                ", stage=" + stage +
                 ", salesRepId='" + salesRepId + '\'' +
                 ", closeDate=" + closeDate +
                 '}';
     }
+    
+    private record CachedTotalValue(long stamp, BigDecimal total) {
+    }
 }
\ No newline at end of file
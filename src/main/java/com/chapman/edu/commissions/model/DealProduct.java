@@ -6,15 +6,24 @@ import java.util.Objects;
 /**
  * Represents a product within a deal.
  * Each deal can have multiple products with different quantities and prices.
+ * Line totals are cached until the quantity, price or discount changes, and a change also
+ * clears the cached total of the deal the product belongs to. A product belongs to at most
+ * one deal at a time.
  */
 public class DealProduct {
+    private static final int UNRESOLVED_ORDINAL = -2;
+    
     private String id;
     private String productId;
+    private int productOrdinal = UNRESOLVED_ORDINAL;
     private String productName;
     private int quantity;
     private BigDecimal price;
     private BigDecimal discount;
     private String dealId;
+    private volatile Deal owner;
+    private volatile long modCount;
+    private volatile CachedTotals cachedTotals;
     
     /**
      * Default constructor
@@ -51,6 +60,20 @@ public class DealProduct {
     
     public void setProductId(String productId) {
         this.productId = productId;
+        this.productOrdinal = UNRESOLVED_ORDINAL;
+    }
+    
+    /**
+     * Get the ordinal of the product in the global IdDictionary, resolved once per product ID
+     * @return the ordinal, or IdDictionary.NO_ORDINAL if there is no product ID
+     */
+    public int getProductOrdinal() {
+        int ordinal = productOrdinal;
+        if (ordinal == UNRESOLVED_ORDINAL) {
+            ordinal = IdDictionary.global().ordinalOf(IdDictionary.IdType.PRODUCT, productId);
+            productOrdinal = ordinal;
+        }
+        return ordinal;
     }
     
     public String getProductName() {
@@ -67,6 +90,7 @@ public class DealProduct {
     
     public void setQuantity(int quantity) {
         this.quantity = quantity;
+        invalidateTotals();
     }
     
     public BigDecimal getPrice() {
@@ -75,6 +99,7 @@ public class DealProduct {
     
     public void setPrice(BigDecimal price) {
         this.price = price;
+        invalidateTotals();
     }
     
     public BigDecimal getDiscount() {
@@ -83,6 +108,7 @@ public class DealProduct {
     
     public void setDiscount(BigDecimal discount) {
         this.discount = discount;
+        invalidateTotals();
     }
     
     public String getDealId() {
@@ -98,7 +124,58 @@ public class DealProduct {
      * @return the total price
      */
     public BigDecimal calculateTotalPrice() {
-        return price.multiply(new BigDecimal(quantity)).subtract(discount);
+        return getTotals().totalPrice();
+    }
+    
+    /**
+     * Calculate the price of this product before its discount (price * quantity)
+     * @return the gross price
+     */
+    public BigDecimal calculateGrossPrice() {
+        return getTotals().grossPrice();
+    }
+    
+    /**
+     * Set the deal whose cached total and version must be updated when this product changes
+     * @param owner the deal this product was added to
+     */
+    void setOwner(Deal owner) {
+        this.owner = owner;
+    }
+    
+    /**
+     * Clear the owning deal if it is the given deal, called when the deal no longer includes this product
+     * @param deal the deal giving up this product
+     */
+    void releaseOwner(Deal deal) {
+        if (owner == deal) {
+            owner = null;
+        }
+    }
+    
+    Deal getOwner() {
+        return owner;
+    }
+    
+    private CachedTotals getTotals() {
+        // Read the stamp first, so totals computed from values that change meanwhile are never reused
+        long stamp = modCount;
+        CachedTotals totals = cachedTotals;
+        if (totals == null || totals.modCount() != stamp) {
+            BigDecimal grossPrice = price.multiply(BigDecimal.valueOf(quantity));
+            totals = new CachedTotals(stamp, grossPrice, grossPrice.subtract(discount));
+            cachedTotals = totals;
+        }
+        return totals;
+    }
+    
+    private void invalidateTotals() {
+        modCount++;
+        cachedTotals = null;
+        Deal deal = owner;
+        if (deal != null) {
+            deal.productChanged();
+        }
     }
     
     @Override
@@ -123,4 +200,7 @@ public class DealProduct {
                 ", price=" + price +
                 '}';
     }
+    
+    private record CachedTotals(long modCount, BigDecimal grossPrice, BigDecimal totalPrice) {
+    }
 }
\ No newline at end of file
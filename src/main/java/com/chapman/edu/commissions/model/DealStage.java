@@ -0,0 +1,40 @@
+package com.chapman.edu.commissions.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Enum representing the sales stages of an open deal,
+ * each with the default probability that a deal in that stage is won.
+ */
+public enum DealStage {
+    PROSPECTING("Prospecting", "0.10"),
+    QUALIFICATION("Qualification", "0.25"),
+    PROPOSAL("Proposal", "0.50"),
+    NEGOTIATION("Negotiation", "0.75"),
+    COMMIT("Commit", "0.90");
+    
+    private final String displayName;
+    private final BigDecimal probability;
+    
+    DealStage(String displayName, String probability) {
+        this.displayName = displayName;
+        this.probability = new BigDecimal(probability);
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Get the default probability, between 0 and 1, that a deal in this stage is won
+     * @return the win probability
+     */
+    public BigDecimal getProbability() {
+        return probability;
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,16 @@
+package com.chapman.edu.commissions.model;
+
+/**
+ * Listener notified when the status of a deal changes.
+ */
+@FunctionalInterface
+public interface DealStatusListener {
+    
+    /**
+     * Called after a deal's status has changed
+     * @param deal the deal whose status changed
+     * @param previousStatus the status before the change
+     * @param newStatus the status after the change
+     */
+    void statusChanged(Deal deal, DealStatus previousStatus, DealStatus newStatus);
+}
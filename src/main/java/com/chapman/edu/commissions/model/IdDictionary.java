@@ -0,0 +1,138 @@
+package com.chapman.edu.commissions.model;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the string IDs that model objects use to refer to each other to dense int ordinals.
+ * Each kind of ID has its own ordinals, numbered from 0 in the order the IDs are first seen.
+ * An ordinal never changes once assigned, so it can index arrays in aggregation loops and
+ * key hot-path maps in place of the string. The strings are kept for the API edge and can
+ * be looked up again from an ordinal.
+ */
+public final class IdDictionary {
+
+    /**
+     * Ordinal returned for a null or unknown ID.
+     */
+    public static final int NO_ORDINAL = -1;
+
+    private static final IdDictionary GLOBAL = new IdDictionary();
+
+    /**
+     * The kinds of ID the dictionary encodes.
+     */
+    public enum IdType {
+        SALES_REP("Sales Rep"),
+        PRODUCT("Product"),
+        PLAN("Plan");
+
+        private final String displayName;
+
+        IdType(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Map<IdType, Encoding> encodings = new EnumMap<>(IdType.class);
+
+    /**
+     * Constructor for a dictionary separate from the global one, e.g. for tests
+     */
+    public IdDictionary() {
+        for (IdType type : IdType.values()) {
+            encodings.put(type, new Encoding());
+        }
+    }
+
+    /**
+     * Get the dictionary shared by the whole application
+     * @return the global dictionary
+     */
+    public static IdDictionary global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Get the ordinal of an ID, assigning the next ordinal if the ID has not been seen before
+     * @param type the kind of ID
+     * @param id the ID
+     * @return the ordinal, or NO_ORDINAL if the ID is null
+     */
+    public int ordinalOf(IdType type, String id) {
+        return id != null ? encodings.get(type).ordinalOf(id) : NO_ORDINAL;
+    }
+
+    /**
+     * Get the ordinal of an ID without assigning one
+     * @param type the kind of ID
+     * @param id the ID
+     * @return the ordinal, or NO_ORDINAL if the ID is null or has not been seen
+     */
+    public int findOrdinal(IdType type, String id) {
+        if (id == null) {
+            return NO_ORDINAL;
+        }
+        Integer ordinal = encodings.get(type).ordinals.get(id);
+        return ordinal != null ? ordinal : NO_ORDINAL;
+    }
+
+    /**
+     * Get the ID an ordinal was assigned to
+     * @param type the kind of ID
+     * @param ordinal the ordinal
+     * @return the ID, or null for NO_ORDINAL
+     */
+    public String idOf(IdType type, int ordinal) {
+        if (ordinal == NO_ORDINAL) {
+            return null;
+        }
+        Encoding encoding = encodings.get(type);
+        if (ordinal < 0 || ordinal >= encoding.size) {
+            throw new IllegalArgumentException("Unknown " + type.getDisplayName() + " ordinal: " + ordinal);
+        }
+        return encoding.ids[ordinal];
+    }
+
+    /**
+     * Get the number of ordinals assigned so far, which bounds every ordinal of that kind
+     * @param type the kind of ID
+     * @return the number of distinct IDs seen
+     */
+    public int size(IdType type) {
+        return encodings.get(type).size;
+    }
+
+    private static final class Encoding {
+        private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+        private volatile String[] ids = new String[64];
+        private volatile int size;
+
+        int ordinalOf(String id) {
+            Integer ordinal = ordinals.get(id);
+            return ordinal != null ? ordinal : assign(id);
+        }
+
+        private synchronized int assign(String id) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            int next = size;
+            if (next == ids.length) {
+                ids = Arrays.copyOf(ids, next * 2);
+            }
+            ids[next] = id;
+            // The ID is in place before the ordinal can be seen through the size or the map
+            size = next + 1;
+            ordinals.put(id, next);
+            return next;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.chapman.edu.commissions.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * This class evaluates the line items of a deal, in parallel when the deal is large.
+ * Deals with fewer line items than the parallel threshold are evaluated on the calling thread.
+ * Larger deals are split into fixed-size chunks that are evaluated in parallel, and the chunk
+ * results are combined in chunk order, so the result does not depend on thread scheduling.
+ */
+public final class LineItemEvaluator {
+    
+    /**
+     * The number of line items from which a deal is evaluated in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 4096;
+    
+    /**
+     * The number of line items in each chunk evaluated in parallel.
+     */
+    static final int CHUNK_SIZE = 1024;
+    
+    private LineItemEvaluator() {
+    }
+    
+    /**
+     * Sums a per-line amount over all line items.
+     * 
+     * @param products The line items
+     * @param lineEvaluator Computes the amount for one line item
+     * @return The unrounded total
+     */
+    public static BigDecimal sum(List<DealProduct> products, Function<DealProduct, BigDecimal> lineEvaluator) {
+        return evaluate(products, chunk -> {
+            BigDecimal total = BigDecimal.ZERO;
+            for (DealProduct product : chunk) {
+                total = total.add(lineEvaluator.apply(product));
+            }
+            return total;
+        }, BigDecimal::add);
+    }
+    
+    /**
+     * Evaluates chunks of line items and combines their results in order.
+     * 
+     * @param products The line items
+     * @param chunkEvaluator Evaluates a contiguous chunk of line items
+     * @param combiner Combines the results of two consecutive chunks
+     * @return The combined result
+     */
+    public static <R> R evaluate(List<DealProduct> products, Function<List<DealProduct>, R> chunkEvaluator,
+                                 BinaryOperator<R> combiner) {
+        int size = products.size();
+        if (size < PARALLEL_THRESHOLD) {
+            return chunkEvaluator.apply(products);
+        }
+        
+        int chunkCount = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        List<R> partials = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(chunk -> chunkEvaluator.apply(
+                        products.subList(chunk * CHUNK_SIZE, Math.min((chunk + 1) * CHUNK_SIZE, size))))
+                .toList();
+        
+        R result = partials.get(0);
+        for (int i = 1; i < partials.size(); i++) {
+            result = combiner.apply(result, partials.get(i));
+        }
+        return result;
+    }
+}
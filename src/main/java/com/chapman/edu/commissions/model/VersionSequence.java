@@ -0,0 +1,25 @@
+package com.chapman.edu.commissions.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues the versions of deals and commission plans from one increasing sequence.
+ * Every new object and every change takes the next number, so two objects never share a
+ * version, even when they have the same ID. A reloaded or replaced deal or plan therefore
+ * never matches a version recorded for an earlier copy, and a higher version is always the
+ * later change within this process.
+ */
+final class VersionSequence {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private VersionSequence() {
+    }
+
+    /**
+     * Gets the next version.
+     */
+    static long next() {
+        return LAST.incrementAndGet();
+    }
+}
@@ -3,10 +3,16 @@ package com.chapman.edu.commissions.principles.solid.fixed.dip;
 import com.chapman.edu.commissions.model.CommissionCalculation;
 import com.chapman.edu.commissions.model.Deal;
 import com.chapman.edu.commissions.model.User;
+import com.chapman.edu.commissions.principles.solid.fixed.srp.IdGenerationService;
+import com.chapman.edu.commissions.principles.solid.fixed.srp.IdGenerationServiceImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class demonstrates proper adherence to the Dependency Inversion Principle.
@@ -14,25 +20,75 @@ import java.util.List;
  */
 public class CommissionService {
     
+    private static final IdGenerationService DEFAULT_ID_GENERATION_SERVICE = IdGenerationServiceImpl.defaultInstance();
+    
     // Dependencies are defined as interfaces, not concrete classes
     private final Database database;
     private final Logger logger;
     private final EmailService emailService;
+    private final IdGenerationService idGenerationService;
+    
+    // Calculations currently running, keyed by deal and sales rep
+    private final Map<String, CompletableFuture<CommissionCalculation>> inFlightCalculations = new ConcurrentHashMap<>();
     
     /**
      * Constructor that takes dependencies as interfaces.
      * This allows for dependency injection and follows DIP.
      */
     public CommissionService(Database database, Logger logger, EmailService emailService) {
+        this(database, logger, emailService, DEFAULT_ID_GENERATION_SERVICE);
+    }
+    
+    /**
+     * Constructor that also takes the ID generation service as an interface.
+     */
+    public CommissionService(Database database, Logger logger, EmailService emailService,
+                             IdGenerationService idGenerationService) {
         this.database = database;
         this.logger = logger;
         this.emailService = emailService;
+        this.idGenerationService = idGenerationService;
     }
     
     /**
      * Calculates commission for a deal.
+     * Concurrent calls for the same deal and sales rep share a single calculation: the first caller
+     * runs it and the others wait for and receive the same result (or exception), so the deal is
+     * read, saved and emailed about only once.
      */
     public CommissionCalculation calculateCommission(String dealId, String salesRepId) {
+        String key = dealId + "|" + salesRepId;
+        CompletableFuture<CommissionCalculation> ownFuture = new CompletableFuture<>();
+        CompletableFuture<CommissionCalculation> inFlight = inFlightCalculations.putIfAbsent(key, ownFuture);
+        
+        if (inFlight != null) {
+            logger.logInfo("Joining in-flight commission calculation for deal: " + dealId);
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw (RuntimeException) e.getCause();
+            }
+        }
+        
+        try {
+            CommissionCalculation calculation = computeCommission(dealId, salesRepId);
+            ownFuture.complete(calculation);
+            return calculation;
+        } catch (RuntimeException | Error e) {
+            ownFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightCalculations.remove(key, ownFuture);
+        }
+    }
+    
+    /**
+     * Performs the calculation for a deal, saves it and notifies the sales rep.
+     */
+    private CommissionCalculation computeCommission(String dealId, String salesRepId) {
         try {
             // Log using the logger interface
             logger.logInfo("Calculating commission for deal: " + dealId);
@@ -55,7 +111,7 @@ public class CommissionService {
             
             // Create commission calculation
             CommissionCalculation calculation = new CommissionCalculation();
-            calculation.setId("CALC-" + System.currentTimeMillis());
+            calculation.setId(idGenerationService.nextId("CALC-"));
             calculation.setDealId(dealId);
             calculation.setSalesRepId(salesRepId);
             calculation.setBaseCommission(commissionAmount);
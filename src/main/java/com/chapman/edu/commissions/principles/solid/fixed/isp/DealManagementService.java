@@ -2,6 +2,7 @@ package com.chapman.edu.commissions.principles.solid.fixed.isp;
 
 import com.chapman.edu.commissions.model.Deal;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,6 +20,21 @@ public interface DealManagementService {
      */
     Deal createDeal(Deal deal);
     
+    /**
+     * Creates a batch of deals, e.g. during a bulk import.
+     * Implementations that can save several deals at once should override this.
+     * 
+     * @param deals The deals to create
+     * @return The created deals with their IDs assigned
+     */
+    default List<Deal> createDeals(List<Deal> deals) {
+        List<Deal> created = new ArrayList<>(deals.size());
+        for (Deal deal : deals) {
+            created.add(createDeal(deal));
+        }
+        return created;
+    }
+    
     /**
      * Updates an existing deal.
      * 
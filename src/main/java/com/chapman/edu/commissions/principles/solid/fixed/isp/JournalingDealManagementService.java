@@ -0,0 +1,78 @@
+package com.chapman.edu.commissions.principles.solid.fixed.isp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.principles.solid.fixed.srp.DealMutationJournal;
+
+import java.util.List;
+
+/**
+ * This class records every change made through a DealManagementService in a DealMutationJournal.
+ * It follows the Interface Segregation Principle by implementing only the deal management
+ * interface, so it can wrap any implementation of it without depending on anything else.
+ *
+ * Each change is recorded after the wrapped service has made it, so a change that fails
+ * leaves no record. A change and its record are made together while holding this wrapper's
+ * lock, so changes made through the wrapper are journaled in the order they were made.
+ * A delete is only recorded if the deal existed. Reads are passed straight through.
+ */
+public class JournalingDealManagementService implements DealManagementService {
+
+    private final DealManagementService delegate;
+    private final DealMutationJournal journal;
+
+    /**
+     * Constructor that takes the service to wrap and the journal to record to.
+     */
+    public JournalingDealManagementService(DealManagementService delegate, DealMutationJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    @Override
+    public synchronized Deal createDeal(Deal deal) {
+        Deal created = delegate.createDeal(deal);
+        journal.recordCreate(created);
+        return created;
+    }
+
+    @Override
+    public synchronized List<Deal> createDeals(List<Deal> deals) {
+        List<Deal> created = delegate.createDeals(deals);
+        for (Deal deal : created) {
+            journal.recordCreate(deal);
+        }
+        return created;
+    }
+
+    @Override
+    public synchronized Deal updateDeal(Deal deal) {
+        Deal updated = delegate.updateDeal(deal);
+        journal.recordUpdate(updated);
+        return updated;
+    }
+
+    @Override
+    public Deal getDealById(String dealId) {
+        return delegate.getDealById(dealId);
+    }
+
+    @Override
+    public List<Deal> getAllDeals() {
+        return delegate.getAllDeals();
+    }
+
+    @Override
+    public List<Deal> getDealsBySalesRep(String salesRepId) {
+        return delegate.getDealsBySalesRep(salesRepId);
+    }
+
+    @Override
+    public synchronized void deleteDeal(String dealId) {
+        // Nothing is deleted for an unknown deal, so there is nothing to record
+        boolean exists = delegate.getDealById(dealId) != null;
+        delegate.deleteDeal(dealId);
+        if (exists) {
+            journal.recordDelete(dealId);
+        }
+    }
+}
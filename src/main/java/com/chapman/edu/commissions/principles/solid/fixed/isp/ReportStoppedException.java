@@ -0,0 +1,45 @@
+package com.chapman.edu.commissions.principles.solid.fixed.isp;
+
+import com.chapman.edu.commissions.principles.solid.fixed.srp.CancellationToken;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Thrown when a report is stopped before it is finished.
+ * It says how many of the report's chunks were finished and why the report stopped.
+ */
+public class ReportStoppedException extends CancellationException {
+
+    private final int completedCount;
+    private final int totalCount;
+    private final CancellationToken.StopReason stopReason;
+
+    /**
+     * Constructor with how far the report got and why it stopped.
+     *
+     * @param reportName The name of the report, used in the message
+     * @param completedCount The number of chunks finished before the report stopped
+     * @param totalCount The number of chunks in the whole report
+     * @param stopReason Why the report stopped
+     */
+    public ReportStoppedException(String reportName, int completedCount, int totalCount,
+                                  CancellationToken.StopReason stopReason) {
+        super(reportName + " stopped after " + completedCount + " of " + totalCount + ": "
+                + stopReason.getDisplayName());
+        this.completedCount = completedCount;
+        this.totalCount = totalCount;
+        this.stopReason = stopReason;
+    }
+
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public CancellationToken.StopReason getStopReason() {
+        return stopReason;
+    }
+}
@@ -0,0 +1,169 @@
+package com.chapman.edu.commissions.principles.solid.fixed.isp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.User;
+import com.chapman.edu.commissions.model.UserRole;
+import com.chapman.edu.commissions.principles.solid.fixed.srp.CancellationToken;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * This class implements only the ReportingService interface.
+ * It follows the Interface Segregation Principle by depending only on the user management and
+ * commission calculation interfaces it reads from, rather than on a full service layer.
+ *
+ * Reports are CSV text covering the calculations made in the report period. The system-wide
+ * report is built one sales rep at a time; the cancellable version checks its token before
+ * each sales rep and, when asked to stop, drops the partial report and throws a
+ * ReportStoppedException that says how many sales reps were finished.
+ */
+public class ReportingClient implements ReportingService {
+    private static final Logger LOGGER = Logger.getLogger(ReportingClient.class.getName());
+
+    private static final List<String> FREQUENCIES = List.of("DAILY", "WEEKLY", "MONTHLY");
+
+    private final UserManagementService userService;
+    private final CommissionCalculationService calculationService;
+
+    // Simulated schedule store for demonstration purposes
+    private final Map<String, String> frequenciesBySchedule = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that takes the services the reports read from.
+     */
+    public ReportingClient(UserManagementService userService, CommissionCalculationService calculationService) {
+        this.userService = userService;
+        this.calculationService = calculationService;
+    }
+
+    @Override
+    public byte[] generateCommissionReport(String salesRepId, String startDate, String endDate) {
+        LocalDate from = parseDate(startDate);
+        LocalDate to = parseDate(endDate);
+        StringBuilder report = new StringBuilder("calculation_id,deal_id,calculation_date,status,net_commission\n");
+        for (CommissionCalculation calculation : calculationsInPeriod(salesRepId, from, to)) {
+            report.append(calculation.getId()).append(',')
+                    .append(calculation.getDealId()).append(',')
+                    .append(calculation.getCalculationDate()).append(',')
+                    .append(calculation.getStatus()).append(',')
+                    .append(netCommissionOf(calculation).toPlainString()).append('\n');
+        }
+        return report.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] generateTeamReport(String managerId, String startDate, String endDate) {
+        List<User> team = new ArrayList<>();
+        for (User user : userService.getAllUsers()) {
+            if (managerId.equals(user.getManagerId())) {
+                team.add(user);
+            }
+        }
+        return summaryReport(team, parseDate(startDate), parseDate(endDate), CancellationToken.create(), "Team report");
+    }
+
+    @Override
+    public byte[] generateSystemWideReport(String startDate, String endDate) {
+        return generateSystemWideReport(startDate, endDate, CancellationToken.create());
+    }
+
+    @Override
+    public byte[] generateSystemWideReport(String startDate, String endDate, CancellationToken token) {
+        List<User> salesReps = new ArrayList<>();
+        for (User user : userService.getAllUsers()) {
+            if (user.hasRole(UserRole.SALES_REP)) {
+                salesReps.add(user);
+            }
+        }
+        return summaryReport(salesReps, parseDate(startDate), parseDate(endDate), token, "System-wide report");
+    }
+
+    @Override
+    public void emailReport(String reportType, String recipientId, String startDate, String endDate) {
+        User recipient = userService.getUserById(recipientId);
+        if (recipient == null) {
+            throw new IllegalArgumentException("Recipient not found: " + recipientId);
+        }
+        byte[] report = switch (reportType) {
+            case "COMMISSION" -> generateCommissionReport(recipientId, startDate, endDate);
+            case "TEAM" -> generateTeamReport(recipientId, startDate, endDate);
+            case "SYSTEM_WIDE" -> generateSystemWideReport(startDate, endDate);
+            default -> throw new IllegalArgumentException("Unknown report type: " + reportType);
+        };
+        // Simplified implementation for demonstration purposes
+        LOGGER.info("Emailing " + reportType + " report (" + report.length + " bytes) to " + recipient.getEmail());
+    }
+
+    @Override
+    public void scheduleRecurringReport(String reportType, String recipientId, String frequency) {
+        if (!FREQUENCIES.contains(frequency)) {
+            throw new IllegalArgumentException("Unknown report frequency: " + frequency);
+        }
+        frequenciesBySchedule.put(reportType + "|" + recipientId, frequency);
+        LOGGER.info("Scheduled " + frequency + " " + reportType + " report for " + recipientId);
+    }
+
+    /**
+     * Builds a report with one summary line per user, checking the token before each user.
+     */
+    private byte[] summaryReport(List<User> users, LocalDate from, LocalDate to, CancellationToken token,
+                                 String reportName) {
+        List<User> ordered = new ArrayList<>(users);
+        ordered.sort(Comparator.comparing(User::getId));
+        StringBuilder report = new StringBuilder("sales_rep_id,calculations,net_commission\n");
+        long totalCount = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ordered.size(); i++) {
+            CancellationToken.StopReason stopReason = token.getStopReason();
+            if (stopReason != CancellationToken.StopReason.NONE) {
+                LOGGER.warning(reportName + " stopped after " + i + " of " + ordered.size() + " sales reps: "
+                        + stopReason.getDisplayName());
+                throw new ReportStoppedException(reportName, i, ordered.size(), stopReason);
+            }
+            String salesRepId = ordered.get(i).getId();
+            List<CommissionCalculation> calculations = calculationsInPeriod(salesRepId, from, to);
+            BigDecimal repTotal = BigDecimal.ZERO;
+            for (CommissionCalculation calculation : calculations) {
+                repTotal = repTotal.add(netCommissionOf(calculation));
+            }
+            report.append(salesRepId).append(',').append(calculations.size()).append(',')
+                    .append(repTotal.toPlainString()).append('\n');
+            totalCount += calculations.size();
+            total = total.add(repTotal);
+        }
+        report.append("TOTAL,").append(totalCount).append(',').append(total.toPlainString()).append('\n');
+        return report.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<CommissionCalculation> calculationsInPeriod(String salesRepId, LocalDate from, LocalDate to) {
+        List<CommissionCalculation> inPeriod = new ArrayList<>();
+        for (CommissionCalculation calculation : calculationService.getCalculationsBySalesRep(salesRepId)) {
+            LocalDate date = calculation.getCalculationDate();
+            if (date != null && !date.isBefore(from) && !date.isAfter(to)) {
+                inPeriod.add(calculation);
+            }
+        }
+        return inPeriod;
+    }
+
+    private BigDecimal netCommissionOf(CommissionCalculation calculation) {
+        return calculation.getNetCommission() != null ? calculation.getNetCommission() : BigDecimal.ZERO;
+    }
+
+    private LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Report dates must be formatted YYYY-MM-DD: " + date, e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.chapman.edu.commissions.principles.solid.fixed.isp;
 
+import com.chapman.edu.commissions.principles.solid.fixed.srp.CancellationToken;
+
 /**
  * This interface defines reporting operations.
  * It follows the Interface Segregation Principle by focusing only on reporting,
@@ -36,6 +38,19 @@ public interface ReportingService {
      */
     byte[] generateSystemWideReport(String startDate, String endDate);
     
+    /**
+     * Generates a system-wide report, stopping early if the token is cancelled or its deadline passes.
+     * Implementations build the report in chunks (e.g. one sales rep or one page of calculations
+     * at a time), check the token between chunks and release what they hold before stopping.
+     * 
+     * @param startDate The start date for the report period (format: YYYY-MM-DD)
+     * @param endDate The end date for the report period (format: YYYY-MM-DD)
+     * @param token Signals that report generation should stop
+     * @return The report data as a byte array
+     * @throws ReportStoppedException if the report was stopped before it was finished, with how far it got
+     */
+    byte[] generateSystemWideReport(String startDate, String endDate, CancellationToken token);
+    
     /**
      * Emails a report to a recipient.
      * 
@@ -2,66 +2,113 @@ package com.chapman.edu.commissions.principles.solid.fixed.ocp;
 
 import com.chapman.edu.commissions.model.Deal;
 import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.IdDictionary;
+import com.chapman.edu.commissions.model.LineItemEvaluator;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * This class calculates commissions for deals using a collection of commission strategies.
  * It follows the Open/Closed Principle by being open for extension (adding new strategies)
  * but closed for modification (the calculation logic doesn't need to change).
+ * 
+ * Strategies that declare a product ID are kept in an array indexed by the ID's ordinal in an
+ * IdDictionary owned by this calculator, so finding the strategy for a product is a single array
+ * read however many strategies are registered, and no other calculator or the global dictionary
+ * is affected. Only registering a strategy assigns a product ordinal; looking up a product whose
+ * ID no strategy declares leaves the dictionary unchanged. Strategies
+ * that decide through appliesTo alone are checked in registration order, and the first
+ * applicable strategy in registration order still wins.
  */
 public class CommissionCalculator {
     
-    private final List<CommissionStrategy> commissionStrategies;
+    private final IdDictionary productIds = new IdDictionary();
+    private RegisteredStrategy[] strategiesByProductOrdinal = new RegisteredStrategy[0];
+    private final List<RegisteredStrategy> predicateStrategies = new ArrayList<>();
+    private int strategyCount;
     
     /**
      * Constructor that initializes with default commission strategies.
      */
     public CommissionCalculator() {
-        this.commissionStrategies = new ArrayList<>();
-        
         // Register default strategies
-        commissionStrategies.add(new SoftwareCommissionStrategy());
-        commissionStrategies.add(new HardwareCommissionStrategy());
-        commissionStrategies.add(new ServiceCommissionStrategy());
-        commissionStrategies.add(new TrainingCommissionStrategy());
+        addCommissionStrategy(new SoftwareCommissionStrategy());
+        addCommissionStrategy(new HardwareCommissionStrategy());
+        addCommissionStrategy(new ServiceCommissionStrategy());
+        addCommissionStrategy(new TrainingCommissionStrategy());
     }
     
     /**
      * Constructor that allows custom commission strategies.
      */
     public CommissionCalculator(List<CommissionStrategy> commissionStrategies) {
-        this.commissionStrategies = new ArrayList<>(commissionStrategies);
+        for (CommissionStrategy strategy : commissionStrategies) {
+            addCommissionStrategy(strategy);
+        }
     }
     
     /**
      * Adds a new commission strategy.
      */
     public void addCommissionStrategy(CommissionStrategy strategy) {
-        commissionStrategies.add(strategy);
+        RegisteredStrategy registered = new RegisteredStrategy(strategyCount++, strategy);
+        if (strategy.getProductId() != null) {
+            int ordinal = productIds.ordinalOf(IdDictionary.IdType.PRODUCT, strategy.getProductId());
+            if (ordinal >= strategiesByProductOrdinal.length) {
+                strategiesByProductOrdinal = Arrays.copyOf(strategiesByProductOrdinal,
+                        productIds.size(IdDictionary.IdType.PRODUCT));
+            }
+            // An earlier strategy for the same product ID takes precedence
+            if (strategiesByProductOrdinal[ordinal] == null) {
+                strategiesByProductOrdinal[ordinal] = registered;
+            }
+        } else {
+            predicateStrategies.add(registered);
+        }
+    }
+    
+    /**
+     * Finds the first registered strategy that applies to a product.
+     * 
+     * @return The strategy, or null if none applies
+     */
+    CommissionStrategy findStrategy(DealProduct product) {
+        // Look the ID up without interning it, so unknown products do not grow the dictionary
+        int ordinal = productIds.findOrdinal(IdDictionary.IdType.PRODUCT, product.getProductId());
+        RegisteredStrategy keyed = ordinal != IdDictionary.NO_ORDINAL && ordinal < strategiesByProductOrdinal.length
+                ? strategiesByProductOrdinal[ordinal]
+                : null;
+        int keyedOrder = keyed != null ? keyed.order() : Integer.MAX_VALUE;
+        // Only predicate strategies registered before the keyed one can take precedence over it
+        for (RegisteredStrategy registered : predicateStrategies) {
+            if (registered.order() > keyedOrder) {
+                break;
+            }
+            if (registered.strategy().appliesTo(product)) {
+                return registered.strategy();
+            }
+        }
+        return keyed != null ? keyed.strategy() : null;
     }
     
     /**
      * Calculates the total commission for a deal.
      */
     public BigDecimal calculateCommission(Deal deal) {
-        BigDecimal totalCommission = BigDecimal.ZERO;
-        List<DealProduct> products = deal.getProducts();
-        
-        for (DealProduct product : products) {
+        // Large deals are evaluated in parallel chunks; small deals stay on this thread
+        BigDecimal totalCommission = LineItemEvaluator.sum(deal.getProducts(), product -> {
             // Find the appropriate strategy for this product
-            for (CommissionStrategy strategy : commissionStrategies) {
-                if (strategy.appliesTo(product)) {
-                    BigDecimal commission = strategy.calculateCommission(product);
-                    totalCommission = totalCommission.add(commission);
-                    break; // Use the first applicable strategy
-                }
-            }
-        }
+            CommissionStrategy strategy = findStrategy(product);
+            return strategy != null ? strategy.calculateCommission(product) : BigDecimal.ZERO;
+        });
         
         return totalCommission.setScale(2, RoundingMode.HALF_UP);
     }
+    
+    private record RegisteredStrategy(int order, CommissionStrategy strategy) {
+    }
 }
\ No newline at end of file
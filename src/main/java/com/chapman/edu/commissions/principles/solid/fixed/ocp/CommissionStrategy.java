@@ -19,6 +19,17 @@ public interface CommissionStrategy {
      */
     boolean appliesTo(DealProduct product);
     
+    /**
+     * Gets the single product ID this strategy applies to, if it applies to exactly one.
+     * Strategies that return a product ID are found by a direct lookup instead of calling
+     * appliesTo on every product; appliesTo must then match exactly that product ID.
+     * 
+     * @return The product ID, or null if the strategy decides through appliesTo alone
+     */
+    default String getProductId() {
+        return null;
+    }
+    
     /**
      * Calculates the commission for a product.
      * 
@@ -26,4 +37,16 @@ public interface CommissionStrategy {
      * @return The commission amount
      */
     BigDecimal calculateCommission(DealProduct product);
+    
+    /**
+     * Calculates the commission for a line item whose product total has already been computed.
+     * Strategies should override this to use the shared product total; the default
+     * delegates to calculateCommission(DealProduct).
+     * 
+     * @param line The line item being priced
+     * @return The commission amount
+     */
+    default BigDecimal calculateCommission(LineItemContext line) {
+        return calculateCommission(line.getProduct());
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.chapman.edu.commissions.principles.solid.fixed.ocp;
 
 import com.chapman.edu.commissions.model.Deal;
 import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.LineItemEvaluator;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -48,20 +49,27 @@ public class DiscountCalculator {
      * Calculates the total discount for a deal.
      */
     public BigDecimal calculateDiscount(Deal deal) {
-        BigDecimal totalDiscount = BigDecimal.ZERO;
-        List<DealProduct> products = deal.getProducts();
-        
-        for (DealProduct product : products) {
+        // Large deals are evaluated in parallel chunks; small deals stay on this thread
+        BigDecimal totalDiscount = LineItemEvaluator.sum(deal.getProducts(), product -> {
             // Find the appropriate strategy for this product
-            for (DiscountStrategy strategy : discountStrategies) {
-                if (strategy.appliesTo(product)) {
-                    BigDecimal discount = strategy.calculateDiscount(product);
-                    totalDiscount = totalDiscount.add(discount);
-                    break; // Use the first applicable strategy
-                }
-            }
-        }
+            DiscountStrategy strategy = findStrategy(product);
+            return strategy != null ? strategy.calculateDiscount(product) : BigDecimal.ZERO;
+        });
         
         return totalDiscount.setScale(2, RoundingMode.HALF_UP);
     }
+    
+    /**
+     * Finds the first registered strategy that applies to a product.
+     * 
+     * @return The strategy, or null if none applies
+     */
+    DiscountStrategy findStrategy(DealProduct product) {
+        for (DiscountStrategy strategy : discountStrategies) {
+            if (strategy.appliesTo(product)) {
+                return strategy; // Use the first applicable strategy
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
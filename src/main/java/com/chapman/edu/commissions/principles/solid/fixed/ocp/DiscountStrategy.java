@@ -26,4 +26,16 @@ public interface DiscountStrategy {
      * @return The discount amount
      */
     BigDecimal calculateDiscount(DealProduct product);
+    
+    /**
+     * Calculates the discount for a line item whose product total has already been computed.
+     * Strategies should override this to use the shared product total; the default
+     * delegates to calculateDiscount(DealProduct).
+     * 
+     * @param line The line item being priced
+     * @return The discount amount
+     */
+    default BigDecimal calculateDiscount(LineItemContext line) {
+        return calculateDiscount(line.getProduct());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.chapman.edu.commissions.principles.solid.fixed.ocp;
+
+import com.chapman.edu.commissions.model.DealProduct;
+
+import java.math.BigDecimal;
+
+/**
+ * This class holds what is known about one line item of a deal while it is being priced.
+ * The product total (price times quantity) is computed once and shared by the commission,
+ * discount and tax strategies instead of each of them computing it again.
+ */
+public final class LineItemContext {
+    
+    private final DealProduct product;
+    private final BigDecimal productTotal;
+    
+    /**
+     * Constructor that computes the product total of a line item.
+     */
+    public LineItemContext(DealProduct product) {
+        this.product = product;
+        this.productTotal = product.calculateGrossPrice();
+    }
+    
+    public DealProduct getProduct() {
+        return product;
+    }
+    
+    /**
+     * Gets the price times the quantity of the line item, unrounded.
+     */
+    public BigDecimal getProductTotal() {
+        return productTotal;
+    }
+}
@@ -0,0 +1,119 @@
+package com.chapman.edu.commissions.principles.solid.fixed.ocp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.LineItemEvaluator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * This class prices a deal's commission, discount and tax in a single pass over its line items.
+ * It follows the Open/Closed Principle by reusing the strategies registered with the
+ * CommissionCalculator, DiscountCalculator and TaxCalculator, so new strategies are picked up
+ * without changing the pipeline.
+ * 
+ * Each line item's product total is computed once and shared by all three strategies through
+ * a LineItemContext. The totals match what the three calculators return separately.
+ */
+public class PricingPipeline {
+    
+    private final CommissionCalculator commissionCalculator;
+    private final DiscountCalculator discountCalculator;
+    private final TaxCalculator taxCalculator;
+    
+    /**
+     * Constructor that uses calculators with the default strategies.
+     */
+    public PricingPipeline() {
+        this(new CommissionCalculator(), new DiscountCalculator(), new TaxCalculator());
+    }
+    
+    /**
+     * Constructor that takes the calculators whose strategies are used.
+     */
+    public PricingPipeline(CommissionCalculator commissionCalculator, DiscountCalculator discountCalculator,
+                           TaxCalculator taxCalculator) {
+        this.commissionCalculator = commissionCalculator;
+        this.discountCalculator = discountCalculator;
+        this.taxCalculator = taxCalculator;
+    }
+    
+    /**
+     * Calculates the commission, discount and tax of a deal in a specific country.
+     */
+    public PricingResult price(Deal deal, String countryCode) {
+        TaxStrategy taxStrategy = taxCalculator.resolveStrategy(countryCode);
+        // Large deals are priced in parallel chunks; small deals stay on this thread
+        Totals totals = LineItemEvaluator.evaluate(deal.getProducts(),
+                chunk -> priceLines(chunk, taxStrategy), Totals::plus);
+        
+        return new PricingResult(totals.commission().setScale(2, RoundingMode.HALF_UP),
+                totals.discount().setScale(2, RoundingMode.HALF_UP),
+                totals.tax().setScale(2, RoundingMode.HALF_UP));
+    }
+    
+    private Totals priceLines(List<DealProduct> products, TaxStrategy taxStrategy) {
+        BigDecimal totalCommission = BigDecimal.ZERO;
+        BigDecimal totalDiscount = BigDecimal.ZERO;
+        BigDecimal totalTax = BigDecimal.ZERO;
+        
+        for (DealProduct product : products) {
+            LineItemContext line = new LineItemContext(product);
+            
+            CommissionStrategy commissionStrategy = commissionCalculator.findStrategy(product);
+            if (commissionStrategy != null) {
+                totalCommission = totalCommission.add(commissionStrategy.calculateCommission(line));
+            }
+            DiscountStrategy discountStrategy = discountCalculator.findStrategy(product);
+            if (discountStrategy != null) {
+                totalDiscount = totalDiscount.add(discountStrategy.calculateDiscount(line));
+            }
+            totalTax = totalTax.add(taxStrategy.calculateTax(line));
+        }
+        return new Totals(totalCommission, totalDiscount, totalTax);
+    }
+    
+    private record Totals(BigDecimal commission, BigDecimal discount, BigDecimal tax) {
+        Totals plus(Totals other) {
+            return new Totals(commission.add(other.commission), discount.add(other.discount), tax.add(other.tax));
+        }
+    }
+    
+    /**
+     * The commission, discount and tax totals of a deal.
+     */
+    public static class PricingResult {
+        private final BigDecimal commission;
+        private final BigDecimal discount;
+        private final BigDecimal tax;
+        
+        PricingResult(BigDecimal commission, BigDecimal discount, BigDecimal tax) {
+            this.commission = commission;
+            this.discount = discount;
+            this.tax = tax;
+        }
+        
+        public BigDecimal getCommission() {
+            return commission;
+        }
+        
+        public BigDecimal getDiscount() {
+            return discount;
+        }
+        
+        public BigDecimal getTax() {
+            return tax;
+        }
+        
+        @Override
+        public String toString() {
+            return "PricingResult{" +
+                    "commission=" + commission +
+                    ", discount=" + discount +
+                    ", tax=" + tax +
+                    '}';
+        }
+    }
+}
@@ -12,20 +12,27 @@ import java.math.RoundingMode;
  */
 public class ServiceCommissionStrategy implements CommissionStrategy {
     
+    private static final String PRODUCT_ID = "SERVICE";
     private static final BigDecimal COMMISSION_RATE = new BigDecimal("0.10"); // 10% commission
     
     @Override
     public boolean appliesTo(DealProduct product) {
-        return "SERVICE".equals(product.getProductId());
+        return PRODUCT_ID.equals(product.getProductId());
+    }
+    
+    @Override
+    public String getProductId() {
+        return PRODUCT_ID;
     }
     
     @Override
     public BigDecimal calculateCommission(DealProduct product) {
-        BigDecimal productPrice = product.getPrice();
-        int quantity = product.getQuantity();
-        BigDecimal productTotal = productPrice.multiply(BigDecimal.valueOf(quantity));
-        
-        return productTotal.multiply(COMMISSION_RATE)
+        return calculateCommission(new LineItemContext(product));
+    }
+    
+    @Override
+    public BigDecimal calculateCommission(LineItemContext line) {
+        return line.getProductTotal().multiply(COMMISSION_RATE)
                 .setScale(2, RoundingMode.HALF_UP);
     }
 }
\ No newline at end of file
@@ -2,33 +2,42 @@ package com.chapman.edu.commissions.principles.solid.fixed.ocp;
 
 import com.chapman.edu.commissions.model.Deal;
 import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.LineItemEvaluator;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class calculates taxes for deals using a collection of tax strategies.
  * It follows the Open/Closed Principle by being open for extension (adding new strategies)
  * but closed for modification (the calculation logic doesn't need to change).
+ * 
+ * The strategy for a country is resolved once and cached by country code. The registered
+ * strategies and their cache are kept together in an immutable snapshot: adding a strategy
+ * copies the list and publishes it with a fresh, empty cache in one step, so a lookup that
+ * races with the registration caches its result in the old snapshot and can never leave a
+ * stale strategy in the new one.
  */
 public class TaxCalculator {
     
-    private final List<TaxStrategy> taxStrategies;
     private final TaxStrategy defaultTaxStrategy;
+    private volatile Strategies strategies;
     
     /**
      * Constructor that initializes with default tax strategies.
      */
     public TaxCalculator() {
-        this.taxStrategies = new ArrayList<>();
-        
         // Register default strategies
-        taxStrategies.add(new USTaxStrategy());
-        taxStrategies.add(new UKTaxStrategy());
-        taxStrategies.add(new CATaxStrategy());
-        taxStrategies.add(new AUTaxStrategy());
+        this.strategies = new Strategies(List.of(
+                new USTaxStrategy(),
+                new UKTaxStrategy(),
+                new CATaxStrategy(),
+                new AUTaxStrategy()));
         
         // Default tax strategy for countries not specifically handled
         this.defaultTaxStrategy = new TaxStrategy() {
@@ -41,11 +50,12 @@ public class TaxCalculator {
             
             @Override
             public BigDecimal calculateTax(DealProduct product) {
-                BigDecimal productPrice = product.getPrice();
-                int quantity = product.getQuantity();
-                BigDecimal productTotal = productPrice.multiply(BigDecimal.valueOf(quantity));
-                
-                return productTotal.multiply(DEFAULT_TAX_RATE)
+                return calculateTax(new LineItemContext(product));
+            }
+            
+            @Override
+            public BigDecimal calculateTax(LineItemContext line) {
+                return line.getProductTotal().multiply(DEFAULT_TAX_RATE)
                         .setScale(2, RoundingMode.HALF_UP);
             }
         };
@@ -55,38 +65,83 @@ public class TaxCalculator {
      * Constructor that allows custom tax strategies.
      */
     public TaxCalculator(List<TaxStrategy> taxStrategies, TaxStrategy defaultTaxStrategy) {
-        this.taxStrategies = new ArrayList<>(taxStrategies);
+        this.strategies = new Strategies(List.copyOf(taxStrategies));
         this.defaultTaxStrategy = defaultTaxStrategy;
     }
     
     /**
      * Adds a new tax strategy.
      */
-    public void addTaxStrategy(TaxStrategy strategy) {
+    public synchronized void addTaxStrategy(TaxStrategy strategy) {
+        List<TaxStrategy> taxStrategies = new ArrayList<>(strategies.list());
         taxStrategies.add(strategy);
+        strategies = new Strategies(List.copyOf(taxStrategies));
     }
     
     /**
      * Calculates the total tax for a deal in a specific country.
      */
     public BigDecimal calculateTax(Deal deal, String countryCode) {
-        BigDecimal totalTax = BigDecimal.ZERO;
-        List<DealProduct> products = deal.getProducts();
-        
-        for (DealProduct product : products) {
-            // Find the appropriate strategy for this country
-            TaxStrategy applicableStrategy = defaultTaxStrategy;
-            for (TaxStrategy strategy : taxStrategies) {
-                if (strategy.appliesTo(countryCode)) {
-                    applicableStrategy = strategy;
-                    break; // Use the first applicable strategy
-                }
+        return calculateTax(deal, resolveStrategy(countryCode));
+    }
+    
+    /**
+     * Calculates the total tax for many deals, each in its own country.
+     * Deals are grouped by country so each strategy is resolved once and runs over
+     * all deals of its country together.
+     * 
+     * @param countryCodesByDeal The country code of each deal
+     * @return The total tax of each deal, by deal ID
+     * @throws IllegalArgumentException if a deal has no ID, since its result could not be told apart
+     */
+    public Map<String, BigDecimal> calculateTax(Map<Deal, String> countryCodesByDeal) {
+        Map<String, List<Deal>> dealsByCountry = new LinkedHashMap<>();
+        for (Map.Entry<Deal, String> entry : countryCodesByDeal.entrySet()) {
+            if (entry.getKey().getId() == null) {
+                throw new IllegalArgumentException("Deal without an ID in batch tax calculation: " + entry.getKey().getTitle());
             }
-            
-            BigDecimal tax = applicableStrategy.calculateTax(product);
-            totalTax = totalTax.add(tax);
+            dealsByCountry.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
         }
         
+        Map<String, BigDecimal> taxByDeal = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Deal>> entry : dealsByCountry.entrySet()) {
+            TaxStrategy strategy = resolveStrategy(entry.getKey());
+            for (Deal deal : entry.getValue()) {
+                taxByDeal.put(deal.getId(), calculateTax(deal, strategy));
+            }
+        }
+        return taxByDeal;
+    }
+    
+    private BigDecimal calculateTax(Deal deal, TaxStrategy strategy) {
+        BigDecimal totalTax = LineItemEvaluator.sum(deal.getProducts(), strategy::calculateTax);
         return totalTax.setScale(2, RoundingMode.HALF_UP);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Finds the first strategy that applies to a country, or the default strategy if none does.
+     */
+    TaxStrategy resolveStrategy(String countryCode) {
+        // Resolve against one snapshot, so the result is cached with the list it came from
+        Strategies current = strategies;
+        if (countryCode == null) {
+            return findStrategy(current.list(), null);
+        }
+        return current.byCountry().computeIfAbsent(countryCode, code -> findStrategy(current.list(), code));
+    }
+    
+    private TaxStrategy findStrategy(List<TaxStrategy> taxStrategies, String countryCode) {
+        for (TaxStrategy strategy : taxStrategies) {
+            if (strategy.appliesTo(countryCode)) {
+                return strategy; // Use the first applicable strategy
+            }
+        }
+        return defaultTaxStrategy;
+    }
+    
+    private record Strategies(List<TaxStrategy> list, Map<String, TaxStrategy> byCountry) {
+        Strategies(List<TaxStrategy> list) {
+            this(list, new ConcurrentHashMap<>());
+        }
+    }
+}
@@ -26,4 +26,16 @@ public interface TaxStrategy {
      * @return The tax amount
      */
     BigDecimal calculateTax(DealProduct product);
+    
+    /**
+     * Calculates the tax for a line item whose product total has already been computed.
+     * Strategies should override this to use the shared product total; the default
+     * delegates to calculateTax(DealProduct).
+     * 
+     * @param line The line item being priced
+     * @return The tax amount
+     */
+    default BigDecimal calculateTax(LineItemContext line) {
+        return calculateTax(line.getProduct());
+    }
 }
\ No newline at end of file
@@ -21,11 +21,12 @@ public class TrainingDiscountStrategy implements DiscountStrategy {
     
     @Override
     public BigDecimal calculateDiscount(DealProduct product) {
-        BigDecimal productPrice = product.getPrice();
-        int quantity = product.getQuantity();
-        
-        return productPrice.multiply(DISCOUNT_RATE)
-                .multiply(BigDecimal.valueOf(quantity))
+        return calculateDiscount(new LineItemContext(product));
+    }
+    
+    @Override
+    public BigDecimal calculateDiscount(LineItemContext line) {
+        return line.getProductTotal().multiply(DISCOUNT_RATE)
                 .setScale(2, RoundingMode.HALF_UP);
     }
 }
\ No newline at end of file
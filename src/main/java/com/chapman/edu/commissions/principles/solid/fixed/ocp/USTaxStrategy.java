@@ -21,11 +21,12 @@ public class USTaxStrategy implements TaxStrategy {
     
     @Override
     public BigDecimal calculateTax(DealProduct product) {
-        BigDecimal productPrice = product.getPrice();
-        int quantity = product.getQuantity();
-        BigDecimal productTotal = productPrice.multiply(BigDecimal.valueOf(quantity));
-        
-        return productTotal.multiply(TAX_RATE)
+        return calculateTax(new LineItemContext(product));
+    }
+    
+    @Override
+    public BigDecimal calculateTax(LineItemContext line) {
+        return line.getProductTotal().multiply(TAX_RATE)
                 .setScale(2, RoundingMode.HALF_UP);
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import java.math.BigDecimal;
+
+/**
+ * This class describes one accelerator or decelerator band of quota attainment.
+ * A band starts at a threshold (percentage of quota) and pays its multiplier until the next band starts.
+ */
+public class AttainmentBand {
+    private final String ruleId;
+    private final String name;
+    private final BigDecimal threshold;
+    private final BigDecimal multiplier;
+
+    /**
+     * Constructor with all band fields.
+     *
+     * @param ruleId The ID of the commission rule that defines this band
+     * @param name The display name of the band
+     * @param threshold The attainment percentage at which the band starts (e.g. 100 for quota)
+     * @param multiplier The multiplier paid on value attained within the band
+     */
+    public AttainmentBand(String ruleId, String name, BigDecimal threshold, BigDecimal multiplier) {
+        if (threshold == null || multiplier == null) {
+            throw new IllegalArgumentException("Band threshold and multiplier are required");
+        }
+        this.ruleId = ruleId;
+        this.name = name;
+        this.threshold = threshold;
+        this.multiplier = multiplier;
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+
+    public BigDecimal getMultiplier() {
+        return multiplier;
+    }
+
+    @Override
+    public String toString() {
+        return "AttainmentBand{" +
+                "name='" + name + '\'' +
+                ", threshold=" + threshold +
+                ", multiplier=" + multiplier +
+                '}';
+    }
+}
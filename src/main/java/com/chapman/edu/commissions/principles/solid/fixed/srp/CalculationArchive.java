@@ -0,0 +1,120 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.file.Path;
+
+/**
+ * This class archives commission calculation history off the Java heap.
+ * It is responsible only for the calculation record layout, following the Single Responsibility Principle.
+ *
+ * Each calculation is a fixed 184-byte record holding its ID, deal, sales rep and plan IDs, who
+ * calculated it, its base, gross and net commission in cents, its calculation and payout dates
+ * as epoch days and its status ordinal. Bonus and accelerator details are not archived. Range
+ * scans are by calculation date.
+ */
+public class CalculationArchive extends OffHeapArchive<CommissionCalculation> {
+
+    private static final int MAGIC = 0x43414C31; // "CAL1"
+    private static final int ID_LENGTH = 32;
+    private static final int CALCULATED_BY_LENGTH = 16;
+    private static final byte NO_ORDINAL = -1;
+
+    static final MemoryLayout LAYOUT = MemoryLayout.structLayout(
+            MemoryLayout.sequenceLayout(ID_LENGTH, ValueLayout.JAVA_BYTE).withName("id"),
+            MemoryLayout.sequenceLayout(ID_LENGTH, ValueLayout.JAVA_BYTE).withName("dealId"),
+            MemoryLayout.sequenceLayout(ID_LENGTH, ValueLayout.JAVA_BYTE).withName("salesRepId"),
+            MemoryLayout.sequenceLayout(ID_LENGTH, ValueLayout.JAVA_BYTE).withName("planId"),
+            MemoryLayout.sequenceLayout(CALCULATED_BY_LENGTH, ValueLayout.JAVA_BYTE).withName("calculatedBy"),
+            ValueLayout.JAVA_LONG_UNALIGNED.withName("baseCents"),
+            ValueLayout.JAVA_LONG_UNALIGNED.withName("grossCents"),
+            ValueLayout.JAVA_LONG_UNALIGNED.withName("netCents"),
+            ValueLayout.JAVA_INT_UNALIGNED.withName("calculationDay"),
+            ValueLayout.JAVA_INT_UNALIGNED.withName("payoutDay"),
+            ValueLayout.JAVA_BYTE.withName("status"),
+            MemoryLayout.paddingLayout(7));
+
+    private static final long ID = offsetOf("id");
+    private static final long DEAL_ID = offsetOf("dealId");
+    private static final long SALES_REP_ID = offsetOf("salesRepId");
+    private static final long PLAN_ID = offsetOf("planId");
+    private static final long CALCULATED_BY = offsetOf("calculatedBy");
+    private static final long BASE_CENTS = offsetOf("baseCents");
+    private static final long GROSS_CENTS = offsetOf("grossCents");
+    private static final long NET_CENTS = offsetOf("netCents");
+    private static final long CALCULATION_DAY = offsetOf("calculationDay");
+    private static final long PAYOUT_DAY = offsetOf("payoutDay");
+    private static final long STATUS = offsetOf("status");
+
+    private static final CommissionCalculation.CommissionStatus[] STATUSES =
+            CommissionCalculation.CommissionStatus.values();
+
+    /**
+     * Constructor for an in-memory archive.
+     *
+     * @param initialCapacity The number of calculations to allocate room for up front
+     */
+    public CalculationArchive(int initialCapacity) {
+        super(MAGIC, LAYOUT, initialCapacity);
+    }
+
+    /**
+     * Constructor for an archive mapped from a file.
+     *
+     * @param file The archive file, created if it does not exist
+     */
+    public CalculationArchive(Path file) {
+        super(MAGIC, LAYOUT, file);
+    }
+
+    @Override
+    protected String readId(MemorySegment record) {
+        return readString(record, ID, ID_LENGTH);
+    }
+
+    @Override
+    protected int readDay(MemorySegment record) {
+        return record.get(ValueLayout.JAVA_INT_UNALIGNED, CALCULATION_DAY);
+    }
+
+    @Override
+    protected void write(MemorySegment record, CommissionCalculation calculation) {
+        writeString(record, ID, ID_LENGTH, calculation.getId());
+        writeString(record, DEAL_ID, ID_LENGTH, calculation.getDealId());
+        writeString(record, SALES_REP_ID, ID_LENGTH, calculation.getSalesRepId());
+        writeString(record, PLAN_ID, ID_LENGTH, calculation.getPlanId());
+        writeString(record, CALCULATED_BY, CALCULATED_BY_LENGTH, calculation.getCalculatedBy());
+        writeMoney(record, BASE_CENTS, calculation.getBaseCommission());
+        writeMoney(record, GROSS_CENTS, calculation.getGrossCommission());
+        writeMoney(record, NET_CENTS, calculation.getNetCommission());
+        writeDate(record, CALCULATION_DAY, calculation.getCalculationDate());
+        writeDate(record, PAYOUT_DAY, calculation.getPayoutDate());
+        record.set(ValueLayout.JAVA_BYTE, STATUS,
+                calculation.getStatus() != null ? (byte) calculation.getStatus().ordinal() : NO_ORDINAL);
+    }
+
+    @Override
+    protected CommissionCalculation read(MemorySegment record) {
+        CommissionCalculation calculation = new CommissionCalculation();
+        calculation.setId(readString(record, ID, ID_LENGTH));
+        calculation.setDealId(readString(record, DEAL_ID, ID_LENGTH));
+        calculation.setSalesRepId(readString(record, SALES_REP_ID, ID_LENGTH));
+        calculation.setPlanId(readString(record, PLAN_ID, ID_LENGTH));
+        calculation.setCalculatedBy(readString(record, CALCULATED_BY, CALCULATED_BY_LENGTH));
+        calculation.setBaseCommission(readMoney(record, BASE_CENTS));
+        calculation.setGrossCommission(readMoney(record, GROSS_CENTS));
+        calculation.setNetCommission(readMoney(record, NET_CENTS));
+        calculation.setCalculationDate(readDate(record, CALCULATION_DAY));
+        calculation.setPayoutDate(readDate(record, PAYOUT_DAY));
+        byte status = record.get(ValueLayout.JAVA_BYTE, STATUS);
+        calculation.setStatus(status != NO_ORDINAL ? STATUSES[status] : null);
+        return calculation;
+    }
+
+    private static long offsetOf(String field) {
+        return LAYOUT.byteOffset(MemoryLayout.PathElement.groupElement(field));
+    }
+}
@@ -0,0 +1,25 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+
+/**
+ * This class is the pipeline stage that saves each calculation and passes it on.
+ * It is responsible only for persistence, following the Single Responsibility Principle.
+ */
+public class CalculationPersistenceStage extends MappingStage<CommissionCalculation, CommissionCalculation> {
+
+    private final DatabaseService databaseService;
+
+    /**
+     * Constructor with the database the calculations are saved to.
+     */
+    public CalculationPersistenceStage(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    protected CommissionCalculation apply(CommissionCalculation calculation) {
+        databaseService.saveCalculationToDatabase(calculation);
+        return calculation;
+    }
+}
@@ -0,0 +1,378 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class schedules commission calculations on a shared pool of worker threads
+ * with separate lanes for interactive and bulk work.
+ * It is responsible only for scheduling, following the Single Responsibility Principle.
+ *
+ * Workers always take interactive work first. Bulk jobs are split into chunks and each job
+ * queues its next chunk only when the previous one has finished, so interactive requests
+ * get a worker between chunks instead of waiting for a whole period-close run. At most
+ * a fixed number of workers run bulk chunks at once; the rest are kept free for interactive
+ * requests. Interactive requests have a latency budget and fail with a TimeoutException
+ * if it is exceeded.
+ */
+public class CalculationScheduler implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(CalculationScheduler.class.getName());
+
+    /**
+     * The scheduling lanes.
+     */
+    public enum Lane {
+        INTERACTIVE("Interactive"),
+        BULK("Bulk");
+
+        private final String displayName;
+
+        Lane(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final CommissionCalculator calculator;
+    private final Duration interactiveBudget;
+    private final int maxBulkWorkers;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Task> interactiveQueue = new ArrayDeque<>();
+    private final ArrayDeque<Task> bulkQueue = new ArrayDeque<>();
+    private int runningBulk;
+    private boolean closed;
+
+    private final LaneMetrics interactiveMetrics = new LaneMetrics(Lane.INTERACTIVE);
+    private final LaneMetrics bulkMetrics = new LaneMetrics(Lane.BULK);
+
+    /**
+     * Constructor that reserves one worker for interactive work when there is more than one worker.
+     *
+     * @param calculator The calculator used for both lanes
+     * @param workerCount The number of worker threads
+     * @param interactiveBudget The longest an interactive request may take
+     */
+    public CalculationScheduler(CommissionCalculator calculator, int workerCount, Duration interactiveBudget) {
+        this(calculator, workerCount, Math.max(1, workerCount - 1), interactiveBudget);
+    }
+
+    /**
+     * Constructor that takes all required dependencies and settings.
+     *
+     * @param calculator The calculator used for both lanes
+     * @param workerCount The number of worker threads
+     * @param maxBulkWorkers The most workers that may run bulk chunks at the same time
+     * @param interactiveBudget The longest an interactive request may take
+     */
+    public CalculationScheduler(CommissionCalculator calculator, int workerCount, int maxBulkWorkers,
+                                Duration interactiveBudget) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workerCount);
+        }
+        if (maxBulkWorkers <= 0 || maxBulkWorkers > workerCount) {
+            throw new IllegalArgumentException("Bulk workers must be between 1 and " + workerCount + ": " + maxBulkWorkers);
+        }
+        this.calculator = calculator;
+        this.interactiveBudget = interactiveBudget;
+        this.maxBulkWorkers = maxBulkWorkers;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "calculation-scheduler-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Calculates the commission for a single deal in the interactive lane.
+     *
+     * @return A future that completes with the calculation, or with a TimeoutException
+     *         if the latency budget is exceeded
+     */
+    public CompletableFuture<CommissionCalculation> calculateInteractive(Deal deal, CommissionPlan plan) {
+        return submitInteractive(() -> calculator.calculateCommission(deal, plan));
+    }
+
+    /**
+     * Runs a task in the interactive lane.
+     */
+    public <T> CompletableFuture<T> submitInteractive(Callable<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.orTimeout(interactiveBudget.toNanos(), TimeUnit.NANOSECONDS);
+        enqueue(false, new Task(Lane.INTERACTIVE, System.nanoTime(), () -> {
+            // Nothing to do if the caller's budget ran out while the request was queued
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(work.call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }));
+        return future;
+    }
+
+    /**
+     * Calculates the commissions for many deals in the bulk lane, one chunk at a time.
+     *
+     * @param deals The deals to calculate
+     * @param plan The commission plan to apply
+     * @param chunkSize The number of deals calculated between chances for interactive work to run
+     * @return A future that completes with the calculations in the order of the deals
+     */
+    public CompletableFuture<List<CommissionCalculation>> calculateBulk(List<Deal> deals, CommissionPlan plan,
+                                                                        int chunkSize) {
+        return submitBulk(deals, chunkSize, chunk -> {
+            List<CommissionCalculation> calculations = new ArrayList<>(chunk.size());
+            for (Deal deal : chunk) {
+                calculations.add(calculator.calculateCommission(deal, plan));
+            }
+            return calculations;
+        });
+    }
+
+    /**
+     * Runs a chunked job in the bulk lane. Chunks of the same job run one after another.
+     *
+     * @param items The items to process
+     * @param chunkSize The number of items per chunk
+     * @param chunkWork Processes one chunk and returns its results
+     * @return A future that completes with all results in item order
+     */
+    public <T, R> CompletableFuture<List<R>> submitBulk(List<T> items, int chunkSize,
+                                                        Function<List<T>, List<R>> chunkWork) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        CompletableFuture<List<R>> future = new CompletableFuture<>();
+        List<R> results = new ArrayList<>(items.size());
+        enqueueChunk(false, items, 0, chunkSize, chunkWork, results, future);
+        return future;
+    }
+
+    private <T, R> void enqueueChunk(boolean continuation, List<T> items, int from, int chunkSize,
+                                     Function<List<T>, List<R>> chunkWork, List<R> results,
+                                     CompletableFuture<List<R>> future) {
+        if (from >= items.size()) {
+            future.complete(Collections.unmodifiableList(results));
+            return;
+        }
+        enqueue(continuation, new Task(Lane.BULK, System.nanoTime(), () -> {
+            if (future.isDone()) {
+                return;
+            }
+            int to = Math.min(from + chunkSize, items.size());
+            try {
+                results.addAll(chunkWork.apply(items.subList(from, to)));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            // Queue the next chunk behind any work that arrived while this one ran
+            enqueueChunk(true, items, to, chunkSize, chunkWork, results, future);
+        }));
+    }
+
+    /**
+     * Gets the metrics of a lane.
+     */
+    public LaneMetrics getMetrics(Lane lane) {
+        return lane == Lane.INTERACTIVE ? interactiveMetrics : bulkMetrics;
+    }
+
+    /**
+     * Gets the number of tasks waiting in a lane.
+     */
+    public int getQueueDepth(Lane lane) {
+        synchronized (lock) {
+            return lane == Lane.INTERACTIVE ? interactiveQueue.size() : bulkQueue.size();
+        }
+    }
+
+    /**
+     * Stops accepting work, lets queued work finish and waits for the workers to exit.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Queues a task. Continuations of bulk jobs already running are accepted after close
+     * so that close lets those jobs finish.
+     */
+    private void enqueue(boolean continuation, Task task) {
+        synchronized (lock) {
+            if (closed && !continuation) {
+                throw new IllegalStateException("Scheduler is closed");
+            }
+            if (task.lane() == Lane.INTERACTIVE) {
+                interactiveQueue.addLast(task);
+            } else {
+                bulkQueue.addLast(task);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private void runWorker() {
+        while (true) {
+            Task task;
+            synchronized (lock) {
+                while (true) {
+                    task = interactiveQueue.pollFirst();
+                    if (task != null) {
+                        break;
+                    }
+                    if (runningBulk < maxBulkWorkers) {
+                        task = bulkQueue.pollFirst();
+                        if (task != null) {
+                            runningBulk++;
+                            break;
+                        }
+                    }
+                    if (closed && interactiveQueue.isEmpty() && bulkQueue.isEmpty()) {
+                        return;
+                    }
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+
+            long startedAt = System.nanoTime();
+            try {
+                task.work().run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error running " + task.lane().getDisplayName() + " task", e);
+            } finally {
+                long finishedAt = System.nanoTime();
+                getMetrics(task.lane()).record(startedAt - task.enqueuedAt(), finishedAt - task.enqueuedAt(),
+                        task.lane() == Lane.INTERACTIVE && finishedAt - task.enqueuedAt() > interactiveBudget.toNanos());
+                if (task.lane() == Lane.BULK) {
+                    synchronized (lock) {
+                        runningBulk--;
+                        lock.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    private record Task(Lane lane, long enqueuedAt, Runnable work) {
+    }
+
+    /**
+     * Queue wait and latency statistics for one lane.
+     */
+    public static class LaneMetrics {
+        private final Lane lane;
+        private final AtomicLong completedCount = new AtomicLong();
+        private final AtomicLong budgetExceededCount = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong totalLatencyNanos = new AtomicLong();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        LaneMetrics(Lane lane) {
+            this.lane = lane;
+        }
+
+        void record(long waitNanos, long latencyNanos, boolean budgetExceeded) {
+            completedCount.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            totalLatencyNanos.addAndGet(latencyNanos);
+            maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+            if (budgetExceeded) {
+                budgetExceededCount.incrementAndGet();
+            }
+        }
+
+        public Lane getLane() {
+            return lane;
+        }
+
+        /**
+         * Gets the number of tasks run in this lane; each bulk chunk counts as one task.
+         */
+        public long getCompletedCount() {
+            return completedCount.get();
+        }
+
+        /**
+         * Gets the number of interactive tasks that finished after their latency budget.
+         */
+        public long getBudgetExceededCount() {
+            return budgetExceededCount.get();
+        }
+
+        /**
+         * Gets the average time a task waited in the queue before a worker picked it up.
+         */
+        public Duration getAverageWait() {
+            long completed = completedCount.get();
+            return completed == 0 ? Duration.ZERO : Duration.ofNanos(totalWaitNanos.get() / completed);
+        }
+
+        public Duration getMaxWait() {
+            return Duration.ofNanos(maxWaitNanos.get());
+        }
+
+        /**
+         * Gets the average time from queueing a task to its completion.
+         */
+        public Duration getAverageLatency() {
+            long completed = completedCount.get();
+            return completed == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.get() / completed);
+        }
+
+        public Duration getMaxLatency() {
+            return Duration.ofNanos(maxLatencyNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            return "LaneMetrics{" +
+                    "lane=" + lane.getDisplayName() +
+                    ", completed=" + completedCount.get() +
+                    ", budgetExceeded=" + budgetExceededCount.get() +
+                    ", averageWait=" + getAverageWait() +
+                    ", averageLatency=" + getAverageLatency() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class signals to a long-running job that it should stop.
+ * It is responsible only for carrying the stop request, following the Single Responsibility Principle.
+ *
+ * A job stops when the token is cancelled, when its deadline passes or when the running thread
+ * is interrupted. Jobs check the token at chunk boundaries, so they stop with every finished chunk
+ * saved and can report how far they got. Jobs that pause between chunks wait on the token with
+ * awaitStop, so a stop request ends the pause.
+ */
+public final class CancellationToken {
+
+    /**
+     * The reasons a job can be asked to stop.
+     */
+    public enum StopReason {
+        NONE("Not stopped"),
+        CANCELLED("Cancelled"),
+        DEADLINE_EXCEEDED("Deadline exceeded"),
+        INTERRUPTED("Interrupted");
+
+        private final String displayName;
+
+        StopReason(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+    private volatile boolean cancelled;
+
+    private CancellationToken(long deadlineNanos, boolean hasDeadline) {
+        this.deadlineNanos = deadlineNanos;
+        this.hasDeadline = hasDeadline;
+    }
+
+    /**
+     * Creates a token without a deadline that stops only when cancelled or interrupted.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(0, false);
+    }
+
+    /**
+     * Creates a token whose deadline is the given time from now.
+     */
+    public static CancellationToken withTimeout(Duration timeout) {
+        return new CancellationToken(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    /**
+     * Asks the job to stop at its next chunk boundary.
+     */
+    public void cancel() {
+        synchronized (this) {
+            cancelled = true;
+            notifyAll();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDeadlineExceeded() {
+        return hasDeadline && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Checks whether the job should stop. Called by the job between chunks.
+     */
+    public boolean isStopRequested() {
+        return getStopReason() != StopReason.NONE;
+    }
+
+    /**
+     * Waits for up to the given time, returning early if the job should stop. Jobs use this
+     * instead of sleeping, e.g. when throttling, so a cancel or deadline is noticed at once.
+     *
+     * @param timeout The longest time to wait
+     * @return true if the job should stop, false if the time passed without a stop request
+     */
+    public boolean awaitStop(Duration timeout) {
+        long waitUntil = System.nanoTime() + timeout.toNanos();
+        if (hasDeadline && deadlineNanos - waitUntil < 0) {
+            waitUntil = deadlineNanos;
+        }
+        synchronized (this) {
+            while (!isStopRequested()) {
+                long remainingNanos = waitUntil - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return isStopRequested();
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the reason the job should stop, or NONE if it should carry on.
+     */
+    public StopReason getStopReason() {
+        if (cancelled) {
+            return StopReason.CANCELLED;
+        }
+        if (isDeadlineExceeded()) {
+            return StopReason.DEADLINE_EXCEEDED;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return StopReason.INTERRUPTED;
+        }
+        return StopReason.NONE;
+    }
+
+    /**
+     * Gets the time left before the deadline, or null if the token has no deadline.
+     */
+    public Duration getRemaining() {
+        if (!hasDeadline) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+}
@@ -0,0 +1,181 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealStatus;
+import com.chapman.edu.commissions.model.DealStatusListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * This class reverses commissions on deals that are no longer won.
+ * It is responsible only for clawbacks, following the Single Responsibility Principle.
+ *
+ * It listens for deal status changes and queues every deal that moves from WON to another
+ * status; a deal that is won again before the queue is processed is taken off the queue. When
+ * the queue is processed, deals that are won again are skipped and the calculations of the other
+ * queued deals are found through the database's deal index. Each PAID or ADJUSTED calculation
+ * is marked REVERSED, so it is never reversed twice, and gets a reversal entry with negated
+ * amounts. Reversal entries are saved APPROVED, so the next PayoutRunEngine run for the period
+ * they are dated in deducts them from the rep's payout and marks them PAID. Calculations that have
+ * not been paid yet are CANCELLED. All changes of a run are saved in one database call. Deals
+ * without an ID have no calculations to find and are not queued.
+ */
+public class ClawbackEngine implements DealStatusListener {
+    private static final Logger LOGGER = Logger.getLogger(ClawbackEngine.class.getName());
+
+    static final String CLAWBACK_CALCULATED_BY = "CLAWBACK";
+
+    private final DatabaseService databaseService;
+    private final IdGenerationService idGenerationService;
+    private final Set<String> pendingDealIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor that takes all required dependencies.
+     *
+     * @param databaseService The database holding the calculations
+     * @param idGenerationService The service that assigns reversal entry IDs
+     */
+    public ClawbackEngine(DatabaseService databaseService, IdGenerationService idGenerationService) {
+        this.databaseService = databaseService;
+        this.idGenerationService = idGenerationService;
+    }
+
+    /**
+     * Starts watching a deal for status regressions.
+     */
+    public void watch(Deal deal) {
+        deal.addStatusListener(this);
+    }
+
+    @Override
+    public void statusChanged(Deal deal, DealStatus previousStatus, DealStatus newStatus) {
+        if (deal.getId() == null) {
+            LOGGER.warning("Ignoring status change of a deal without an ID");
+            return;
+        }
+        if (previousStatus == DealStatus.WON && newStatus != DealStatus.WON) {
+            // Repeated changes to the same deal before the next run are reversed once
+            pendingDealIds.add(deal.getId());
+        } else if (newStatus == DealStatus.WON) {
+            pendingDealIds.remove(deal.getId());
+        }
+    }
+
+    /**
+     * Gets the number of deals waiting to be processed.
+     */
+    public int getPendingCount() {
+        return pendingDealIds.size();
+    }
+
+    /**
+     * Reverses the commissions of every queued deal.
+     *
+     * @return The reversal entries and cancelled calculations that were saved
+     */
+    public ClawbackResult processPending() {
+        List<CommissionCalculation> reversals = new ArrayList<>();
+        List<CommissionCalculation> cancelled = new ArrayList<>();
+        List<CommissionCalculation> changed = new ArrayList<>();
+        int dealCount = 0;
+
+        Iterator<String> iterator = pendingDealIds.iterator();
+        while (iterator.hasNext()) {
+            String dealId = iterator.next();
+            iterator.remove();
+            Deal deal = databaseService.getDealFromDatabase(dealId);
+            if (deal != null && deal.getStatus() == DealStatus.WON) {
+                LOGGER.info("Skipping clawback of deal " + dealId + ": it is won again");
+                continue;
+            }
+            dealCount++;
+            for (CommissionCalculation calculation : databaseService.getCalculationsByDeal(dealId)) {
+                if (CLAWBACK_CALCULATED_BY.equals(calculation.getCalculatedBy())) {
+                    continue;
+                }
+                switch (calculation.getStatus()) {
+                    case PAID, ADJUSTED -> {
+                        CommissionCalculation reversal = createReversal(calculation);
+                        calculation.setStatus(CommissionCalculation.CommissionStatus.REVERSED);
+                        reversals.add(reversal);
+                        changed.add(reversal);
+                        changed.add(calculation);
+                    }
+                    case CALCULATED, APPROVED, DISPUTED -> {
+                        calculation.setStatus(CommissionCalculation.CommissionStatus.CANCELLED);
+                        cancelled.add(calculation);
+                        changed.add(calculation);
+                    }
+                    default -> {
+                        // Already reversed or cancelled
+                    }
+                }
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            databaseService.saveCalculationsToDatabase(changed);
+        }
+        LOGGER.info("Clawback processed " + dealCount + " deals: " + reversals.size() + " reversed, "
+                + cancelled.size() + " cancelled");
+        return new ClawbackResult(dealCount, reversals, cancelled);
+    }
+
+    private CommissionCalculation createReversal(CommissionCalculation original) {
+        CommissionCalculation reversal = new CommissionCalculation();
+        reversal.setId(idGenerationService.nextId("CLAWBACK-"));
+        reversal.setDealId(original.getDealId());
+        reversal.setSalesRepId(original.getSalesRepId());
+        reversal.setPlanId(original.getPlanId());
+        reversal.setBaseCommission(original.getBaseCommission().negate());
+        reversal.setGrossCommission(original.getGrossCommission().negate());
+        reversal.setNetCommission(original.getNetCommission().negate());
+        reversal.setCalculationDate(LocalDate.now());
+        // Settled by the next payout run like any other approved amount
+        reversal.setStatus(CommissionCalculation.CommissionStatus.APPROVED);
+        reversal.setCalculatedBy(CLAWBACK_CALCULATED_BY);
+        reversal.setAdjustedCalculationId(original.getId());
+        return reversal;
+    }
+
+    /**
+     * The outcome of one clawback run.
+     */
+    public static class ClawbackResult {
+        private final int dealCount;
+        private final List<CommissionCalculation> reversals;
+        private final List<CommissionCalculation> cancelled;
+
+        ClawbackResult(int dealCount, List<CommissionCalculation> reversals, List<CommissionCalculation> cancelled) {
+            this.dealCount = dealCount;
+            this.reversals = Collections.unmodifiableList(reversals);
+            this.cancelled = Collections.unmodifiableList(cancelled);
+        }
+
+        public int getDealCount() {
+            return dealCount;
+        }
+
+        /**
+         * Gets the reversal entries created for paid and adjusted calculations.
+         */
+        public List<CommissionCalculation> getReversals() {
+            return reversals;
+        }
+
+        /**
+         * Gets the unpaid calculations that were cancelled.
+         */
+        public List<CommissionCalculation> getCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.DealStage;
+import com.chapman.edu.commissions.model.DealStatus;
+import com.chapman.edu.commissions.model.IdDictionary;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class holds a large number of deals in column form for analytics scans.
+ * It is responsible only for columnar deal storage, following the Single Responsibility Principle.
+ *
+ * Each deal is one row across a set of parallel arrays: the value as whole cents in a long,
+ * the close date as an epoch day in an int, the status and stage as byte ordinals and the
+ * sales rep as its ordinal in the global IdDictionary. Products are kept as copies.
+ * Scans and aggregations walk the primitive arrays directly, so a yearly scan reads a few
+ * bytes per deal instead of following pointers through Deal objects. Deal objects are only built when
+ * a caller asks for one; they are detached copies, and changes are written back with put.
+ *
+ * A deal's value is rounded to cents when it is stored. A deal without a value is stored at
+ * the total value of its products.
+ */
+public class ColumnarDealStore {
+
+    private static final int VALUE_SCALE = 2;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NO_REP = IdDictionary.NO_ORDINAL;
+    private static final byte NO_ORDINAL = -1;
+    private static final DealStatus[] STATUSES = DealStatus.values();
+    private static final DealStage[] STAGES = DealStage.values();
+
+    private String[] ids;
+    private String[] titles;
+    private long[] valueCents;
+    private int[] closeEpochDays;
+    private byte[] statuses;
+    private byte[] stages;
+    private int[] repOrdinals;
+    private DealProduct[][] products;
+    private int size;
+
+    private final IdDictionary dictionary = IdDictionary.global();
+    private final Map<String, Integer> rowsById = new HashMap<>();
+
+    /**
+     * Constructor with a default initial capacity.
+     */
+    public ColumnarDealStore() {
+        this(1024);
+    }
+
+    /**
+     * Constructor with the number of deals to allocate room for up front.
+     *
+     * @param initialCapacity The initial number of rows
+     */
+    public ColumnarDealStore(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be positive: " + initialCapacity);
+        }
+        ids = new String[initialCapacity];
+        titles = new String[initialCapacity];
+        valueCents = new long[initialCapacity];
+        closeEpochDays = new int[initialCapacity];
+        statuses = new byte[initialCapacity];
+        stages = new byte[initialCapacity];
+        repOrdinals = new int[initialCapacity];
+        products = new DealProduct[initialCapacity][];
+    }
+
+    /**
+     * Stores a deal, replacing the stored deal with the same ID. The deal's products are copied.
+     *
+     * @param deal The deal to store; it must have an ID
+     * @return The row the deal is stored in
+     */
+    public synchronized int put(Deal deal) {
+        if (deal.getId() == null) {
+            throw new IllegalArgumentException("Deal must have an ID to be stored");
+        }
+        Integer existing = rowsById.get(deal.getId());
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowsById.put(deal.getId(), row);
+        }
+        BigDecimal value = deal.getValue() != null ? deal.getValue() : deal.calculateTotalValue();
+        ids[row] = deal.getId();
+        titles[row] = deal.getTitle();
+        valueCents[row] = value.setScale(VALUE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        closeEpochDays[row] = deal.getCloseDate() != null ? Math.toIntExact(deal.getCloseDate().toEpochDay()) : NO_DATE;
+        statuses[row] = deal.getStatus() != null ? (byte) deal.getStatus().ordinal() : NO_ORDINAL;
+        stages[row] = deal.getStage() != null ? (byte) deal.getStage().ordinal() : NO_ORDINAL;
+        repOrdinals[row] = deal.getSalesRepOrdinal();
+        // Stored as copies, so later changes to the caller's products do not reach the store
+        List<DealProduct> dealProducts = deal.getProducts();
+        DealProduct[] stored = new DealProduct[dealProducts.size()];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = copyOf(dealProducts.get(i));
+        }
+        products[row] = stored;
+        return row;
+    }
+
+    public void putAll(Collection<Deal> deals) {
+        for (Deal deal : deals) {
+            put(deal);
+        }
+    }
+
+    /**
+     * Removes a deal. The last row is moved into its place, so row numbers taken before a
+     * removal are no longer valid.
+     *
+     * @return true if the deal was stored
+     */
+    public synchronized boolean remove(String dealId) {
+        Integer row = rowsById.remove(dealId);
+        if (row == null) {
+            return false;
+        }
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            titles[row] = titles[last];
+            valueCents[row] = valueCents[last];
+            closeEpochDays[row] = closeEpochDays[last];
+            statuses[row] = statuses[last];
+            stages[row] = stages[last];
+            repOrdinals[row] = repOrdinals[last];
+            products[row] = products[last];
+            rowsById.put(ids[row], row);
+        }
+        ids[last] = null;
+        titles[last] = null;
+        products[last] = null;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets the row a deal is stored in, or -1 if it is not stored.
+     */
+    public synchronized int rowOf(String dealId) {
+        Integer row = rowsById.get(dealId);
+        return row != null ? row : -1;
+    }
+
+    /**
+     * Builds a detached Deal from a stored row.
+     */
+    public synchronized Deal getDeal(int row) {
+        checkRow(row);
+        Deal deal = new Deal();
+        deal.setId(ids[row]);
+        deal.setTitle(titles[row]);
+        deal.setValue(BigDecimal.valueOf(valueCents[row], VALUE_SCALE));
+        deal.setCloseDate(closeEpochDays[row] != NO_DATE ? LocalDate.ofEpochDay(closeEpochDays[row]) : null);
+        deal.setStatus(statuses[row] != NO_ORDINAL ? STATUSES[statuses[row]] : null);
+        deal.setStage(stages[row] != NO_ORDINAL ? STAGES[stages[row]] : null);
+        deal.setSalesRepId(dictionary.idOf(IdDictionary.IdType.SALES_REP, repOrdinals[row]));
+        List<DealProduct> copies = new ArrayList<>(products[row].length);
+        for (DealProduct product : products[row]) {
+            copies.add(copyOf(product));
+        }
+        deal.setProducts(copies);
+        return deal;
+    }
+
+    /**
+     * Builds a detached Deal for a stored deal ID, or returns null if it is not stored.
+     */
+    public synchronized Deal findDeal(String dealId) {
+        Integer row = rowsById.get(dealId);
+        return row != null ? getDeal(row) : null;
+    }
+
+    /**
+     * Builds detached Deals for a set of rows, e.g. the result of a select.
+     */
+    public synchronized List<Deal> getDeals(int[] rows) {
+        List<Deal> deals = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            deals.add(getDeal(row));
+        }
+        return deals;
+    }
+
+    /**
+     * Finds the rows of the deals that match a status and close date range.
+     *
+     * @param status The status to match, or null for any status
+     * @param from The first close date to include, or null for no lower bound
+     * @param to The last close date to include, or null for no upper bound
+     * @return The matching rows in row order
+     */
+    public synchronized int[] select(DealStatus status, LocalDate from, LocalDate to) {
+        Filter filter = new Filter(status, from, to);
+        int[] rows = new int[16];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (filter.matches(row)) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, count * 2);
+                }
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Counts the deals that match a status and close date range.
+     */
+    public synchronized long count(DealStatus status, LocalDate from, LocalDate to) {
+        Filter filter = new Filter(status, from, to);
+        long count = 0;
+        for (int row = 0; row < size; row++) {
+            if (filter.matches(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sums the value of the deals that match a status and close date range.
+     */
+    public synchronized BigDecimal sumValue(DealStatus status, LocalDate from, LocalDate to) {
+        Filter filter = new Filter(status, from, to);
+        long cents = 0;
+        for (int row = 0; row < size; row++) {
+            if (filter.matches(row)) {
+                cents = Math.addExact(cents, valueCents[row]);
+            }
+        }
+        return BigDecimal.valueOf(cents, VALUE_SCALE);
+    }
+
+    /**
+     * Sums the value of the deals that match a status and close date range, by sales rep ID.
+     * Deals without a sales rep are left out.
+     */
+    public synchronized Map<String, BigDecimal> sumValueByRep(DealStatus status, LocalDate from, LocalDate to) {
+        Filter filter = new Filter(status, from, to);
+        int repCount = dictionary.size(IdDictionary.IdType.SALES_REP);
+        long[] centsByRep = new long[repCount];
+        boolean[] matched = new boolean[repCount];
+        for (int row = 0; row < size; row++) {
+            int rep = repOrdinals[row];
+            if (rep != NO_REP && filter.matches(row)) {
+                centsByRep[rep] = Math.addExact(centsByRep[rep], valueCents[row]);
+                matched[rep] = true;
+            }
+        }
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        for (int rep = 0; rep < centsByRep.length; rep++) {
+            if (matched[rep]) {
+                totals.put(dictionary.idOf(IdDictionary.IdType.SALES_REP, rep), BigDecimal.valueOf(centsByRep[rep], VALUE_SCALE));
+            }
+        }
+        return totals;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        titles = Arrays.copyOf(titles, newCapacity);
+        valueCents = Arrays.copyOf(valueCents, newCapacity);
+        closeEpochDays = Arrays.copyOf(closeEpochDays, newCapacity);
+        statuses = Arrays.copyOf(statuses, newCapacity);
+        stages = Arrays.copyOf(stages, newCapacity);
+        repOrdinals = Arrays.copyOf(repOrdinals, newCapacity);
+        products = Arrays.copyOf(products, newCapacity);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IllegalArgumentException("Row out of range: " + row);
+        }
+    }
+
+    private DealProduct copyOf(DealProduct product) {
+        DealProduct copy = new DealProduct(product.getProductId(), product.getProductName(),
+                product.getQuantity(), product.getPrice());
+        copy.setId(product.getId());
+        copy.setDiscount(product.getDiscount());
+        copy.setDealId(product.getDealId());
+        return copy;
+    }
+
+    /**
+     * A status and close date filter compiled to the stored column encodings.
+     */
+    private class Filter {
+        private final byte status;
+        private final int fromDay;
+        private final int toDay;
+        private final boolean dateBounded;
+
+        Filter(DealStatus status, LocalDate from, LocalDate to) {
+            this.status = status != null ? (byte) status.ordinal() : NO_ORDINAL;
+            this.fromDay = from != null ? Math.toIntExact(from.toEpochDay()) : Integer.MIN_VALUE;
+            this.toDay = to != null ? Math.toIntExact(to.toEpochDay()) : Integer.MAX_VALUE;
+            this.dateBounded = from != null || to != null;
+        }
+
+        boolean matches(int row) {
+            if (status != NO_ORDINAL && statuses[row] != status) {
+                return false;
+            }
+            if (!dateBounded) {
+                return true;
+            }
+            int day = closeEpochDays[row];
+            return day != NO_DATE && day >= fromDay && day <= toDay;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class caches commission calculation results.
+ * It is responsible only for caching, following the Single Responsibility Principle.
+ *
+ * Entries are keyed by deal ID and version and plan ID and version. Deal and CommissionPlan
+ * take a new version on every mutation, including changes to a deal's products and to a
+ * plan's tiers and rules, from one sequence they share, so a changed deal or plan and a
+ * reloaded copy with the same ID simply miss the cache and no explicit invalidation is needed.
+ * When a result for the same deal and plan IDs is cached, it replaces the earlier entry unless
+ * the earlier entry is at least as new in both the deal and the plan. The cache holds at most a fixed number of entries
+ * and evicts the least recently used one. Hits return a shared read-only copy of the result.
+ */
+public class CommissionCalculationCache {
+
+    private final CommissionCalculator calculator;
+    private final int maxEntries;
+    private final Map<CacheKey, CommissionCalculation> entries;
+    private final Map<String, CacheKey> latestKeys = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor with the calculator used on a cache miss and the maximum number of entries.
+     */
+    public CommissionCalculationCache(CommissionCalculator calculator, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Maximum entries must be positive: " + maxEntries);
+        }
+        this.calculator = calculator;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CommissionCalculation> eldest) {
+                if (size() > CommissionCalculationCache.this.maxEntries) {
+                    latestKeys.remove(eldest.getKey().pairKey(), eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the commission calculation for a deal under a plan, calculating it only if the
+     * deal or plan has changed since it was last calculated.
+     *
+     * @param deal The deal
+     * @param plan The commission plan
+     * @return A read-only calculation result
+     */
+    public CommissionCalculation getCalculation(Deal deal, CommissionPlan plan) {
+        CacheKey key = new CacheKey(deal.getId(), deal.getVersion(), plan.getId(), plan.getVersion());
+        synchronized (entries) {
+            CommissionCalculation cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        // Calculate outside the lock so other lookups are not blocked
+        misses.increment();
+        CommissionCalculation calculation = new ReadOnlyCommissionCalculation(calculator.calculateCommission(deal, plan));
+
+        synchronized (entries) {
+            CacheKey previous = latestKeys.get(key.pairKey());
+            if (previous != null && previous.isNewerThan(key)) {
+                // A newer version was cached while this one was being calculated
+                return calculation;
+            }
+            if (previous != null && !previous.equals(key)) {
+                entries.remove(previous);
+            }
+            latestKeys.put(key.pairKey(), key);
+            entries.put(key, calculation);
+        }
+        return calculation;
+    }
+
+    /**
+     * Removes every cached result for a deal, e.g. when it is deleted.
+     */
+    public void invalidateDeal(String dealId) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.dealId().equals(dealId));
+            latestKeys.values().removeIf(key -> key.dealId().equals(dealId));
+        }
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            latestKeys.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private record CacheKey(String dealId, long dealVersion, String planId, long planVersion) {
+        String pairKey() {
+            return dealId + "|" + planId;
+        }
+
+        /**
+         * Whether this key is at least as new as another in both parts and newer in one.
+         */
+        boolean isNewerThan(CacheKey other) {
+            return dealVersion >= other.dealVersion && planVersion >= other.planVersion && !equals(other);
+        }
+    }
+}
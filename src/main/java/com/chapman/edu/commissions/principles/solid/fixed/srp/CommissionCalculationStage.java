@@ -0,0 +1,38 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+
+/**
+ * This class is the pipeline stage that calculates the commission for each deal.
+ * It is responsible only for turning deals into calculations, following the Single Responsibility Principle;
+ * the calculation itself is delegated to the CommissionCalculator.
+ */
+public class CommissionCalculationStage extends MappingStage<Deal, CommissionCalculation> {
+
+    private final CommissionCalculator calculator;
+    private final IdGenerationService idGenerationService;
+    private final CommissionPlan plan;
+
+    /**
+     * Constructor that takes all required dependencies.
+     *
+     * @param calculator The calculator that computes each commission
+     * @param idGenerationService The service that assigns calculation IDs
+     * @param plan The commission plan to apply to every deal
+     */
+    public CommissionCalculationStage(CommissionCalculator calculator, IdGenerationService idGenerationService,
+                                      CommissionPlan plan) {
+        this.calculator = calculator;
+        this.idGenerationService = idGenerationService;
+        this.plan = plan;
+    }
+
+    @Override
+    protected CommissionCalculation apply(Deal deal) {
+        CommissionCalculation calculation = calculator.calculateCommission(deal, plan);
+        calculation.setId(idGenerationService.nextId("CALC-"));
+        return calculation;
+    }
+}
@@ -17,10 +17,17 @@ import java.util.logging.Logger;
  */
 public class CommissionCalculator {
     private static final Logger LOGGER = Logger.getLogger(CommissionCalculator.class.getName());
+    private static final IdGenerationService DEFAULT_ID_GENERATION_SERVICE = IdGenerationServiceImpl.defaultInstance();
     private final DatabaseService databaseService;
+    private final IdGenerationService idGenerationService;
 
     public CommissionCalculator(DatabaseService databaseService) {
+        this(databaseService, DEFAULT_ID_GENERATION_SERVICE);
+    }
+
+    public CommissionCalculator(DatabaseService databaseService, IdGenerationService idGenerationService) {
         this.databaseService = databaseService;
+        this.idGenerationService = idGenerationService;
     }
 
     /**
@@ -48,10 +55,20 @@ public class CommissionCalculator {
             throw new IllegalArgumentException("Sales rep not found: " + deal.getSalesRepId());
         }
 
-        // Calculate commission
-        CommissionCalculation calculation = new CommissionCalculation();
+        CommissionCalculation calculation = calculateCommission(deal, plan);
         calculation.setId(generateId());
-        calculation.setDealId(dealId);
+        return calculation;
+    }
+
+    /**
+     * Calculates commission for a deal using a plan that has already been loaded.
+     * This method does not read from or write to the database, so it can be used to evaluate
+     * draft plans and can be called from many threads at once. The result has no ID assigned.
+     * The database-backed method uses this calculation, so both pay the same for a deal.
+     */
+    public CommissionCalculation calculateCommission(Deal deal, CommissionPlan plan) {
+        CommissionCalculation calculation = new CommissionCalculation();
+        calculation.setDealId(deal.getId());
         calculation.setSalesRepId(deal.getSalesRepId());
         calculation.setPlanId(plan.getId());
         calculation.setCalculationDate(LocalDate.now());
@@ -73,7 +90,7 @@ public class CommissionCalculator {
     }
 
     private String generateId() {
-        return "CALC-" + System.currentTimeMillis();
+        return idGenerationService.nextId("CALC-");
     }
 
     private BigDecimal calculateBaseCommission(Deal deal, CommissionPlan plan) {
@@ -0,0 +1,255 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealStage;
+import com.chapman.edu.commissions.model.DealStatus;
+import com.chapman.edu.commissions.model.User;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BinaryOperator;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * This class projects commission payouts over the open deal pipeline.
+ * It is responsible only for forecasting, following the Single Responsibility Principle.
+ *
+ * Each open deal's commission is calculated with the DB-free CommissionCalculator path and
+ * weighted by the win probability of the deal's stage. The initial build runs over the whole
+ * pipeline in parallel. After that, a deal that changes stage, value or status is re-projected
+ * on its own and only the difference is applied to its rep's and team's totals, so the
+ * projections stay current without recalculating the pipeline. A team is the set of reps that
+ * share a manager; reps without a manager are included in rep totals only. Deals without an ID
+ * cannot be tracked between updates and are left out of the forecast.
+ */
+public class CommissionForecastEngine {
+    private static final Logger LOGGER = Logger.getLogger(CommissionForecastEngine.class.getName());
+
+    private final CommissionCalculator calculator;
+    private final DatabaseService databaseService;
+    private final Map<DealStage, BigDecimal> stageProbabilities = new EnumMap<>(DealStage.class);
+
+    private CommissionPlan plan;
+    private final Map<String, DealProjection> dealProjections = new HashMap<>();
+    private final Map<String, BigDecimal> repProjections = new HashMap<>();
+    private final Map<String, BigDecimal> teamProjections = new HashMap<>();
+    private final ConcurrentMap<String, String> teamsByRep = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that takes all required dependencies and uses each stage's default probability.
+     *
+     * @param calculator The calculator used to compute each deal's commission
+     * @param databaseService The database used to look up each rep's manager
+     */
+    public CommissionForecastEngine(CommissionCalculator calculator, DatabaseService databaseService) {
+        this.calculator = calculator;
+        this.databaseService = databaseService;
+        for (DealStage stage : DealStage.values()) {
+            stageProbabilities.put(stage, stage.getProbability());
+        }
+    }
+
+    /**
+     * Overrides the win probability of a stage. Takes effect on the next rebuild or deal update.
+     */
+    public synchronized void setStageProbability(DealStage stage, BigDecimal probability) {
+        if (probability.signum() < 0 || probability.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("Probability must be between 0 and 1: " + probability);
+        }
+        stageProbabilities.put(stage, probability);
+    }
+
+    /**
+     * Projects the whole open pipeline under a plan, replacing any previous projections.
+     *
+     * @param pipeline The deals to consider; deals that are not open or have no ID are ignored
+     * @param plan The active commission plan
+     */
+    public synchronized void rebuild(Collection<Deal> pipeline, CommissionPlan plan) {
+        this.plan = plan;
+        Map<String, DealProjection> projections = pipeline.parallelStream()
+                .filter(deal -> deal.getStatus() == DealStatus.OPEN)
+                .filter(this::hasId)
+                .map(this::project)
+                .collect(Collectors.toConcurrentMap(DealProjection::getDealId, projection -> projection,
+                        (first, second) -> second));
+
+        dealProjections.clear();
+        repProjections.clear();
+        teamProjections.clear();
+        for (DealProjection projection : projections.values()) {
+            dealProjections.put(projection.getDealId(), projection);
+            apply(projection, BigDecimal::add);
+        }
+    }
+
+    /**
+     * Re-projects a single deal after it has changed. A deal that is no longer open is removed,
+     * and a deal without an ID is ignored.
+     */
+    public synchronized void updateDeal(Deal deal) {
+        if (plan == null) {
+            throw new IllegalStateException("Forecast has not been built");
+        }
+        if (!hasId(deal)) {
+            return;
+        }
+        DealProjection previous = dealProjections.remove(deal.getId());
+        if (previous != null) {
+            apply(previous, BigDecimal::subtract);
+        }
+        if (deal.getStatus() == DealStatus.OPEN) {
+            DealProjection projection = project(deal);
+            dealProjections.put(deal.getId(), projection);
+            apply(projection, BigDecimal::add);
+        }
+    }
+
+    /**
+     * Removes a deal from the forecast, e.g. when it is deleted.
+     */
+    public synchronized void removeDeal(String dealId) {
+        DealProjection previous = dealProjections.remove(dealId);
+        if (previous != null) {
+            apply(previous, BigDecimal::subtract);
+        }
+    }
+
+    public synchronized DealProjection getDealProjection(String dealId) {
+        return dealProjections.get(dealId);
+    }
+
+    /**
+     * Gets the probability-weighted commission projected for a sales rep.
+     */
+    public synchronized BigDecimal getRepProjection(String salesRepId) {
+        return repProjections.getOrDefault(salesRepId, BigDecimal.ZERO);
+    }
+
+    /**
+     * Gets the probability-weighted commission projected for the reps reporting to a manager.
+     */
+    public synchronized BigDecimal getTeamProjection(String managerId) {
+        return teamProjections.getOrDefault(managerId, BigDecimal.ZERO);
+    }
+
+    public synchronized Map<String, BigDecimal> getRepProjections() {
+        return new HashMap<>(repProjections);
+    }
+
+    public synchronized Map<String, BigDecimal> getTeamProjections() {
+        return new HashMap<>(teamProjections);
+    }
+
+    /**
+     * Gets the probability-weighted commission projected over the whole pipeline.
+     */
+    public synchronized BigDecimal getTotalProjection() {
+        return repProjections.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Forgets cached rep-to-manager assignments, e.g. after a reorganisation. Takes effect on the next rebuild.
+     */
+    public void clearTeamAssignments() {
+        teamsByRep.clear();
+    }
+
+    private boolean hasId(Deal deal) {
+        if (deal.getId() == null) {
+            LOGGER.warning("Skipping deal without an ID in the forecast");
+            return false;
+        }
+        return true;
+    }
+
+    private DealProjection project(Deal deal) {
+        DealStage stage = deal.getStage() != null ? deal.getStage() : DealStage.PROSPECTING;
+        BigDecimal probability = stageProbabilities.get(stage);
+        BigDecimal commission = calculator.calculateCommission(deal, plan).getNetCommission();
+        return new DealProjection(deal.getId(), deal.getSalesRepId(), teamOf(deal.getSalesRepId()), stage,
+                commission, commission.multiply(probability));
+    }
+
+    private String teamOf(String salesRepId) {
+        if (salesRepId == null) {
+            return "";
+        }
+        return teamsByRep.computeIfAbsent(salesRepId, id -> {
+            User salesRep = databaseService.getUserFromDatabase(id);
+            return salesRep != null && salesRep.getManagerId() != null ? salesRep.getManagerId() : "";
+        });
+    }
+
+    private void apply(DealProjection projection, BinaryOperator<BigDecimal> operation) {
+        BigDecimal amount = projection.getWeightedCommission();
+        if (projection.getSalesRepId() != null) {
+            repProjections.merge(projection.getSalesRepId(), amount, operation);
+        }
+        if (!projection.getTeamId().isEmpty()) {
+            teamProjections.merge(projection.getTeamId(), amount, operation);
+        }
+    }
+
+    /**
+     * The projected commission of one open deal.
+     */
+    public static class DealProjection {
+        private final String dealId;
+        private final String salesRepId;
+        private final String teamId;
+        private final DealStage stage;
+        private final BigDecimal commission;
+        private final BigDecimal weightedCommission;
+
+        DealProjection(String dealId, String salesRepId, String teamId, DealStage stage,
+                       BigDecimal commission, BigDecimal weightedCommission) {
+            this.dealId = dealId;
+            this.salesRepId = salesRepId;
+            this.teamId = teamId;
+            this.stage = stage;
+            this.commission = commission;
+            this.weightedCommission = weightedCommission;
+        }
+
+        public String getDealId() {
+            return dealId;
+        }
+
+        public String getSalesRepId() {
+            return salesRepId;
+        }
+
+        /**
+         * Gets the ID of the rep's manager, or an empty string if the rep has none.
+         */
+        public String getTeamId() {
+            return teamId;
+        }
+
+        public DealStage getStage() {
+            return stage;
+        }
+
+        /**
+         * Gets the commission the deal would pay if won.
+         */
+        public BigDecimal getCommission() {
+            return commission;
+        }
+
+        /**
+         * Gets the commission weighted by the stage's win probability.
+         */
+        public BigDecimal getWeightedCommission() {
+            return weightedCommission;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.User;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is the final pipeline stage that notifies sales reps of their calculations.
+ * It is responsible only for notification, following the Single Responsibility Principle.
+ *
+ * It requests a fixed window of calculations at a time and asks for the next window only once
+ * the current one has been notified, so the whole pipeline runs no faster than emails are sent.
+ */
+public class CommissionNotificationSubscriber implements Flow.Subscriber<CommissionCalculation> {
+    private static final Logger LOGGER = Logger.getLogger(CommissionNotificationSubscriber.class.getName());
+
+    private final DatabaseService databaseService;
+    private final EmailService emailService;
+    private final int requestSize;
+    private final CompletableFuture<Long> completion = new CompletableFuture<>();
+
+    private Flow.Subscription subscription;
+    private int remainingInWindow;
+    private long notifiedCount;
+
+    /**
+     * Constructor that takes all required dependencies.
+     *
+     * @param databaseService The database used to look up sales reps
+     * @param emailService The service that sends the notifications
+     * @param requestSize The number of calculations requested at a time
+     */
+    public CommissionNotificationSubscriber(DatabaseService databaseService, EmailService emailService,
+                                            int requestSize) {
+        if (requestSize <= 0) {
+            throw new IllegalArgumentException("Request size must be positive: " + requestSize);
+        }
+        this.databaseService = databaseService;
+        this.emailService = emailService;
+        this.requestSize = requestSize;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        remainingInWindow = requestSize;
+        subscription.request(requestSize);
+    }
+
+    @Override
+    public void onNext(CommissionCalculation calculation) {
+        try {
+            User salesRep = databaseService.getUserFromDatabase(calculation.getSalesRepId());
+            if (salesRep != null) {
+                emailService.sendCommissionNotification(salesRep, calculation);
+                notifiedCount++;
+            } else {
+                LOGGER.warning("Sales rep not found for calculation " + calculation.getId() + ": "
+                        + calculation.getSalesRepId());
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error notifying calculation " + calculation.getId(), e);
+        }
+        if (--remainingInWindow == 0) {
+            remainingInWindow = requestSize;
+            subscription.request(requestSize);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        LOGGER.log(Level.SEVERE, "Commission pipeline failed", throwable);
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(notifiedCount);
+    }
+
+    /**
+     * Gets a future that completes with the number of notifications sent once the pipeline finishes.
+     */
+    public CompletableFuture<Long> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Cancels the pipeline; no further calculations are requested.
+     */
+    public void cancel() {
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        completion.cancel(false);
+    }
+}
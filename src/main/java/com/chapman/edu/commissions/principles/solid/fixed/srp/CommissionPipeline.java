@@ -0,0 +1,72 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class wires the deal publisher, calculation, persistence and notification stages
+ * into a single back-pressured pipeline.
+ * It is responsible only for assembling the pipeline, following the Single Responsibility Principle.
+ *
+ * Demand flows from the notification subscriber back to the publisher through every stage,
+ * so no stage holds more than the notification window in flight.
+ */
+public class CommissionPipeline {
+
+    private final CommissionCalculator calculator;
+    private final DatabaseService databaseService;
+    private final EmailService emailService;
+    private final IdGenerationService idGenerationService;
+    private final int requestSize;
+    private final Executor executor;
+
+    /**
+     * Constructor that takes all required dependencies and emits on the common fork-join pool.
+     */
+    public CommissionPipeline(CommissionCalculator calculator, DatabaseService databaseService,
+                              EmailService emailService, IdGenerationService idGenerationService, int requestSize) {
+        this(calculator, databaseService, emailService, idGenerationService, requestSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor that takes all required dependencies and the executor the pipeline runs on.
+     *
+     * @param requestSize The number of calculations the notification stage requests at a time
+     */
+    public CommissionPipeline(CommissionCalculator calculator, DatabaseService databaseService,
+                              EmailService emailService, IdGenerationService idGenerationService,
+                              int requestSize, Executor executor) {
+        this.calculator = calculator;
+        this.databaseService = databaseService;
+        this.emailService = emailService;
+        this.idGenerationService = idGenerationService;
+        this.requestSize = requestSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Runs the deals through the pipeline under a plan.
+     *
+     * @param deals The deals to calculate, persist and notify
+     * @param plan The commission plan to apply
+     * @return A future that completes with the number of notifications sent
+     */
+    public CompletableFuture<Long> process(Iterable<Deal> deals, CommissionPlan plan) {
+        DealPublisher publisher = new DealPublisher(deals, executor);
+        CommissionCalculationStage calculationStage =
+                new CommissionCalculationStage(calculator, idGenerationService, plan);
+        CalculationPersistenceStage persistenceStage = new CalculationPersistenceStage(databaseService);
+        CommissionNotificationSubscriber notificationSubscriber =
+                new CommissionNotificationSubscriber(databaseService, emailService, requestSize);
+
+        // Subscribe from the end of the pipeline first so demand is in place before the publisher is attached
+        persistenceStage.subscribe(notificationSubscriber);
+        calculationStage.subscribe(persistenceStage);
+        publisher.subscribe(calculationStage);
+        return notificationSubscriber.getCompletion();
+    }
+}
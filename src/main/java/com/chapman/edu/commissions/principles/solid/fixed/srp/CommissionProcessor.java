@@ -3,7 +3,11 @@ package com.chapman.edu.commissions.principles.solid.fixed.srp;
 import com.chapman.edu.commissions.model.CommissionCalculation;
 import com.chapman.edu.commissions.model.User;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -59,10 +63,130 @@ public class CommissionProcessor {
         return calculation;
     }
     
+    /**
+     * Processes commission calculations for a batch of deals.
+     * Calculations are saved in one database call, and each sales rep receives one summary email
+     * and one report for the whole batch instead of one per deal. A deal that fails to calculate
+     * is logged and skipped so it does not hold up the rest of the batch.
+     */
+    public List<CommissionCalculation> processCommissions(List<String> dealIds, String planId) {
+        return processCommissions(dealIds, planId, Math.max(1, dealIds.size()), CancellationToken.create())
+                .getCalculations();
+    }
+    
+    /**
+     * Processes commission calculations for a batch of deals in chunks, stopping early if the
+     * token is cancelled or its deadline passes.
+     * The token is checked between chunks. Each finished chunk is saved before the check, so a
+     * stopped run leaves no half-saved chunk behind, and the sales reps of every saved calculation
+     * still receive their summary email and report.
+     *
+     * @param dealIds The IDs of the deals to process
+     * @param planId The ID of the commission plan to apply
+     * @param chunkSize The number of deals calculated and saved between checks of the token
+     * @param token Signals that processing should stop
+     * @return The calculations made and how far processing got
+     */
+    public BatchResult processCommissions(List<String> dealIds, String planId, int chunkSize, CancellationToken token) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        LOGGER.info("Processing commissions for " + dealIds.size() + " deals with plan: " + planId);
+        
+        // 1. Calculate and save commissions one chunk at a time (delegated to CommissionCalculator and DatabaseService)
+        List<CommissionCalculation> calculations = new ArrayList<>(dealIds.size());
+        int processedCount = 0;
+        CancellationToken.StopReason stopReason = CancellationToken.StopReason.NONE;
+        while (processedCount < dealIds.size()) {
+            stopReason = token.getStopReason();
+            if (stopReason != CancellationToken.StopReason.NONE) {
+                LOGGER.warning("Batch commission processing stopped after " + processedCount + " of "
+                        + dealIds.size() + " deals: " + stopReason.getDisplayName());
+                break;
+            }
+            List<String> chunk = dealIds.subList(processedCount, Math.min(processedCount + chunkSize, dealIds.size()));
+            List<CommissionCalculation> chunkCalculations = new ArrayList<>(chunk.size());
+            for (String dealId : chunk) {
+                try {
+                    chunkCalculations.add(calculator.calculateCommission(dealId, planId));
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Skipping deal " + dealId + " in batch", e);
+                }
+            }
+            if (!chunkCalculations.isEmpty()) {
+                databaseService.saveCalculationsToDatabase(chunkCalculations);
+                calculations.addAll(chunkCalculations);
+            }
+            processedCount += chunk.size();
+        }
+        
+        // 2. Send one email and generate one report per sales rep
+        Map<String, List<CommissionCalculation>> calculationsBySalesRep = new LinkedHashMap<>();
+        for (CommissionCalculation calculation : calculations) {
+            calculationsBySalesRep.computeIfAbsent(calculation.getSalesRepId(), k -> new ArrayList<>()).add(calculation);
+        }
+        for (Map.Entry<String, List<CommissionCalculation>> entry : calculationsBySalesRep.entrySet()) {
+            User salesRep = databaseService.getUserFromDatabase(entry.getKey());
+            emailService.sendCommissionSummary(salesRep, entry.getValue());
+            
+            List<CommissionCalculation> allCalculations = databaseService.getCalculationsBySalesRep(salesRep.getId());
+            String reportContent = reportGenerator.generateCommissionReport(salesRep, allCalculations);
+            String reportPath = "reports/commission_" + salesRep.getId() + "_" + System.currentTimeMillis() + ".txt";
+            reportGenerator.saveReportToFile(reportContent, reportPath);
+        }
+        
+        LOGGER.info("Batch commission processing completed for " + calculations.size() + " deals");
+        return new BatchResult(calculations, processedCount, dealIds.size(), stopReason);
+    }
+    
     /**
      * Retrieves commission calculations for a sales rep.
      */
     public List<CommissionCalculation> getCalculationsBySalesRep(String salesRepId) {
         return databaseService.getCalculationsBySalesRep(salesRepId);
     }
+    
+    /**
+     * The outcome of a batch run, including how far it got if it was stopped early.
+     */
+    public static class BatchResult {
+        private final List<CommissionCalculation> calculations;
+        private final int processedCount;
+        private final int totalCount;
+        private final CancellationToken.StopReason stopReason;
+        
+        BatchResult(List<CommissionCalculation> calculations, int processedCount, int totalCount,
+                    CancellationToken.StopReason stopReason) {
+            this.calculations = calculations;
+            this.processedCount = processedCount;
+            this.totalCount = totalCount;
+            this.stopReason = stopReason;
+        }
+        
+        /**
+         * Gets the calculations that were made and saved.
+         */
+        public List<CommissionCalculation> getCalculations() {
+            return calculations;
+        }
+        
+        /**
+         * Gets the number of deals attempted, including deals that were skipped.
+         */
+        public int getProcessedCount() {
+            return processedCount;
+        }
+        
+        public int getTotalCount() {
+            return totalCount;
+        }
+        
+        public CancellationToken.StopReason getStopReason() {
+            return stopReason;
+        }
+        
+        public boolean isComplete() {
+            return processedCount == totalCount;
+        }
+    }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.chapman.edu.commissions.model.CommissionPlan;
 import com.chapman.edu.commissions.model.Deal;
 import com.chapman.edu.commissions.model.User;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -29,6 +30,43 @@ public interface DatabaseService {
     
     // Commission Calculation operations
     void saveCalculationToDatabase(CommissionCalculation calculation);
+    void saveCalculationsToDatabase(List<CommissionCalculation> calculations);
     CommissionCalculation getCalculationFromDatabase(String calculationId);
     List<CommissionCalculation> getCalculationsBySalesRep(String salesRepId);
+    
+    /**
+     * Gets all calculations for a deal, looked up through an index by deal ID.
+     */
+    List<CommissionCalculation> getCalculationsByDeal(String dealId);
+    
+    /**
+     * Gets a chunk of calculations for a plan, ordered by calculation ID.
+     * Callers page through all calculations by passing the last ID of the previous chunk.
+     * 
+     * @param planId The ID of the commission plan
+     * @param fromDate Only calculations on or after this date are returned; null for all dates
+     * @param afterCalculationId Only calculations with a greater ID are returned; null to start from the beginning
+     * @param limit The maximum number of calculations to return
+     * @return The calculations in ID order
+     */
+    List<CommissionCalculation> getCalculationsByPlan(String planId, LocalDate fromDate, String afterCalculationId, int limit);
+    
+    /**
+     * Counts the calculations for a plan on or after a date.
+     */
+    long countCalculationsByPlan(String planId, LocalDate fromDate);
+    
+    /**
+     * Gets a chunk of calculations with a status, ordered by calculation ID.
+     * Callers page through all matching calculations by passing the last ID of the previous chunk.
+     * 
+     * @param status The calculation status
+     * @param fromDate Only calculations on or after this date are returned; null for no lower bound
+     * @param toDate Only calculations on or before this date are returned; null for no upper bound
+     * @param afterCalculationId Only calculations with a greater ID are returned; null to start from the beginning
+     * @param limit The maximum number of calculations to return
+     * @return The calculations in ID order
+     */
+    List<CommissionCalculation> getCalculationsByStatus(CommissionCalculation.CommissionStatus status,
+            LocalDate fromDate, LocalDate toDate, String afterCalculationId, int limit);
 }
\ No newline at end of file
@@ -5,10 +5,15 @@ import com.chapman.edu.commissions.model.CommissionPlan;
 import com.chapman.edu.commissions.model.Deal;
 import com.chapman.edu.commissions.model.User;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.logging.Logger;
 
 /**
@@ -19,7 +24,10 @@ public class DatabaseServiceImpl implements DatabaseService {
     private static final Logger LOGGER = Logger.getLogger(DatabaseServiceImpl.class.getName());
     
     // In-memory database for demonstration purposes
-    private Map<String, CommissionCalculation> calculationsDatabase = new HashMap<>();
+    // Calculations are kept sorted by ID so they can be paged through in order
+    private NavigableMap<String, CommissionCalculation> calculationsDatabase = new ConcurrentSkipListMap<>();
+    // Index of calculation IDs by deal ID
+    private Map<String, Set<String>> calculationIdsByDeal = new ConcurrentHashMap<>();
     private Map<String, Deal> dealsDatabase = new HashMap<>();
     private Map<String, CommissionPlan> plansDatabase = new HashMap<>();
     private Map<String, User> usersDatabase = new HashMap<>();
@@ -93,6 +101,16 @@ public class DatabaseServiceImpl implements DatabaseService {
     public void saveCalculationToDatabase(CommissionCalculation calculation) {
         LOGGER.info("Saving commission calculation to database: " + calculation.getId());
         calculationsDatabase.put(calculation.getId(), calculation);
+        indexByDeal(calculation);
+    }
+    
+    @Override
+    public void saveCalculationsToDatabase(List<CommissionCalculation> calculations) {
+        LOGGER.info("Saving " + calculations.size() + " commission calculations to database");
+        for (CommissionCalculation calculation : calculations) {
+            calculationsDatabase.put(calculation.getId(), calculation);
+            indexByDeal(calculation);
+        }
     }
     
     @Override
@@ -112,4 +130,77 @@ public class DatabaseServiceImpl implements DatabaseService {
         }
         return result;
     }
+    
+    @Override
+    public List<CommissionCalculation> getCalculationsByDeal(String dealId) {
+        LOGGER.info("Getting calculations for deal: " + dealId);
+        List<CommissionCalculation> result = new ArrayList<>();
+        for (String calculationId : calculationIdsByDeal.getOrDefault(dealId, Set.of())) {
+            CommissionCalculation calculation = calculationsDatabase.get(calculationId);
+            if (calculation != null) {
+                result.add(calculation);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public List<CommissionCalculation> getCalculationsByPlan(String planId, LocalDate fromDate, String afterCalculationId, int limit) {
+        LOGGER.info("Getting calculations for plan: " + planId + " after: " + afterCalculationId);
+        NavigableMap<String, CommissionCalculation> remaining = afterCalculationId == null
+                ? calculationsDatabase
+                : calculationsDatabase.tailMap(afterCalculationId, false);
+        List<CommissionCalculation> result = new ArrayList<>();
+        for (CommissionCalculation calculation : remaining.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (isForPlan(calculation, planId, fromDate)) {
+                result.add(calculation);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public long countCalculationsByPlan(String planId, LocalDate fromDate) {
+        LOGGER.info("Counting calculations for plan: " + planId);
+        return calculationsDatabase.values().stream()
+                .filter(calculation -> isForPlan(calculation, planId, fromDate))
+                .count();
+    }
+    
+    @Override
+    public List<CommissionCalculation> getCalculationsByStatus(CommissionCalculation.CommissionStatus status,
+            LocalDate fromDate, LocalDate toDate, String afterCalculationId, int limit) {
+        LOGGER.info("Getting " + status + " calculations after: " + afterCalculationId);
+        NavigableMap<String, CommissionCalculation> remaining = afterCalculationId == null
+                ? calculationsDatabase
+                : calculationsDatabase.tailMap(afterCalculationId, false);
+        List<CommissionCalculation> result = new ArrayList<>();
+        for (CommissionCalculation calculation : remaining.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            LocalDate date = calculation.getCalculationDate();
+            if (calculation.getStatus() == status
+                    && (fromDate == null || !date.isBefore(fromDate))
+                    && (toDate == null || !date.isAfter(toDate))) {
+                result.add(calculation);
+            }
+        }
+        return result;
+    }
+    
+    private void indexByDeal(CommissionCalculation calculation) {
+        if (calculation.getDealId() != null) {
+            calculationIdsByDeal.computeIfAbsent(calculation.getDealId(), k -> ConcurrentHashMap.newKeySet())
+                    .add(calculation.getId());
+        }
+    }
+    
+    private boolean isForPlan(CommissionCalculation calculation, String planId, LocalDate fromDate) {
+        return planId.equals(calculation.getPlanId())
+                && (fromDate == null || !calculation.getCalculationDate().isBefore(fromDate));
+    }
 }
\ No newline at end of file
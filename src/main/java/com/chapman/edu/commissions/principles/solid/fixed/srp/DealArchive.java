@@ -0,0 +1,126 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealStage;
+import com.chapman.edu.commissions.model.DealStatus;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * This class archives deal history off the Java heap.
+ * It is responsible only for the deal record layout, following the Single Responsibility Principle.
+ *
+ * Each deal is a fixed 128-byte record holding its ID, sales rep ID and title prefix, its value
+ * in cents, its close and created dates as epoch days, and its status and stage ordinals.
+ * Products are not archived. Range scans are by close date.
+ */
+public class DealArchive extends OffHeapArchive<Deal> {
+
+    private static final int MAGIC = 0x44454131; // "DEA1"
+    private static final int ID_LENGTH = 32;
+    private static final int TITLE_LENGTH = 40;
+    private static final byte NO_ORDINAL = -1;
+
+    static final MemoryLayout LAYOUT = MemoryLayout.structLayout(
+            MemoryLayout.sequenceLayout(ID_LENGTH, ValueLayout.JAVA_BYTE).withName("id"),
+            MemoryLayout.sequenceLayout(ID_LENGTH, ValueLayout.JAVA_BYTE).withName("salesRepId"),
+            MemoryLayout.sequenceLayout(TITLE_LENGTH, ValueLayout.JAVA_BYTE).withName("title"),
+            ValueLayout.JAVA_LONG_UNALIGNED.withName("valueCents"),
+            ValueLayout.JAVA_INT_UNALIGNED.withName("closeDay"),
+            ValueLayout.JAVA_INT_UNALIGNED.withName("createdDay"),
+            ValueLayout.JAVA_BYTE.withName("status"),
+            ValueLayout.JAVA_BYTE.withName("stage"),
+            MemoryLayout.paddingLayout(6));
+
+    private static final long ID = offsetOf("id");
+    private static final long SALES_REP_ID = offsetOf("salesRepId");
+    private static final long TITLE = offsetOf("title");
+    private static final long VALUE_CENTS = offsetOf("valueCents");
+    private static final long CLOSE_DAY = offsetOf("closeDay");
+    private static final long CREATED_DAY = offsetOf("createdDay");
+    private static final long STATUS = offsetOf("status");
+    private static final long STAGE = offsetOf("stage");
+
+    private static final DealStatus[] STATUSES = DealStatus.values();
+    private static final DealStage[] STAGES = DealStage.values();
+
+    /**
+     * Constructor for an in-memory archive.
+     *
+     * @param initialCapacity The number of deals to allocate room for up front
+     */
+    public DealArchive(int initialCapacity) {
+        super(MAGIC, LAYOUT, initialCapacity);
+    }
+
+    /**
+     * Constructor for an archive mapped from a file.
+     *
+     * @param file The archive file, created if it does not exist
+     */
+    public DealArchive(Path file) {
+        super(MAGIC, LAYOUT, file);
+    }
+
+    @Override
+    protected String readId(MemorySegment record) {
+        return readString(record, ID, ID_LENGTH);
+    }
+
+    @Override
+    protected int readDay(MemorySegment record) {
+        return record.get(ValueLayout.JAVA_INT_UNALIGNED, CLOSE_DAY);
+    }
+
+    @Override
+    protected void write(MemorySegment record, Deal deal) {
+        writeString(record, ID, ID_LENGTH, deal.getId());
+        writeString(record, SALES_REP_ID, ID_LENGTH, deal.getSalesRepId());
+        writeString(record, TITLE, TITLE_LENGTH, truncate(deal.getTitle()));
+        writeMoney(record, VALUE_CENTS, deal.getValue() != null ? deal.getValue() : deal.calculateTotalValue());
+        writeDate(record, CLOSE_DAY, deal.getCloseDate());
+        writeDate(record, CREATED_DAY, deal.getCreatedDate());
+        record.set(ValueLayout.JAVA_BYTE, STATUS,
+                deal.getStatus() != null ? (byte) deal.getStatus().ordinal() : NO_ORDINAL);
+        record.set(ValueLayout.JAVA_BYTE, STAGE,
+                deal.getStage() != null ? (byte) deal.getStage().ordinal() : NO_ORDINAL);
+    }
+
+    @Override
+    protected Deal read(MemorySegment record) {
+        Deal deal = new Deal();
+        deal.setId(readString(record, ID, ID_LENGTH));
+        deal.setSalesRepId(readString(record, SALES_REP_ID, ID_LENGTH));
+        deal.setTitle(readString(record, TITLE, TITLE_LENGTH));
+        deal.setValue(readMoney(record, VALUE_CENTS));
+        deal.setCloseDate(readDate(record, CLOSE_DAY));
+        deal.setCreatedDate(readDate(record, CREATED_DAY));
+        byte status = record.get(ValueLayout.JAVA_BYTE, STATUS);
+        deal.setStatus(status != NO_ORDINAL ? STATUSES[status] : null);
+        byte stage = record.get(ValueLayout.JAVA_BYTE, STAGE);
+        deal.setStage(stage != NO_ORDINAL ? STAGES[stage] : null);
+        return deal;
+    }
+
+    /**
+     * Cuts a title down to the bytes the record has room for, on a character boundary.
+     */
+    private String truncate(String title) {
+        if (title == null) {
+            return null;
+        }
+        String truncated = title;
+        while (truncated.getBytes(StandardCharsets.UTF_8).length > TITLE_LENGTH) {
+            truncated = truncated.substring(0, truncated.length() - 1);
+        }
+        return truncated;
+    }
+
+    private static long offsetOf(String field) {
+        return LAYOUT.byteOffset(MemoryLayout.PathElement.groupElement(field));
+    }
+}
@@ -0,0 +1,663 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.DealStage;
+import com.chapman.edu.commissions.model.DealStatus;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * This class bulk-loads deals and their line items from CRM export files.
+ * It is responsible only for importing deals, following the Single Responsibility Principle.
+ *
+ * The file is a CSV with a header row and one row per line item. The deal columns are
+ * repeated on every row of a deal, and the rows of a deal must be next to each other. A row
+ * without a product ID is a deal without line items. The recognised columns are deal_id,
+ * title, sales_rep_id, status, stage, close_date, value, product_id, product_name, quantity,
+ * price and discount, in any order; only deal_id is required. Fields may be quoted, with
+ * doubled quotes inside, but may not contain line breaks.
+ *
+ * The file is memory-mapped and split into chunks at line boundaries, moving each boundary
+ * forward so that no deal is split between chunks. The chunks are parsed in parallel. The
+ * tokenizer reads fields as offsets into the mapped file, and numbers, dates and statuses are
+ * decoded straight from the bytes; only the strings a Deal holds are copied out. Deals are
+ * passed to the sink in batches, one batch at a time, in no particular order across chunks.
+ * Rows that cannot be parsed are skipped and counted. A sink that throws stops the import:
+ * no further batches are passed to it, and importDeals throws with the sink's exception as
+ * the cause. Batches the sink already accepted are not taken back.
+ */
+public class DealCsvImporter {
+    private static final Logger LOGGER = Logger.getLogger(DealCsvImporter.class.getName());
+
+    private static final long DEFAULT_MIN_CHUNK_BYTES = 1 << 20;
+    private static final int MAX_FAST_DECIMAL_LENGTH = 18;
+
+    private static final String[] COLUMN_NAMES = {
+            "deal_id", "title", "sales_rep_id", "status", "stage", "close_date", "value",
+            "product_id", "product_name", "quantity", "price", "discount"};
+    private static final int DEAL_ID = 0;
+    private static final int TITLE = 1;
+    private static final int SALES_REP_ID = 2;
+    private static final int STATUS = 3;
+    private static final int STAGE = 4;
+    private static final int CLOSE_DATE = 5;
+    private static final int VALUE = 6;
+    private static final int PRODUCT_ID = 7;
+    private static final int PRODUCT_NAME = 8;
+    private static final int QUANTITY = 9;
+    private static final int PRICE = 10;
+    private static final int DISCOUNT = 11;
+
+    private static final DealStatus[] STATUSES = DealStatus.values();
+    private static final DealStage[] STAGES = DealStage.values();
+    private static final byte[][] STATUS_NAMES = namesOf(STATUSES);
+    private static final byte[][] STAGE_NAMES = namesOf(STAGES);
+
+    private final int batchSize;
+    private final int parallelism;
+    private final long minChunkBytes;
+
+    /**
+     * Constructor that parses on every available core with batches of 1000 deals.
+     */
+    public DealCsvImporter() {
+        this(1000, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor that takes the batch size and the number of parsing threads.
+     *
+     * @param batchSize The number of deals passed to the sink at a time
+     * @param parallelism The number of chunks parsed at once
+     */
+    public DealCsvImporter(int batchSize, int parallelism) {
+        this(batchSize, parallelism, DEFAULT_MIN_CHUNK_BYTES);
+    }
+
+    /**
+     * Constructor that also sets the smallest chunk the file is split into.
+     */
+    DealCsvImporter(int batchSize, int parallelism, long minChunkBytes) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.minChunkBytes = minChunkBytes;
+    }
+
+    /**
+     * Imports every deal in a file.
+     *
+     * @param file The CSV file to import
+     * @param sink Receives the deals in batches, e.g. DealManagementService::createDeals or
+     *             ColumnarDealStore::putAll; it is never called by two threads at once
+     * @return The counts of the import
+     * @throws RuntimeException if the file cannot be read or the sink throws
+     */
+    public ImportResult importDeals(Path file, Consumer<List<Deal>> sink) {
+        LOGGER.info("Importing deals from " + file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Arena arena = Arena.ofShared()) {
+            long size = channel.size();
+            if (size == 0) {
+                return new ImportResult(0, 0, 0);
+            }
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            long bodyStart = nextLine(data, 0, size);
+            int[] columns = readHeader(data, bodyStart);
+            List<long[]> chunks = split(data, bodyStart, size, columns);
+
+            SinkGuard guard = new SinkGuard(sink);
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, chunks.size()));
+            try {
+                List<Future<ImportResult>> futures = new ArrayList<>();
+                for (long[] chunk : chunks) {
+                    futures.add(executor.submit(() -> new ChunkParser(data, columns, guard)
+                            .parse(chunk[0], chunk[1])));
+                }
+                long dealCount = 0;
+                long lineItemCount = 0;
+                long rejectedRowCount = 0;
+                for (Future<ImportResult> future : futures) {
+                    ImportResult partial = future.get();
+                    dealCount += partial.getDealCount();
+                    lineItemCount += partial.getLineItemCount();
+                    rejectedRowCount += partial.getRejectedRowCount();
+                }
+                LOGGER.info("Imported " + dealCount + " deals with " + lineItemCount + " line items from "
+                        + chunks.size() + " chunks; " + rejectedRowCount + " rows rejected");
+                return new ImportResult(dealCount, lineItemCount, rejectedRowCount);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Import interrupted: " + file, e);
+            } catch (ExecutionException e) {
+                // Other chunks stop once the sink fails, so report the sink's own exception
+                RuntimeException sinkFailure = guard.failure();
+                throw new RuntimeException("Error importing deals: " + file,
+                        sinkFailure != null ? sinkFailure : e.getCause());
+            } finally {
+                // Parsers must stop before the mapping is released
+                executor.shutdownNow();
+                awaitTermination(executor);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading import file: " + file, e);
+        }
+    }
+
+    private void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Maps each recognised column to its position in the file, or -1 if the file lacks it.
+     */
+    private int[] readHeader(MemorySegment data, long lineEnd) {
+        String header = new String(data.asSlice(0, lineEnd).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+        String[] names = header.strip().split(",");
+        int[] columns = new int[COLUMN_NAMES.length];
+        Arrays.fill(columns, -1);
+        for (int position = 0; position < names.length; position++) {
+            String name = names[position].strip().replace("\"", "").toLowerCase();
+            for (int column = 0; column < COLUMN_NAMES.length; column++) {
+                if (COLUMN_NAMES[column].equals(name)) {
+                    columns[column] = position;
+                }
+            }
+        }
+        if (columns[DEAL_ID] < 0) {
+            throw new IllegalArgumentException("Import file has no deal_id column");
+        }
+        return columns;
+    }
+
+    /**
+     * Splits the body of the file into chunks of roughly equal size that each start at the
+     * first row of a deal.
+     */
+    private List<long[]> split(MemorySegment data, long bodyStart, long size, int[] columns) {
+        long target = Math.max(minChunkBytes, (size - bodyStart) / (parallelism * 4L) + 1);
+        Tokenizer tokenizer = new Tokenizer(data, columns);
+        List<long[]> chunks = new ArrayList<>();
+        long start = bodyStart;
+        while (start < size) {
+            long end = start + target >= size ? size : nextLine(data, start + target, size);
+            // Move the boundary past every row that belongs to the deal on the line before it
+            while (end < size && tokenizer.sameDeal(previousLine(data, end), end, size)) {
+                end = nextLine(data, end, size);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Gets the offset just after the next line break at or after an offset.
+     */
+    private static long nextLine(MemorySegment data, long from, long size) {
+        for (long position = from; position < size; position++) {
+            if (data.get(ValueLayout.JAVA_BYTE, position) == '\n') {
+                return position + 1;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the start of the line before the line that starts at an offset.
+     */
+    private static long previousLine(MemorySegment data, long lineStart) {
+        long position = lineStart - 1;
+        while (position > 0 && data.get(ValueLayout.JAVA_BYTE, position - 1) != '\n') {
+            position--;
+        }
+        return position;
+    }
+
+    private static byte[][] namesOf(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = values[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+
+    /**
+     * Splits lines into fields, recording each field as a range of offsets into the file.
+     */
+    private static class Tokenizer {
+        final MemorySegment data;
+        private final int[] columns;
+        private final long[] fieldStarts;
+        private final long[] fieldEnds;
+        private final boolean[] quoted;
+        private int fieldCount;
+
+        Tokenizer(MemorySegment data, int[] columns) {
+            this.data = data;
+            this.columns = columns;
+            int width = Arrays.stream(columns).max().orElse(0) + 1;
+            this.fieldStarts = new long[width];
+            this.fieldEnds = new long[width];
+            this.quoted = new boolean[width];
+        }
+
+        /**
+         * Tokenizes the line that starts at an offset.
+         *
+         * @return The offset of the next line
+         */
+        long tokenize(long lineStart, long limit) {
+            fieldCount = 0;
+            long position = lineStart;
+            while (true) {
+                boolean isQuoted = position < limit && byteAt(position) == '"';
+                long start = isQuoted ? position + 1 : position;
+                long end = start;
+                position = start;
+                if (isQuoted) {
+                    while (position < limit) {
+                        if (byteAt(position) == '"') {
+                            if (position + 1 < limit && byteAt(position + 1) == '"') {
+                                position += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        position++;
+                    }
+                    end = position;
+                }
+                // Anything between a closing quote and the next separator is ignored
+                while (position < limit && !isSeparator(byteAt(position))) {
+                    position++;
+                }
+                if (!isQuoted) {
+                    end = position;
+                }
+                if (fieldCount < fieldStarts.length) {
+                    fieldStarts[fieldCount] = start;
+                    fieldEnds[fieldCount] = end;
+                    quoted[fieldCount] = isQuoted;
+                }
+                fieldCount++;
+                if (position >= limit || byteAt(position) != ',') {
+                    break;
+                }
+                position++;
+            }
+            return nextLine(data, position, limit);
+        }
+
+        /**
+         * Checks whether two lines have the same deal ID, without copying either.
+         */
+        boolean sameDeal(long firstLine, long secondLine, long limit) {
+            tokenize(firstLine, limit);
+            long firstStart = start(DEAL_ID);
+            long firstLength = length(DEAL_ID);
+            tokenize(secondLine, limit);
+            long secondLength = length(DEAL_ID);
+            return firstLength > 0 && firstLength == secondLength
+                    && bytesEqual(firstStart, start(DEAL_ID), firstLength);
+        }
+
+        boolean isBlank() {
+            return fieldCount <= 1 && length(DEAL_ID) <= 0;
+        }
+
+        long start(int column) {
+            int position = columns[column];
+            return position >= 0 && position < fieldCount ? fieldStarts[position] : 0;
+        }
+
+        /**
+         * Gets the length of a field, or -1 if the column is missing from the file or the line.
+         */
+        long length(int column) {
+            int position = columns[column];
+            return position >= 0 && position < fieldCount ? fieldEnds[position] - fieldStarts[position] : -1;
+        }
+
+        String string(int column) {
+            long length = length(column);
+            if (length <= 0) {
+                return null;
+            }
+            byte[] bytes = data.asSlice(start(column), length).toArray(ValueLayout.JAVA_BYTE);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            return quoted[columns[column]] ? value.replace("\"\"", "\"") : value;
+        }
+
+        /**
+         * Decodes a decimal such as -1234.56 straight from the bytes.
+         */
+        BigDecimal decimal(int column) {
+            long length = length(column);
+            if (length <= 0) {
+                return null;
+            }
+            if (length > MAX_FAST_DECIMAL_LENGTH) {
+                return new BigDecimal(string(column).strip());
+            }
+            long position = start(column);
+            long end = position + length;
+            boolean negative = false;
+            byte first = byteAt(position);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                position++;
+            }
+            long unscaled = 0;
+            int scale = -1;
+            int digits = 0;
+            for (; position < end; position++) {
+                byte b = byteAt(position);
+                if (b == '.' && scale < 0) {
+                    scale = 0;
+                } else if (b >= '0' && b <= '9') {
+                    unscaled = unscaled * 10 + (b - '0');
+                    digits++;
+                    if (scale >= 0) {
+                        scale++;
+                    }
+                } else {
+                    throw new NumberFormatException("Invalid number: " + string(column));
+                }
+            }
+            if (digits == 0) {
+                throw new NumberFormatException("Invalid number: " + string(column));
+            }
+            return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+        }
+
+        int integer(int column, int defaultValue) {
+            long length = length(column);
+            if (length <= 0) {
+                return defaultValue;
+            }
+            BigDecimal value = decimal(column);
+            return value.intValueExact();
+        }
+
+        /**
+         * Decodes a yyyy-MM-dd date straight from the bytes.
+         */
+        LocalDate date(int column) {
+            long length = length(column);
+            if (length <= 0) {
+                return null;
+            }
+            long position = start(column);
+            if (length != 10 || byteAt(position + 4) != '-'
+                    || byteAt(position + 7) != '-') {
+                return LocalDate.parse(string(column));
+            }
+            return LocalDate.of(digits(position, 4), digits(position + 5, 2), digits(position + 8, 2));
+        }
+
+        /**
+         * Matches a field against enum constant names, ignoring case.
+         *
+         * @return The index of the matching name, or -1 if the field is empty
+         */
+        int match(int column, byte[][] names) {
+            long length = length(column);
+            if (length <= 0) {
+                return -1;
+            }
+            long position = start(column);
+            for (int index = 0; index < names.length; index++) {
+                byte[] name = names[index];
+                if (name.length != length) {
+                    continue;
+                }
+                int i = 0;
+                while (i < name.length) {
+                    byte b = byteAt(position + i);
+                    if (b >= 'a' && b <= 'z') {
+                        b -= 'a' - 'A';
+                    }
+                    if (b != name[i]) {
+                        break;
+                    }
+                    i++;
+                }
+                if (i == name.length) {
+                    return index;
+                }
+            }
+            throw new IllegalArgumentException("Unknown value: " + string(column));
+        }
+
+        /**
+         * Compares two ranges of the file byte by byte.
+         */
+        boolean bytesEqual(long first, long second, long length) {
+            for (long i = 0; i < length; i++) {
+                if (byteAt(first + i) != byteAt(second + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private byte byteAt(long position) {
+            return data.get(ValueLayout.JAVA_BYTE, position);
+        }
+
+        private boolean isSeparator(byte b) {
+            return b == ',' || b == '\n' || b == '\r';
+        }
+
+        private int digits(long position, int count) {
+            int value = 0;
+            for (int i = 0; i < count; i++) {
+                byte b = byteAt(position + i);
+                if (b < '0' || b > '9') {
+                    throw new NumberFormatException("Invalid date digit at offset " + (position + i));
+                }
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Parses one chunk of the file into deals and passes them to the sink in batches.
+     */
+    private class ChunkParser extends Tokenizer {
+        private final SinkGuard sink;
+        private List<Deal> batch = new ArrayList<>();
+        private Deal deal;
+        private List<DealProduct> products;
+        private long dealIdStart;
+        private long dealIdLength;
+        private long dealCount;
+        private long lineItemCount;
+        private long rejectedRowCount;
+
+        ChunkParser(MemorySegment data, int[] columns, SinkGuard sink) {
+            super(data, columns);
+            this.sink = sink;
+        }
+
+        ImportResult parse(long start, long end) {
+            long lineStart = start;
+            while (lineStart < end) {
+                long next = tokenize(lineStart, end);
+                if (!isBlank()) {
+                    try {
+                        parseRow();
+                    } catch (RuntimeException e) {
+                        rejectedRowCount++;
+                        LOGGER.warning("Skipping row at offset " + lineStart + ": " + e.getMessage());
+                    }
+                    // Outside the row's error handling, so a failing sink stops the import
+                    if (batch.size() >= batchSize) {
+                        flush();
+                    }
+                }
+                lineStart = next;
+            }
+            finishDeal();
+            flush();
+            return new ImportResult(dealCount, lineItemCount, rejectedRowCount);
+        }
+
+        private void parseRow() {
+            long idStart = start(DEAL_ID);
+            long idLength = length(DEAL_ID);
+            if (idLength <= 0) {
+                throw new IllegalArgumentException("Missing deal_id");
+            }
+            boolean sameDeal = deal != null && idLength == dealIdLength
+                    && bytesEqual(idStart, dealIdStart, idLength);
+            if (!sameDeal) {
+                Deal started = startDeal();
+                finishDeal();
+                deal = started;
+                products = new ArrayList<>();
+                dealIdStart = idStart;
+                dealIdLength = idLength;
+            }
+            if (length(PRODUCT_ID) > 0) {
+                DealProduct product = new DealProduct(string(PRODUCT_ID), string(PRODUCT_NAME),
+                        integer(QUANTITY, 1), decimal(PRICE));
+                if (product.getPrice() == null) {
+                    throw new IllegalArgumentException("Missing price for product " + product.getProductId());
+                }
+                BigDecimal discount = decimal(DISCOUNT);
+                if (discount != null) {
+                    product.setDiscount(discount);
+                }
+                product.setDealId(deal.getId());
+                products.add(product);
+                lineItemCount++;
+            }
+        }
+
+        /**
+         * Builds a deal from the deal columns of the current row.
+         */
+        private Deal startDeal() {
+            Deal started = new Deal(string(TITLE), decimal(VALUE), string(SALES_REP_ID));
+            started.setId(string(DEAL_ID));
+            int status = match(STATUS, STATUS_NAMES);
+            if (status >= 0) {
+                started.setStatus(STATUSES[status]);
+            }
+            int stage = match(STAGE, STAGE_NAMES);
+            if (stage >= 0) {
+                started.setStage(STAGES[stage]);
+            }
+            started.setCloseDate(date(CLOSE_DATE));
+            return started;
+        }
+
+        private void finishDeal() {
+            if (deal == null) {
+                return;
+            }
+            deal.setProducts(products);
+            batch.add(deal);
+            dealCount++;
+            deal = null;
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            sink.accept(batch);
+            batch = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Passes batches to the sink one at a time, and refuses further batches once the sink has failed.
+     */
+    private static class SinkGuard {
+        private final Consumer<List<Deal>> sink;
+        private RuntimeException failure;
+
+        SinkGuard(Consumer<List<Deal>> sink) {
+            this.sink = sink;
+        }
+
+        synchronized void accept(List<Deal> batch) {
+            if (failure != null) {
+                throw new IllegalStateException("Import stopped after the sink failed", failure);
+            }
+            try {
+                sink.accept(batch);
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        synchronized RuntimeException failure() {
+            return failure;
+        }
+    }
+
+    /**
+     * The counts of one import.
+     */
+    public static class ImportResult {
+        private final long dealCount;
+        private final long lineItemCount;
+        private final long rejectedRowCount;
+
+        ImportResult(long dealCount, long lineItemCount, long rejectedRowCount) {
+            this.dealCount = dealCount;
+            this.lineItemCount = lineItemCount;
+            this.rejectedRowCount = rejectedRowCount;
+        }
+
+        public long getDealCount() {
+            return dealCount;
+        }
+
+        public long getLineItemCount() {
+            return lineItemCount;
+        }
+
+        /**
+         * Gets the number of rows that could not be parsed and were skipped.
+         */
+        public long getRejectedRowCount() {
+            return rejectedRowCount;
+        }
+    }
+}
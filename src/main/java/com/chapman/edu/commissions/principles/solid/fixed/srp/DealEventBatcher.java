@@ -0,0 +1,277 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.Deal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class buffers deal-closed events and hands them on in batches.
+ * It is responsible only for batching, following the Single Responsibility Principle.
+ *
+ * A batch is flushed as soon as it reaches the maximum batch size, or when its oldest event has
+ * waited for the maximum latency, whichever comes first. Batches are delivered one at a time,
+ * in order, on a single background thread, typically to CommissionProcessor.processCommissions.
+ */
+public class DealEventBatcher implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(DealEventBatcher.class.getName());
+
+    private final Consumer<List<String>> batchConsumer;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final Object lock = new Object();
+    private List<String> buffer;
+    private long bufferStartedAt;
+    private long bufferGeneration;
+    private ScheduledFuture<?> bufferTimer;
+    private boolean closed;
+
+    private final AtomicLong eventsReceived = new AtomicLong();
+    private final AtomicLong eventsFlushed = new AtomicLong();
+    private final AtomicLong batchesFlushed = new AtomicLong();
+    private final AtomicLong flushesBySize = new AtomicLong();
+    private final AtomicLong flushesByTime = new AtomicLong();
+    private final AtomicLong totalFlushLatencyNanos = new AtomicLong();
+    private final AtomicLong maxFlushLatencyNanos = new AtomicLong();
+
+    /**
+     * Constructor with the batch consumer and flush settings.
+     *
+     * @param batchConsumer Receives each batch of deal IDs
+     * @param maxBatchSize The number of events that triggers an immediate flush
+     * @param maxLatency The longest an event may wait before its batch is flushed
+     */
+    public DealEventBatcher(Consumer<List<String>> batchConsumer, int maxBatchSize, Duration maxLatency) {
+        if (batchConsumer == null) {
+            throw new IllegalArgumentException("Batch consumer must not be null");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Maximum batch size must be positive: " + maxBatchSize);
+        }
+        if (maxLatency == null || maxLatency.isNegative() || maxLatency.isZero()) {
+            throw new IllegalArgumentException("Maximum latency must be positive: " + maxLatency);
+        }
+        this.batchConsumer = batchConsumer;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.buffer = new ArrayList<>(maxBatchSize);
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "deal-event-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Pending time-window timers are not needed once the batcher is closed and flushed
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Constructor that feeds batches to a commission processor's bulk path.
+     */
+    public DealEventBatcher(CommissionProcessor processor, String planId, int maxBatchSize, Duration maxLatency) {
+        this(dealIds -> processor.processCommissions(dealIds, planId), maxBatchSize, maxLatency);
+    }
+
+    /**
+     * Buffers a deal-closed event.
+     */
+    public void submit(Deal deal) {
+        submit(deal.getId());
+    }
+
+    /**
+     * Buffers a deal-closed event by deal ID.
+     */
+    public void submit(String dealId) {
+        List<String> fullBatch = null;
+        long startedAt = 0;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Batcher is closed");
+            }
+            if (buffer.isEmpty()) {
+                // First event of a new batch starts its time window
+                long generation = bufferGeneration;
+                bufferStartedAt = System.nanoTime();
+                bufferTimer = scheduler.schedule(() -> flushOnTimer(generation), maxLatencyNanos, TimeUnit.NANOSECONDS);
+            }
+            buffer.add(dealId);
+            eventsReceived.incrementAndGet();
+            if (buffer.size() >= maxBatchSize) {
+                startedAt = bufferStartedAt;
+                fullBatch = drainBuffer();
+            }
+        }
+        if (fullBatch != null) {
+            flushesBySize.incrementAndGet();
+            deliver(fullBatch, startedAt);
+        }
+    }
+
+    /**
+     * Flushes the current batch immediately, regardless of its size or age.
+     */
+    public void flush() {
+        List<String> batch;
+        long startedAt;
+        synchronized (lock) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            startedAt = bufferStartedAt;
+            batch = drainBuffer();
+        }
+        deliver(batch, startedAt);
+    }
+
+    /**
+     * Flushes any buffered events and waits for all batches to be delivered.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flush();
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                LOGGER.warning("Timed out waiting for deal event batches to be delivered");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatencyNanos);
+    }
+
+    /**
+     * Gets the number of events currently waiting to be flushed.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return buffer.size();
+        }
+    }
+
+    public long getEventsReceived() {
+        return eventsReceived.get();
+    }
+
+    public long getEventsFlushed() {
+        return eventsFlushed.get();
+    }
+
+    /**
+     * Gets the number of batches flushed because they reached the maximum size.
+     */
+    public long getFlushesBySize() {
+        return flushesBySize.get();
+    }
+
+    /**
+     * Gets the number of batches flushed because their time window expired.
+     */
+    public long getFlushesByTime() {
+        return flushesByTime.get();
+    }
+
+    /**
+     * Gets the number of batches delivered, including explicit flushes.
+     */
+    public long getBatchesFlushed() {
+        return batchesFlushed.get();
+    }
+
+    /**
+     * Gets the average number of events per delivered batch.
+     */
+    public double getAverageBatchSize() {
+        long batches = batchesFlushed.get();
+        return batches == 0 ? 0 : (double) eventsFlushed.get() / batches;
+    }
+
+    /**
+     * Gets the average time from a batch's first event to its delivery.
+     */
+    public Duration getAverageFlushLatency() {
+        long batches = batchesFlushed.get();
+        return batches == 0 ? Duration.ZERO : Duration.ofNanos(totalFlushLatencyNanos.get() / batches);
+    }
+
+    /**
+     * Gets the longest time from a batch's first event to its delivery.
+     */
+    public Duration getMaxFlushLatency() {
+        return Duration.ofNanos(maxFlushLatencyNanos.get());
+    }
+
+    private void flushOnTimer(long generation) {
+        List<String> batch;
+        long startedAt;
+        synchronized (lock) {
+            // The batch this timer was started for may already have been flushed by size
+            if (generation != bufferGeneration || buffer.isEmpty()) {
+                return;
+            }
+            startedAt = bufferStartedAt;
+            batch = drainBuffer();
+        }
+        flushesByTime.incrementAndGet();
+        consume(batch, startedAt);
+    }
+
+    private List<String> drainBuffer() {
+        List<String> batch = buffer;
+        buffer = new ArrayList<>(maxBatchSize);
+        bufferGeneration++;
+        if (bufferTimer != null) {
+            bufferTimer.cancel(false);
+            bufferTimer = null;
+        }
+        return batch;
+    }
+
+    /**
+     * Hands a batch to the scheduler thread so batches are consumed one at a time, in order.
+     */
+    private void deliver(List<String> batch, long startedAt) {
+        if (scheduler.isShutdown()) {
+            consume(batch, startedAt);
+        } else {
+            scheduler.execute(() -> consume(batch, startedAt));
+        }
+    }
+
+    private void consume(List<String> batch, long startedAt) {
+        long latency = System.nanoTime() - startedAt;
+        totalFlushLatencyNanos.addAndGet(latency);
+        maxFlushLatencyNanos.accumulateAndGet(latency, Math::max);
+        eventsFlushed.addAndGet(batch.size());
+        batchesFlushed.incrementAndGet();
+        try {
+            batchConsumer.accept(batch);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error processing batch of " + batch.size() + " deal events", e);
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.DealStage;
+import com.chapman.edu.commissions.model.DealStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * This class records every change to a deal in an append-only file.
+ * It is responsible only for the mutation log, following the Single Responsibility Principle.
+ *
+ * Each create, update or delete is appended as one record with the next offset, starting at 0,
+ * so offsets increase by one per mutation and never change. Creates and updates carry a
+ * snapshot of the deal and its products; deletes carry only the deal ID. Each record starts
+ * with its length and a CRC32 of its contents. When the file is opened, records are checked.
+ * A damaged record at the end of the file is what a crash during an append leaves behind, so
+ * it is cut off; a damaged record followed by more data means the file itself is corrupt, and
+ * opening fails rather than dropping the records after it. Deal versions are not recorded,
+ * since they only order changes within one run of the application; the offset orders records.
+ *
+ * Appends write straight to the file, so readers see them at once; sync forces them to disk.
+ * Consumers read batches from any offset, or keep a Cursor that remembers where they stopped.
+ * A sparse index of every 256th offset lets a read start near its offset instead of at the
+ * beginning of the file. Retention and compaction are left to the caller.
+ */
+public class DealMutationJournal implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(DealMutationJournal.class.getName());
+
+    /**
+     * The kinds of change recorded in the journal.
+     */
+    public enum MutationType {
+        CREATE("Create"),
+        UPDATE("Update"),
+        DELETE("Delete");
+
+        private final String displayName;
+
+        MutationType(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    // Length, CRC, offset, type and timestamp
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES + 1 + Long.BYTES;
+    private static final int INDEX_INTERVAL = 256;
+    private static final MutationType[] TYPES = MutationType.values();
+    private static final DealStatus[] STATUSES = DealStatus.values();
+    private static final DealStage[] STAGES = DealStage.values();
+
+    private final Path file;
+    private final FileChannel channel;
+    private long[] indexPositions = new long[64];
+    private volatile long nextOffset;
+    private volatile long endPosition;
+
+    /**
+     * Constructor that opens a journal file, creating it if it does not exist.
+     *
+     * @param file The journal file
+     * @throws IllegalStateException if a record before the end of the file is damaged
+     */
+    public DealMutationJournal(Path file) {
+        this.file = file;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                recover();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening journal: " + file, e);
+        }
+    }
+
+    /**
+     * Records that a deal was created.
+     *
+     * @return The offset of the record
+     */
+    public long recordCreate(Deal deal) {
+        return append(MutationType.CREATE, deal.getId(), deal);
+    }
+
+    /**
+     * Records that a deal was updated.
+     *
+     * @return The offset of the record
+     */
+    public long recordUpdate(Deal deal) {
+        return append(MutationType.UPDATE, deal.getId(), deal);
+    }
+
+    /**
+     * Records that a deal was deleted.
+     *
+     * @return The offset of the record
+     */
+    public long recordDelete(String dealId) {
+        return append(MutationType.DELETE, dealId, null);
+    }
+
+    /**
+     * Gets the offset the next record will be given, which is also the number of records.
+     */
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Reads a batch of records.
+     *
+     * @param fromOffset The offset of the first record to read
+     * @param maxRecords The largest number of records to return
+     * @return The records in offset order; empty if there are none at or after the offset yet
+     */
+    public List<Mutation> read(long fromOffset, int maxRecords) {
+        if (fromOffset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative: " + fromOffset);
+        }
+        if (maxRecords <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + maxRecords);
+        }
+        long limit = endPosition;
+        if (fromOffset >= nextOffset) {
+            return Collections.emptyList();
+        }
+        List<Mutation> mutations = new ArrayList<>(Math.min(maxRecords, 1024));
+        try {
+            long position = positionBefore(fromOffset);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (position < limit && mutations.size() < maxRecords) {
+                readFully(header.clear(), position);
+                header.flip();
+                int length = header.getInt();
+                header.getInt();
+                long offset = header.getLong();
+                if (offset >= fromOffset) {
+                    MutationType type = TYPES[header.get()];
+                    Instant timestamp = Instant.ofEpochMilli(header.getLong());
+                    ByteBuffer payload = ByteBuffer.allocate(length);
+                    readFully(payload, position + HEADER_SIZE);
+                    mutations.add(decode(offset, type, timestamp, payload.array()));
+                }
+                position += HEADER_SIZE + length;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading journal: " + file, e);
+        }
+        return mutations;
+    }
+
+    /**
+     * Opens a cursor that reads the journal from an offset onwards.
+     *
+     * @param fromOffset The offset of the first record the cursor returns
+     */
+    public Cursor tail(long fromOffset) {
+        return new Cursor(fromOffset);
+    }
+
+    /**
+     * Forces every appended record to disk.
+     */
+    public void sync() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Error syncing journal: " + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error closing journal: " + file, e);
+        }
+    }
+
+    private synchronized long append(MutationType type, String dealId, Deal deal) {
+        if (dealId == null) {
+            throw new IllegalArgumentException("Journalled deals must have an ID");
+        }
+        byte[] payload = encode(dealId, deal);
+        long offset = nextOffset;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        record.putInt(payload.length);
+        record.putInt(0);
+        record.putLong(offset);
+        record.put((byte) type.ordinal());
+        record.putLong(System.currentTimeMillis());
+        record.put(payload);
+        record.putInt(Integer.BYTES, checksum(record.array()));
+        record.flip();
+        long position = endPosition;
+        try {
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error appending to journal: " + file, e);
+        }
+        index(offset, endPosition);
+        // The record is fully written before readers can see it
+        endPosition = position;
+        nextOffset = offset + 1;
+        return offset;
+    }
+
+    /**
+     * Checks every record in the file, rebuilds the index and cuts off an incomplete last record.
+     */
+    private void recover() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            readFully(header.clear(), position);
+            int length = header.getInt(0);
+            long recordEnd = position + HEADER_SIZE + length;
+            boolean valid = length >= 0 && recordEnd <= size && header.getLong(Integer.BYTES * 2) == offset;
+            if (valid) {
+                ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + length);
+                readFully(record, position);
+                valid = record.getInt(Integer.BYTES) == checksum(record.array());
+            }
+            if (!valid) {
+                // A torn append reaches the end of the file; anything else is damage in the middle
+                boolean lastRecord = recordEnd >= size || isZeroFilled(position, size);
+                if (!lastRecord) {
+                    throw new IllegalStateException("Journal " + file + " is corrupt at offset " + offset
+                            + " (byte " + position + " of " + size + "); later records would be lost if it were cut off");
+                }
+                break;
+            }
+            index(offset, position);
+            position = recordEnd;
+            offset++;
+        }
+        if (position < size) {
+            LOGGER.warning("Truncating an incomplete last record of " + (size - position) + " bytes from " + file);
+            channel.truncate(position);
+        }
+        endPosition = position;
+        nextOffset = offset;
+        LOGGER.info("Opened journal " + file + " with " + offset + " records");
+    }
+
+    /**
+     * Checks whether the file holds only zero bytes from a position to its end, as a file system
+     * may leave after a crash that extended the file before the record was written.
+     */
+    private boolean isZeroFilled(long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        for (long position = from; position < size; position += buffer.limit()) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), size - position));
+            readFully(buffer, position);
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private synchronized void index(long offset, long position) {
+        if (offset % INDEX_INTERVAL != 0) {
+            return;
+        }
+        int slot = (int) (offset / INDEX_INTERVAL);
+        if (slot == indexPositions.length) {
+            indexPositions = Arrays.copyOf(indexPositions, slot * 2);
+        }
+        indexPositions[slot] = position;
+    }
+
+    private synchronized long positionBefore(long offset) {
+        return indexPositions[(int) (offset / INDEX_INTERVAL)];
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of journal at " + position);
+            }
+        }
+    }
+
+    /**
+     * Computes the CRC32 of a record with its CRC field treated as zero.
+     */
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, Integer.BYTES);
+        crc.update(record, Integer.BYTES * 2, record.length - Integer.BYTES * 2);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(String dealId, Deal deal) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(dealId);
+            out.writeBoolean(deal != null);
+            if (deal != null) {
+                writeString(out, deal.getTitle());
+                writeString(out, deal.getSalesRepId());
+                out.writeByte(deal.getStatus() != null ? deal.getStatus().ordinal() : -1);
+                out.writeByte(deal.getStage() != null ? deal.getStage().ordinal() : -1);
+                writeDecimal(out, deal.getValue());
+                out.writeLong(deal.getCloseDate() != null ? deal.getCloseDate().toEpochDay() : Long.MIN_VALUE);
+                List<DealProduct> products = deal.getProducts() != null ? deal.getProducts() : List.of();
+                out.writeInt(products.size());
+                for (DealProduct product : products) {
+                    writeString(out, product.getId());
+                    writeString(out, product.getProductId());
+                    writeString(out, product.getProductName());
+                    out.writeInt(product.getQuantity());
+                    writeDecimal(out, product.getPrice());
+                    writeDecimal(out, product.getDiscount());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error encoding deal " + dealId, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Mutation decode(long offset, MutationType type, Instant timestamp, byte[] payload)
+            throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String dealId = in.readUTF();
+            if (!in.readBoolean()) {
+                return new Mutation(offset, type, timestamp, dealId, null);
+            }
+            Deal deal = new Deal();
+            deal.setId(dealId);
+            deal.setTitle(readString(in));
+            deal.setSalesRepId(readString(in));
+            byte status = in.readByte();
+            deal.setStatus(status >= 0 ? STATUSES[status] : null);
+            byte stage = in.readByte();
+            deal.setStage(stage >= 0 ? STAGES[stage] : null);
+            deal.setValue(readDecimal(in));
+            long closeDay = in.readLong();
+            deal.setCloseDate(closeDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(closeDay) : null);
+            int productCount = in.readInt();
+            List<DealProduct> products = new ArrayList<>(productCount);
+            for (int i = 0; i < productCount; i++) {
+                DealProduct product = new DealProduct();
+                product.setId(readString(in));
+                product.setProductId(readString(in));
+                product.setProductName(readString(in));
+                product.setQuantity(in.readInt());
+                product.setPrice(readDecimal(in));
+                product.setDiscount(readDecimal(in));
+                product.setDealId(dealId);
+                products.add(product);
+            }
+            deal.setProducts(products);
+            return new Mutation(offset, type, timestamp, dealId, deal);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        writeString(out, value != null ? value.toString() : null);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        String value = readString(in);
+        return value != null ? new BigDecimal(value) : null;
+    }
+
+    /**
+     * A position in the journal that a consumer reads forward from.
+     */
+    public class Cursor {
+        private long position;
+
+        Cursor(long fromOffset) {
+            this.position = fromOffset;
+        }
+
+        /**
+         * Reads the next batch of records and moves past them.
+         *
+         * @param maxRecords The largest number of records to return
+         * @return The records; empty if the consumer has caught up
+         */
+        public List<Mutation> poll(int maxRecords) {
+            List<Mutation> mutations = read(position, maxRecords);
+            if (!mutations.isEmpty()) {
+                position = mutations.get(mutations.size() - 1).getOffset() + 1;
+            }
+            return mutations;
+        }
+
+        /**
+         * Gets the offset of the next record this cursor will return, for the consumer to save.
+         */
+        public long getPosition() {
+            return position;
+        }
+    }
+
+    /**
+     * One recorded change to a deal.
+     */
+    public static class Mutation {
+        private final long offset;
+        private final MutationType type;
+        private final Instant timestamp;
+        private final String dealId;
+        private final Deal deal;
+
+        Mutation(long offset, MutationType type, Instant timestamp, String dealId, Deal deal) {
+            this.offset = offset;
+            this.type = type;
+            this.timestamp = timestamp;
+            this.dealId = dealId;
+            this.deal = deal;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public MutationType getType() {
+            return type;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public String getDealId() {
+            return dealId;
+        }
+
+        /**
+         * Gets a copy of the deal as it was when the change was recorded, or null for a delete.
+         */
+        public Deal getDeal() {
+            return deal;
+        }
+    }
+}
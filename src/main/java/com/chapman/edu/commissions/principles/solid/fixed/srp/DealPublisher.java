@@ -0,0 +1,122 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.Deal;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class publishes deals from a source to a single subscriber.
+ * It is responsible only for emitting deals on demand, following the Single Responsibility Principle.
+ *
+ * Deals are pulled from the source only when the subscriber has requested them, so a slow
+ * pipeline never causes deals to be read ahead and buffered. Emission runs on the given executor.
+ */
+public class DealPublisher implements Flow.Publisher<Deal> {
+
+    private final Iterable<Deal> source;
+    private final Executor executor;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Constructor that emits on the common fork-join pool.
+     */
+    public DealPublisher(Iterable<Deal> source) {
+        this(source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor with the executor that emits deals.
+     */
+    public DealPublisher(Iterable<Deal> source, Executor executor) {
+        this.source = source;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Deal> subscriber) {
+        DealSubscription subscription = new DealSubscription(subscriber);
+        if (!subscribed.compareAndSet(false, true)) {
+            subscription.cancel();
+            subscriber.onSubscribe(subscription);
+            subscriber.onError(new IllegalStateException("DealPublisher supports one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(subscription);
+    }
+
+    private class DealSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Deal> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private Iterator<Deal> iterator;
+
+        DealSubscription(Flow.Subscriber<? super Deal> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (cancelled) {
+                return;
+            }
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("Demand must be positive: " + n));
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Emits deals while there is outstanding demand. Only one drain runs at a time,
+         * so the subscriber's signals are never concurrent.
+         */
+        private void drain() {
+            try {
+                if (iterator == null) {
+                    iterator = source.iterator();
+                }
+                while (!cancelled && demand.get() > 0) {
+                    if (!iterator.hasNext()) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(iterator.next());
+                }
+                if (!cancelled && !iterator.hasNext()) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                }
+            } catch (RuntimeException e) {
+                cancelled = true;
+                subscriber.onError(e);
+            } finally {
+                draining.set(false);
+            }
+            // Demand may have arrived after the loop checked it but before draining was released
+            if (!cancelled && demand.get() > 0) {
+                scheduleDrain();
+            }
+        }
+    }
+}
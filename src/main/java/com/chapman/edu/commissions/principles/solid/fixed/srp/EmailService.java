@@ -3,6 +3,8 @@ package com.chapman.edu.commissions.principles.solid.fixed.srp;
 import com.chapman.edu.commissions.model.CommissionCalculation;
 import com.chapman.edu.commissions.model.User;
 
+import java.util.List;
+
 /**
  * This interface defines email notification operations.
  * It follows the Single Responsibility Principle by focusing only on email notifications.
@@ -17,6 +19,14 @@ public interface EmailService {
      */
     void sendCommissionNotification(User salesRep, CommissionCalculation calculation);
 
+    /**
+     * Sends a single email notification about several commission calculations to a sales rep.
+     * 
+     * @param salesRep The sales rep to notify
+     * @param calculations The commission calculations to include
+     */
+    void sendCommissionSummary(User salesRep, List<CommissionCalculation> calculations);
+
     /**
      * Sends a report via email.
      * 
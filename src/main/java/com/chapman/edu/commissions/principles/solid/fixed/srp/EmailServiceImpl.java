@@ -3,6 +3,8 @@ package com.chapman.edu.commissions.principles.solid.fixed.srp;
 import com.chapman.edu.commissions.model.CommissionCalculation;
 import com.chapman.edu.commissions.model.User;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -33,6 +35,28 @@ public class EmailServiceImpl implements EmailService {
         sendEmail(salesRep.getEmail(), emailSubject, emailBody);
     }
     
+    @Override
+    public void sendCommissionSummary(User salesRep, List<CommissionCalculation> calculations) {
+        if (calculations.size() == 1) {
+            sendCommissionNotification(salesRep, calculations.get(0));
+            return;
+        }
+        
+        StringBuilder emailBody = new StringBuilder();
+        emailBody.append("Dear ").append(salesRep.getFullName()).append(",\n\n");
+        emailBody.append("Your commissions for ").append(calculations.size()).append(" deals have been calculated.\n");
+        BigDecimal total = BigDecimal.ZERO;
+        for (CommissionCalculation calculation : calculations) {
+            emailBody.append("Deal ").append(calculation.getDealId())
+                    .append(": $").append(calculation.getNetCommission()).append("\n");
+            total = total.add(calculation.getNetCommission());
+        }
+        emailBody.append("Total: $").append(total).append("\n\n");
+        emailBody.append("Thank you,\nCommission Department");
+        
+        sendEmail(salesRep.getEmail(), "Commissions Calculated for " + calculations.size() + " Deals", emailBody.toString());
+    }
+    
     @Override
     public void sendReportEmail(String recipientEmail, String subject, String reportContent, String attachmentPath) {
         sendEmail(recipientEmail, subject, reportContent, attachmentPath);
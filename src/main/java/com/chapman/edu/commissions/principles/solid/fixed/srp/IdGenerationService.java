@@ -0,0 +1,42 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+/**
+ * This interface defines identifier generation operations.
+ * It follows the Single Responsibility Principle by focusing only on producing unique identifiers,
+ * so callers such as the CommissionCalculator no longer derive IDs from the system clock themselves.
+ */
+public interface IdGenerationService {
+
+    /**
+     * Generates a new unique identifier.
+     * Identifiers are roughly ordered by creation time and are safe to generate from many threads.
+     *
+     * @return The identifier as a raw 64-bit value
+     */
+    long nextId();
+
+    /**
+     * Generates a new unique identifier with a readable prefix (e.g. "CALC-").
+     *
+     * @param prefix The prefix to prepend to the identifier
+     * @return The prefixed identifier
+     */
+    String nextId(String prefix);
+
+    /**
+     * Encodes an identifier into its compact binary form.
+     * The encoding preserves ordering, so it can be used directly as an index key.
+     *
+     * @param id The identifier to encode
+     * @return The encoded identifier
+     */
+    byte[] toBytes(long id);
+
+    /**
+     * Decodes an identifier from its compact binary form.
+     *
+     * @param bytes The encoded identifier
+     * @return The identifier as a raw 64-bit value
+     */
+    long fromBytes(byte[] bytes);
+}
@@ -0,0 +1,117 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class implements the IdGenerationService interface.
+ * It is responsible only for generating unique identifiers, following the Single Responsibility Principle.
+ *
+ * Identifiers use a node/sequence layout packed into a single long:
+ * 41 bits of milliseconds since a custom epoch, 10 bits of node ID and 12 bits of sequence.
+ * The last issued timestamp and sequence are kept in one AtomicLong and advanced with
+ * compare-and-set, so concurrent callers never block on a lock. When more than 4096 IDs
+ * are requested within the same millisecond, the sequence simply carries into the next
+ * millisecond instead of waiting for the clock.
+ *
+ * Two instances with the same node ID keep separate sequences and can issue the same ID in
+ * the same millisecond, so services that do not have a generator injected share the one
+ * returned by defaultInstance.
+ */
+public class IdGenerationServiceImpl implements IdGenerationService {
+
+    private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final IdGenerationServiceImpl DEFAULT_INSTANCE = new IdGenerationServiceImpl();
+
+    private final long nodeId;
+    private final AtomicLong lastState = new AtomicLong();
+
+    /**
+     * Gets the generator shared by every service in this process that uses node 0.
+     */
+    public static IdGenerationServiceImpl defaultInstance() {
+        return DEFAULT_INSTANCE;
+    }
+
+    /**
+     * Constructor for a single-node deployment. Prefer defaultInstance, so that every
+     * generator using node 0 shares one sequence.
+     */
+    public IdGenerationServiceImpl() {
+        this(0);
+    }
+
+    /**
+     * Constructor with the node ID of this instance.
+     * Each node generating IDs for the same store must use a distinct node ID.
+     */
+    public IdGenerationServiceImpl(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        long previous;
+        long next;
+        do {
+            previous = lastState.get();
+            long previousTimestamp = previous >>> SEQUENCE_BITS;
+            // Start a new sequence when the clock has moved on; otherwise (same millisecond or
+            // clock moved backwards) keep incrementing, which carries into the timestamp on overflow
+            next = now > previousTimestamp ? now << SEQUENCE_BITS : previous + 1;
+        } while (!lastState.compareAndSet(previous, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    @Override
+    public String nextId(String prefix) {
+        return prefix + nextId();
+    }
+
+    @Override
+    public byte[] toBytes(long id) {
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[i] = (byte) id;
+            id >>>= 8;
+        }
+        return bytes;
+    }
+
+    @Override
+    public long fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != Long.BYTES) {
+            throw new IllegalArgumentException("Encoded ID must be exactly " + Long.BYTES + " bytes");
+        }
+        long id = 0;
+        for (byte b : bytes) {
+            id = (id << 8) | (b & 0xFF);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the node ID encoded in an identifier.
+     */
+    public static long nodeIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    /**
+     * Gets the creation time, in epoch milliseconds, encoded in an identifier.
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+}
@@ -0,0 +1,128 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import java.util.concurrent.Flow;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is the base for pipeline stages that turn each item into exactly one result.
+ * It is responsible only for passing items and demand through a stage, following the
+ * Single Responsibility Principle; subclasses supply the transformation.
+ *
+ * The stage holds no buffer: demand from its subscriber is forwarded unchanged to its
+ * publisher, so a slow subscriber further down throttles every stage above it.
+ * Items that fail to transform are logged and skipped, and one more item is requested
+ * in their place so the downstream demand is still met.
+ */
+public abstract class MappingStage<T, R> implements Flow.Processor<T, R> {
+    private static final Logger LOGGER = Logger.getLogger(MappingStage.class.getName());
+
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super R> downstream;
+    private long pendingDemand;
+    private boolean cancelled;
+
+    /**
+     * Transforms one item.
+     *
+     * @param item The item received from upstream
+     * @return The result to pass downstream
+     */
+    protected abstract R apply(T item);
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        synchronized (this) {
+            if (downstream != null) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException(getClass().getSimpleName() + " supports one subscriber"));
+                return;
+            }
+            downstream = subscriber;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    cancel();
+                    subscriber.onError(new IllegalArgumentException("Demand must be positive: " + n));
+                    return;
+                }
+                requestUpstream(n);
+            }
+
+            @Override
+            public void cancel() {
+                Flow.Subscription subscription;
+                synchronized (MappingStage.this) {
+                    cancelled = true;
+                    subscription = upstream;
+                }
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        long demand;
+        synchronized (this) {
+            if (upstream != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            demand = pendingDemand;
+            pendingDemand = 0;
+        }
+        if (demand > 0) {
+            subscription.request(demand);
+        }
+    }
+
+    @Override
+    public void onNext(T item) {
+        R result;
+        try {
+            result = apply(item);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Skipping item in " + getClass().getSimpleName() + ": " + item, e);
+            upstream.request(1);
+            return;
+        }
+        downstream.onNext(result);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        downstream.onComplete();
+    }
+
+    private void requestUpstream(long n) {
+        Flow.Subscription subscription;
+        synchronized (this) {
+            if (upstream == null) {
+                // Demand arrived before this stage was subscribed upstream; forward it on subscription
+                pendingDemand = pendingDemand + n < 0 ? Long.MAX_VALUE : pendingDemand + n;
+                return;
+            }
+            subscription = upstream;
+        }
+        subscription.request(n);
+    }
+}
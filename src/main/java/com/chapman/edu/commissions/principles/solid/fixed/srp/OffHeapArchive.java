@@ -0,0 +1,356 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * This class keeps an append-only history of fixed-size records outside the Java heap.
+ * It is responsible only for off-heap record storage, following the Single Responsibility Principle.
+ *
+ * Records are laid out back to back in a MemorySegment after a small header that holds a magic
+ * number, the record size and the record count. A file-backed archive maps its file, so a
+ * restarted node can serve the history as soon as the file is mapped again; an in-memory archive
+ * allocates the segment instead. A record's ordinal is its position in the archive. Appending
+ * an ID that is already archived adds a new version, and lookup by ID returns the latest one.
+ * The ID index is the only part kept on the heap and is rebuilt when a file is opened.
+ *
+ * Subclasses define the record layout and how an object is written to and read from a record.
+ * Every record has an ID field and a date field, and date range scans read only the date field
+ * of each record until one matches.
+ *
+ * @param <T> The type of object archived
+ */
+public abstract class OffHeapArchive<T> implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(OffHeapArchive.class.getName());
+
+    protected static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final long HEADER_SIZE = 32;
+    private static final long MAGIC_OFFSET = 0;
+    private static final long RECORD_SIZE_OFFSET = 4;
+    private static final long RECORD_COUNT_OFFSET = 8;
+    private static final int MONEY_SCALE = 2;
+    private static final long MIN_GROWTH = 1024;
+
+    private final int magic;
+    private final long recordSize;
+    private final FileChannel channel;
+    private final Path file;
+    private final Map<String, Integer> ordinalsById = new HashMap<>();
+
+    private Arena arena;
+    private MemorySegment segment;
+    private int recordCount;
+
+    /**
+     * Constructor for an in-memory archive.
+     *
+     * @param magic The number that identifies the kind of record
+     * @param layout The layout of one record
+     * @param initialCapacity The number of records to allocate room for up front
+     */
+    protected OffHeapArchive(int magic, MemoryLayout layout, int initialCapacity) {
+        this.magic = magic;
+        this.recordSize = layout.byteSize();
+        this.channel = null;
+        this.file = null;
+        this.arena = Arena.ofShared();
+        this.segment = arena.allocate(HEADER_SIZE + recordSize * Math.max(1, initialCapacity), Long.BYTES);
+        writeHeader();
+    }
+
+    /**
+     * Constructor for an archive mapped from a file. An existing file is opened with the records
+     * it already holds; a missing or empty file is initialised.
+     *
+     * @param magic The number that identifies the kind of record
+     * @param layout The layout of one record
+     * @param file The file to map
+     */
+    protected OffHeapArchive(int magic, MemoryLayout layout, Path file) {
+        this.magic = magic;
+        this.recordSize = layout.byteSize();
+        this.file = file;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                map(HEADER_SIZE + recordSize * MIN_GROWTH);
+                writeHeader();
+            } else {
+                map(Math.max(fileSize, HEADER_SIZE));
+                readHeader();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening archive: " + file, e);
+        }
+    }
+
+    /**
+     * Gets the ID stored in a record.
+     */
+    protected abstract String readId(MemorySegment record);
+
+    /**
+     * Gets the date a record is scanned by, as an epoch day, or NO_DATE.
+     */
+    protected abstract int readDay(MemorySegment record);
+
+    /**
+     * Writes an object to a zero-filled record.
+     */
+    protected abstract void write(MemorySegment record, T item);
+
+    /**
+     * Builds an object from a record.
+     */
+    protected abstract T read(MemorySegment record);
+
+    /**
+     * Appends an object to the archive.
+     *
+     * @return The ordinal of the new record
+     */
+    public synchronized int append(T item) {
+        ensureOpen();
+        ensureCapacity(recordCount + 1);
+        int ordinal = recordCount;
+        MemorySegment record = record(ordinal);
+        record.fill((byte) 0);
+        write(record, item);
+        String id = readId(record);
+        if (id == null) {
+            throw new IllegalArgumentException("Archived records must have an ID");
+        }
+        // The record is complete before the count makes it visible
+        recordCount++;
+        segment.set(ValueLayout.JAVA_INT_UNALIGNED, RECORD_COUNT_OFFSET, recordCount);
+        ordinalsById.put(id, ordinal);
+        return ordinal;
+    }
+
+    public void appendAll(Iterable<T> items) {
+        for (T item : items) {
+            append(item);
+        }
+    }
+
+    public synchronized int size() {
+        return recordCount;
+    }
+
+    /**
+     * Reads the record at an ordinal.
+     */
+    public synchronized T get(int ordinal) {
+        ensureOpen();
+        if (ordinal < 0 || ordinal >= recordCount) {
+            throw new IllegalArgumentException("Ordinal out of range: " + ordinal);
+        }
+        return read(record(ordinal));
+    }
+
+    /**
+     * Reads the latest record with an ID, or returns null if the ID is not archived.
+     */
+    public synchronized T find(String id) {
+        Integer ordinal = ordinalsById.get(id);
+        return ordinal != null ? get(ordinal) : null;
+    }
+
+    /**
+     * Gets the ordinal of the latest record with an ID, or -1 if the ID is not archived.
+     */
+    public synchronized int ordinalOf(String id) {
+        Integer ordinal = ordinalsById.get(id);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Reads every record whose date falls in a range, in ordinal order.
+     *
+     * @param from The first date to include, or null for no lower bound
+     * @param to The last date to include, or null for no upper bound
+     */
+    public List<T> scan(LocalDate from, LocalDate to) {
+        List<T> items = new ArrayList<>();
+        forEach(from, to, items::add);
+        return items;
+    }
+
+    /**
+     * Passes every record whose date falls in a range to an action, in ordinal order. Records
+     * without a date are skipped.
+     */
+    public synchronized void forEach(LocalDate from, LocalDate to, Consumer<T> action) {
+        ensureOpen();
+        int fromDay = from != null ? Math.toIntExact(from.toEpochDay()) : Integer.MIN_VALUE;
+        int toDay = to != null ? Math.toIntExact(to.toEpochDay()) : Integer.MAX_VALUE;
+        for (int ordinal = 0; ordinal < recordCount; ordinal++) {
+            MemorySegment record = record(ordinal);
+            int day = readDay(record);
+            if (day != NO_DATE && day >= fromDay && day <= toDay) {
+                action.accept(read(record));
+            }
+        }
+    }
+
+    /**
+     * Writes the mapped records to the file. Does nothing for an in-memory archive.
+     */
+    public synchronized void flush() {
+        if (channel != null && segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Releases the off-heap memory. A file-backed archive is flushed and its file trimmed to
+     * the records it holds.
+     */
+    @Override
+    public synchronized void close() {
+        if (segment == null) {
+            return;
+        }
+        flush();
+        arena.close();
+        segment = null;
+        if (channel != null) {
+            try {
+                channel.truncate(HEADER_SIZE + recordSize * recordCount);
+                channel.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Error closing archive: " + file, e);
+            }
+        }
+    }
+
+    protected static void writeString(MemorySegment record, long offset, int length, String value) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > length) {
+            throw new IllegalArgumentException("Value longer than " + length + " bytes: " + value);
+        }
+        MemorySegment.copy(bytes, 0, record, ValueLayout.JAVA_BYTE, offset, bytes.length);
+    }
+
+    protected static String readString(MemorySegment record, long offset, int length) {
+        int end = 0;
+        while (end < length && record.get(ValueLayout.JAVA_BYTE, offset + end) != 0) {
+            end++;
+        }
+        if (end == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[end];
+        MemorySegment.copy(record, ValueLayout.JAVA_BYTE, offset, bytes, 0, end);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    protected static void writeMoney(MemorySegment record, long offset, BigDecimal amount) {
+        long cents = amount != null
+                ? amount.setScale(MONEY_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact()
+                : 0;
+        record.set(ValueLayout.JAVA_LONG_UNALIGNED, offset, cents);
+    }
+
+    protected static BigDecimal readMoney(MemorySegment record, long offset) {
+        return BigDecimal.valueOf(record.get(ValueLayout.JAVA_LONG_UNALIGNED, offset), MONEY_SCALE);
+    }
+
+    protected static void writeDate(MemorySegment record, long offset, LocalDate date) {
+        record.set(ValueLayout.JAVA_INT_UNALIGNED, offset,
+                date != null ? Math.toIntExact(date.toEpochDay()) : NO_DATE);
+    }
+
+    protected static LocalDate readDate(MemorySegment record, long offset) {
+        int day = record.get(ValueLayout.JAVA_INT_UNALIGNED, offset);
+        return day != NO_DATE ? LocalDate.ofEpochDay(day) : null;
+    }
+
+    private MemorySegment record(int ordinal) {
+        return segment.asSlice(HEADER_SIZE + recordSize * ordinal, recordSize);
+    }
+
+    private void ensureOpen() {
+        if (segment == null) {
+            throw new IllegalStateException("Archive is closed");
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        long required = HEADER_SIZE + recordSize * count;
+        if (required <= segment.byteSize()) {
+            return;
+        }
+        long capacity = (segment.byteSize() - HEADER_SIZE) / recordSize;
+        long newSize = HEADER_SIZE + recordSize * Math.max(count, Math.max(capacity * 2, MIN_GROWTH));
+        if (channel != null) {
+            segment.force();
+            Arena previous = arena;
+            try {
+                map(newSize);
+            } catch (IOException e) {
+                throw new RuntimeException("Error growing archive: " + file, e);
+            }
+            previous.close();
+        } else {
+            Arena previous = arena;
+            MemorySegment previousSegment = segment;
+            arena = Arena.ofShared();
+            segment = arena.allocate(newSize, Long.BYTES);
+            MemorySegment.copy(previousSegment, 0, segment, 0, previousSegment.byteSize());
+            previous.close();
+        }
+    }
+
+    private void map(long size) throws IOException {
+        arena = Arena.ofShared();
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+    }
+
+    private void writeHeader() {
+        segment.set(ValueLayout.JAVA_INT_UNALIGNED, MAGIC_OFFSET, magic);
+        segment.set(ValueLayout.JAVA_INT_UNALIGNED, RECORD_SIZE_OFFSET, (int) recordSize);
+        segment.set(ValueLayout.JAVA_INT_UNALIGNED, RECORD_COUNT_OFFSET, 0);
+    }
+
+    private void readHeader() {
+        if (segment.get(ValueLayout.JAVA_INT_UNALIGNED, MAGIC_OFFSET) != magic) {
+            throw new IllegalStateException("Not an archive of this kind: " + file);
+        }
+        int storedRecordSize = segment.get(ValueLayout.JAVA_INT_UNALIGNED, RECORD_SIZE_OFFSET);
+        if (storedRecordSize != recordSize) {
+            throw new IllegalStateException("Archive record size " + storedRecordSize + " does not match "
+                    + recordSize + ": " + file);
+        }
+        recordCount = segment.get(ValueLayout.JAVA_INT_UNALIGNED, RECORD_COUNT_OFFSET);
+        if (HEADER_SIZE + recordSize * recordCount > segment.byteSize()) {
+            throw new IllegalStateException("Archive is truncated: " + file);
+        }
+        for (int ordinal = 0; ordinal < recordCount; ordinal++) {
+            ordinalsById.put(readId(record(ordinal)), ordinal);
+        }
+        LOGGER.info("Opened archive " + file + " with " + recordCount + " records");
+    }
+}
@@ -0,0 +1,313 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.IdDictionary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * This class pays out the approved commissions of a period.
+ * It is responsible only for payout runs, following the Single Responsibility Principle.
+ *
+ * APPROVED calculations in the period are read one page at a time in ID order. Each page is
+ * written to the payout file, then marked PAID with the payout date and saved in one call,
+ * so only one page is held in memory however many calculations the period contains.
+ * Per-rep totals are kept as whole cents in a long array indexed by the rep's ordinal in the
+ * global IdDictionary, and one summary line per rep is appended to the file at the end of the run.
+ * Calculations without a sales rep cannot be paid; they are left APPROVED, kept out of the file
+ * and counted as skipped. Clawback reversal entries from the ClawbackEngine are saved APPROVED
+ * with negative amounts, so they are settled here too and reduce their rep's total.
+ *
+ * The file is written under a temporary name next to the payout file, the payout file's name with
+ * ".partial" appended, and moved to the payout file in one atomic step once every line in it has
+ * been paid, so a payout file only ever exists complete. An existing payout file is never
+ * overwritten. If a run fails part way, the partial file keeps the lines already written, and the
+ * last page in it may not have been marked paid. Rerunning with the same payout file resumes the
+ * partial file: its lines are counted into the totals again, calculations listed in it that are
+ * still approved are marked paid instead of being listed a second time, and the calculations that
+ * are still approved are appended.
+ */
+public class PayoutRunEngine {
+    private static final Logger LOGGER = Logger.getLogger(PayoutRunEngine.class.getName());
+
+    static final String PARTIAL_SUFFIX = ".partial";
+
+    private static final String HEADER = "record,calculation_id,sales_rep_id,deal_id,amount";
+    private static final String DETAIL_RECORD = "DETAIL";
+    private static final String SUMMARY_RECORD = "SUMMARY";
+
+    private final DatabaseService databaseService;
+    private final int pageSize;
+
+    /**
+     * Constructor that takes all required dependencies.
+     *
+     * @param databaseService The database holding the calculations
+     * @param pageSize The number of calculations read, written and saved at a time
+     */
+    public PayoutRunEngine(DatabaseService databaseService, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.databaseService = databaseService;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Pays out every approved calculation made in a period, resuming the partial file of an
+     * earlier run to the same payout file if there is one.
+     *
+     * @param periodStart The first calculation date of the period
+     * @param periodEnd The last calculation date of the period
+     * @param payoutDate The payout date to record on each calculation
+     * @param payoutFile The CSV file to create; it must not exist yet
+     * @return The totals of the payout file, including any lines resumed from a failed run
+     * @throws IllegalStateException if the payout file already exists
+     */
+    public PayoutRunResult run(LocalDate periodStart, LocalDate periodEnd, LocalDate payoutDate, Path payoutFile) {
+        if (Files.exists(payoutFile)) {
+            throw new IllegalStateException("Payout file already exists: " + payoutFile);
+        }
+        Path partialFile = payoutFile.resolveSibling(payoutFile.getFileName() + PARTIAL_SUFFIX);
+        LOGGER.info("Starting payout run for " + periodStart + " to " + periodEnd);
+        RunTotals totals = new RunTotals();
+        long skippedCount = 0;
+        Map<String, BigDecimal> repTotals = new TreeMap<>();
+
+        try {
+            boolean resuming = Files.exists(partialFile);
+            boolean complete = resuming && resume(partialFile, payoutDate, totals);
+            try (BufferedWriter writer = resuming
+                    ? Files.newBufferedWriter(partialFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND)
+                    : Files.newBufferedWriter(partialFile, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                if (!resuming) {
+                    writer.write(HEADER);
+                    writer.newLine();
+                }
+
+                String lastCalculationId = null;
+                while (!complete) {
+                    List<CommissionCalculation> page = databaseService.getCalculationsByStatus(
+                            CommissionCalculation.CommissionStatus.APPROVED, periodStart, periodEnd,
+                            lastCalculationId, pageSize);
+                    if (page.isEmpty()) {
+                        break;
+                    }
+
+                    List<CommissionCalculation> payable = new ArrayList<>(page.size());
+                    for (CommissionCalculation calculation : page) {
+                        int rep = calculation.getSalesRepOrdinal();
+                        if (rep == IdDictionary.NO_ORDINAL) {
+                            LOGGER.warning("Skipping calculation without a sales rep: " + calculation.getId());
+                            skippedCount++;
+                            continue;
+                        }
+                        payable.add(calculation);
+                        long cents = toCents(calculation.getNetCommission());
+                        totals.add(rep, cents);
+                        writer.write(DETAIL_RECORD + "," + calculation.getId() + "," + calculation.getSalesRepId() + ","
+                                + calculation.getDealId() + "," + formatCents(cents));
+                        writer.newLine();
+                    }
+                    // Lines reach the file before the calculations are marked paid
+                    writer.flush();
+
+                    markPaid(payable, payoutDate);
+                    lastCalculationId = page.get(page.size() - 1).getId();
+                }
+
+                if (!complete) {
+                    for (Map.Entry<String, Long> entry : totals.byRepId().entrySet()) {
+                        writer.write(SUMMARY_RECORD + ",," + entry.getKey() + ",," + formatCents(entry.getValue()));
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(partialFile, payoutFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            throw new IllegalStateException("Payout file already exists: " + e.getFile(), e);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing payout file: " + payoutFile, e);
+        }
+
+        for (Map.Entry<String, Long> entry : totals.byRepId().entrySet()) {
+            repTotals.put(entry.getKey(), BigDecimal.valueOf(entry.getValue(), 2));
+        }
+        LOGGER.info("Payout run completed: " + totals.calculationCount + " calculations for " + repTotals.size()
+                + " sales reps, total " + formatCents(totals.totalCents) + ", " + skippedCount + " skipped");
+        return new PayoutRunResult(totals.calculationCount, skippedCount, BigDecimal.valueOf(totals.totalCents, 2),
+                repTotals);
+    }
+
+    /**
+     * Reads the partial file of a failed run back into the totals and marks the calculations it
+     * lists that are still approved as paid. A line cut short by the failure is dropped first.
+     *
+     * @return Whether the partial file was already complete, with its summary lines written
+     */
+    private boolean resume(Path partialFile, LocalDate payoutDate, RunTotals totals) throws IOException {
+        LOGGER.info("Resuming payout file " + partialFile);
+        dropIncompleteLine(partialFile);
+        List<CommissionCalculation> listedUnpaid = new ArrayList<>(pageSize);
+        boolean complete = false;
+        try (BufferedReader reader = Files.newBufferedReader(partialFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(SUMMARY_RECORD + ",")) {
+                    complete = true;
+                    break;
+                }
+                if (!line.startsWith(DETAIL_RECORD + ",")) {
+                    continue;
+                }
+                // record, calculation_id, sales_rep_id, deal_id, amount
+                String[] fields = line.split(",", -1);
+                totals.add(IdDictionary.global().ordinalOf(IdDictionary.IdType.SALES_REP, fields[2]),
+                        toCents(new BigDecimal(fields[4])));
+                CommissionCalculation calculation = databaseService.getCalculationFromDatabase(fields[1]);
+                if (calculation != null && calculation.getStatus() == CommissionCalculation.CommissionStatus.APPROVED) {
+                    listedUnpaid.add(calculation);
+                    if (listedUnpaid.size() == pageSize) {
+                        markPaid(listedUnpaid, payoutDate);
+                        listedUnpaid = new ArrayList<>(pageSize);
+                    }
+                }
+            }
+        }
+        markPaid(listedUnpaid, payoutDate);
+        return complete;
+    }
+
+    /**
+     * Truncates the file after its last line break, so a line whose write was cut short is not read.
+     */
+    private void dropIncompleteLine(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer single = ByteBuffer.allocate(1);
+            long end = channel.size();
+            while (end > 0) {
+                single.clear();
+                channel.read(single, end - 1);
+                if (single.get(0) == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < channel.size()) {
+                LOGGER.warning("Dropping incomplete last line of " + file);
+                channel.truncate(end);
+            }
+        }
+    }
+
+    private void markPaid(List<CommissionCalculation> calculations, LocalDate payoutDate) {
+        if (calculations.isEmpty()) {
+            return;
+        }
+        for (CommissionCalculation calculation : calculations) {
+            calculation.setPayoutDate(payoutDate);
+            calculation.setStatus(CommissionCalculation.CommissionStatus.PAID);
+        }
+        databaseService.saveCalculationsToDatabase(calculations);
+    }
+
+    private long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private String formatCents(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+
+    /**
+     * The running totals of a payout file, as whole cents per rep ordinal.
+     */
+    private static class RunTotals {
+        private long[] centsByRep = new long[0];
+        private boolean[] paidReps = new boolean[0];
+        private long calculationCount;
+        private long totalCents;
+
+        void add(int rep, long cents) {
+            if (rep >= centsByRep.length) {
+                int capacity = Math.max(rep + 1, centsByRep.length * 2);
+                centsByRep = Arrays.copyOf(centsByRep, capacity);
+                paidReps = Arrays.copyOf(paidReps, capacity);
+            }
+            centsByRep[rep] += cents;
+            paidReps[rep] = true;
+            calculationCount++;
+            totalCents += cents;
+        }
+
+        Map<String, Long> byRepId() {
+            Map<String, Long> repCents = new TreeMap<>();
+            for (int rep = 0; rep < centsByRep.length; rep++) {
+                if (paidReps[rep]) {
+                    repCents.put(IdDictionary.global().idOf(IdDictionary.IdType.SALES_REP, rep), centsByRep[rep]);
+                }
+            }
+            return repCents;
+        }
+    }
+
+    /**
+     * The totals of one payout run.
+     */
+    public static class PayoutRunResult {
+        private final long calculationCount;
+        private final long skippedCount;
+        private final BigDecimal total;
+        private final Map<String, BigDecimal> repTotals;
+
+        PayoutRunResult(long calculationCount, long skippedCount, BigDecimal total, Map<String, BigDecimal> repTotals) {
+            this.calculationCount = calculationCount;
+            this.skippedCount = skippedCount;
+            this.total = total;
+            this.repTotals = Collections.unmodifiableMap(repTotals);
+        }
+
+        public long getCalculationCount() {
+            return calculationCount;
+        }
+
+        /**
+         * Gets the number of approved calculations left unpaid because they have no sales rep.
+         */
+        public long getSkippedCount() {
+            return skippedCount;
+        }
+
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        /**
+         * Gets the amount paid to each sales rep, by sales rep ID.
+         */
+        public Map<String, BigDecimal> getRepTotals() {
+            return repTotals;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.BonusRule;
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.CommissionTier;
+import com.chapman.edu.commissions.model.Deal;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * This class runs "what-if" simulations of commission plans over historical deals.
+ * It is responsible only for simulation, following the Single Responsibility Principle.
+ *
+ * Deals are evaluated in parallel with the CommissionCalculator's database-free calculation,
+ * and only per-rep totals are kept, so no CommissionCalculation is saved or retained.
+ * This lets comp designers compare draft plans against the current plan before activating them.
+ *
+ * A plan without tiers or bonus rules pays what the CommissionCalculator pays. When a plan
+ * defines tiers, the base commission is what the tier containing the deal value calculates,
+ * and a value outside every tier earns none. When it defines bonus rules, its deal-level
+ * bonuses replace the calculator's; period-level bonuses (quota, team, accelerator) depend
+ * on cumulative results and are left out. The calculator's accelerators apply in both cases.
+ */
+public class PlanSimulationEngine {
+    private static final Logger LOGGER = Logger.getLogger(PlanSimulationEngine.class.getName());
+
+    private final CommissionCalculator calculator;
+
+    public PlanSimulationEngine(CommissionCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    /**
+     * Simulates a baseline plan and one or more draft plans over the same deals.
+     *
+     * @param baselinePlan The plan to compare against, typically the currently active plan
+     * @param draftPlans The draft plans to evaluate
+     * @param deals The historical deals to evaluate, e.g. all deals closed in a quarter
+     * @return The payout per plan and per rep, with deltas against the baseline
+     */
+    public SimulationResult simulate(CommissionPlan baselinePlan, List<CommissionPlan> draftPlans,
+                                     Collection<Deal> deals) {
+        long start = System.currentTimeMillis();
+        LOGGER.info("Simulating " + draftPlans.size() + " plan(s) over " + deals.size() + " deals");
+
+        Map<String, BigDecimal> baselineByRep = payoutByRep(baselinePlan, deals);
+        Map<String, PlanOutcome> outcomes = new LinkedHashMap<>();
+        for (CommissionPlan draftPlan : draftPlans) {
+            Map<String, BigDecimal> draftByRep = payoutByRep(draftPlan, deals);
+            outcomes.put(draftPlan.getId(), new PlanOutcome(draftPlan.getId(), draftByRep, baselineByRep));
+        }
+
+        LOGGER.info("Simulation completed in " + (System.currentTimeMillis() - start) + " ms");
+        return new SimulationResult(baselinePlan.getId(), baselineByRep, outcomes);
+    }
+
+    /**
+     * Evaluates every deal under a plan in parallel and sums the net commission per rep.
+     */
+    private Map<String, BigDecimal> payoutByRep(CommissionPlan plan, Collection<Deal> deals) {
+        ConcurrentMap<String, BigDecimal> totals = deals.parallelStream()
+                .filter(deal -> deal.getSalesRepId() != null && deal.getValue() != null)
+                .collect(Collectors.groupingByConcurrent(Deal::getSalesRepId,
+                        Collectors.reducing(BigDecimal.ZERO, deal -> netCommission(deal, plan), BigDecimal::add)));
+        return new HashMap<>(totals);
+    }
+
+    private BigDecimal netCommission(Deal deal, CommissionPlan plan) {
+        CommissionCalculation calculation = calculator.calculateCommission(deal, plan);
+        if (plan.getTiers().isEmpty() && plan.getBonuses().isEmpty()) {
+            return calculation.getNetCommission();
+        }
+        BigDecimal base = plan.getTiers().isEmpty()
+                ? calculation.getBaseCommission()
+                : tierCommission(plan, deal.getValue());
+        BigDecimal bonuses = plan.getBonuses().isEmpty()
+                ? calculation.getBonusTotal()
+                : dealLevelBonuses(plan, deal, base);
+        return base.add(bonuses).multiply(calculation.getAcceleratorMultiplier());
+    }
+
+    private BigDecimal tierCommission(CommissionPlan plan, BigDecimal value) {
+        for (CommissionTier tier : plan.getTiers()) {
+            if (tier.containsValue(value)) {
+                return tier.calculateCommission(value);
+            }
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private BigDecimal dealLevelBonuses(CommissionPlan plan, Deal deal, BigDecimal baseCommission) {
+        LocalDate dealDate = deal.getCloseDate() != null ? deal.getCloseDate() : LocalDate.now();
+        BigDecimal total = BigDecimal.ZERO;
+        for (BonusRule rule : plan.getBonuses()) {
+            if (isDealLevelBonus(rule) && rule.isActiveOn(dealDate)) {
+                total = total.add(rule.calculateBonus(baseCommission));
+            }
+        }
+        return total;
+    }
+
+    private boolean isDealLevelBonus(BonusRule rule) {
+        return rule.getType() == BonusRule.BonusType.FIXED
+                || rule.getType() == BonusRule.BonusType.SPIF
+                || rule.getType() == BonusRule.BonusType.SPECIAL_INCENTIVE;
+    }
+
+    private static BigDecimal sum(Map<String, BigDecimal> byRep) {
+        return byRep.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * The simulated payout of one draft plan compared with the baseline plan.
+     */
+    public static class PlanOutcome {
+        private final String planId;
+        private final Map<String, BigDecimal> payoutByRep;
+        private final Map<String, BigDecimal> deltaByRep;
+        private final BigDecimal totalPayout;
+        private final BigDecimal totalDelta;
+
+        PlanOutcome(String planId, Map<String, BigDecimal> payoutByRep, Map<String, BigDecimal> baselineByRep) {
+            this.planId = planId;
+            this.payoutByRep = Collections.unmodifiableMap(payoutByRep);
+
+            Set<String> reps = new HashSet<>(payoutByRep.keySet());
+            reps.addAll(baselineByRep.keySet());
+            Map<String, BigDecimal> deltas = new HashMap<>();
+            for (String rep : reps) {
+                BigDecimal draft = payoutByRep.getOrDefault(rep, BigDecimal.ZERO);
+                BigDecimal baseline = baselineByRep.getOrDefault(rep, BigDecimal.ZERO);
+                deltas.put(rep, draft.subtract(baseline));
+            }
+            this.deltaByRep = Collections.unmodifiableMap(deltas);
+            this.totalPayout = sum(payoutByRep);
+            this.totalDelta = totalPayout.subtract(sum(baselineByRep));
+        }
+
+        public String getPlanId() {
+            return planId;
+        }
+
+        public Map<String, BigDecimal> getPayoutByRep() {
+            return payoutByRep;
+        }
+
+        /**
+         * Gets the change in payout per rep compared with the baseline plan.
+         */
+        public Map<String, BigDecimal> getDeltaByRep() {
+            return deltaByRep;
+        }
+
+        public BigDecimal getTotalPayout() {
+            return totalPayout;
+        }
+
+        /**
+         * Gets the change in total payout compared with the baseline plan.
+         */
+        public BigDecimal getTotalDelta() {
+            return totalDelta;
+        }
+    }
+
+    /**
+     * The result of a simulation: the baseline payout and the outcome of each draft plan.
+     */
+    public static class SimulationResult {
+        private final String baselinePlanId;
+        private final Map<String, BigDecimal> baselinePayoutByRep;
+        private final BigDecimal baselineTotalPayout;
+        private final Map<String, PlanOutcome> outcomes;
+
+        SimulationResult(String baselinePlanId, Map<String, BigDecimal> baselinePayoutByRep,
+                         Map<String, PlanOutcome> outcomes) {
+            this.baselinePlanId = baselinePlanId;
+            this.baselinePayoutByRep = Collections.unmodifiableMap(baselinePayoutByRep);
+            this.baselineTotalPayout = sum(baselinePayoutByRep);
+            this.outcomes = Collections.unmodifiableMap(outcomes);
+        }
+
+        public String getBaselinePlanId() {
+            return baselinePlanId;
+        }
+
+        public Map<String, BigDecimal> getBaselinePayoutByRep() {
+            return baselinePayoutByRep;
+        }
+
+        public BigDecimal getBaselineTotalPayout() {
+            return baselineTotalPayout;
+        }
+
+        /**
+         * Gets the outcome of each draft plan, keyed by plan ID in the order the plans were given.
+         */
+        public Map<String, PlanOutcome> getOutcomes() {
+            return outcomes;
+        }
+
+        public PlanOutcome getOutcome(String planId) {
+            return outcomes.get(planId);
+        }
+    }
+}
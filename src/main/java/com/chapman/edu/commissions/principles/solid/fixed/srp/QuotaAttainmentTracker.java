@@ -0,0 +1,352 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.AcceleratorCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.CommissionRule;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.RuleCondition;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * This class tracks each sales rep's cumulative quota attainment within a period.
+ * It is responsible only for attainment tracking, following the Single Responsibility Principle.
+ *
+ * Running totals are updated as deals close, so the rep's current accelerator band is
+ * available without summing their deals again. When a deal crosses one or more band
+ * thresholds, the deal value is split across the bands it spans and a blended multiplier
+ * is returned, so only the portion above a threshold earns the higher rate.
+ * Deals without a sales rep count towards no one's attainment and are skipped.
+ */
+public class QuotaAttainmentTracker {
+    private static final Logger LOGGER = Logger.getLogger(QuotaAttainmentTracker.class.getName());
+
+    /**
+     * The rule condition field that marks an accelerator or decelerator threshold, as a percentage of quota.
+     */
+    public static final String ATTAINMENT_FIELD = "attainment";
+
+    private static final BigDecimal QUOTA_THRESHOLD = new BigDecimal("100");
+
+    private final List<AttainmentBand> bands;
+    private final int periodMonths;
+    private final Map<String, BigDecimal> quotas = new ConcurrentHashMap<>();
+    private final Map<PeriodKey, AttainmentState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with the accelerator bands and the period length.
+     *
+     * @param bands The attainment bands; a base band at 0% with multiplier 1 is added if none starts at 0%
+     * @param periodMonths The length of an attainment period in months (1, 2, 3, 4, 6 or 12)
+     */
+    public QuotaAttainmentTracker(List<AttainmentBand> bands, int periodMonths) {
+        if (periodMonths <= 0 || 12 % periodMonths != 0) {
+            throw new IllegalArgumentException("Period length must divide the year evenly: " + periodMonths);
+        }
+        List<AttainmentBand> sorted = new ArrayList<>(bands);
+        sorted.sort(Comparator.comparing(AttainmentBand::getThreshold));
+        if (sorted.isEmpty() || sorted.get(0).getThreshold().signum() > 0) {
+            sorted.add(0, new AttainmentBand(null, "Base", BigDecimal.ZERO, BigDecimal.ONE));
+        }
+        this.bands = List.copyOf(sorted);
+        this.periodMonths = periodMonths;
+    }
+
+    /**
+     * Creates a tracker from the accelerator and decelerator rules of a commission plan.
+     * A rule contributes a band when it has a condition on the "attainment" field; the condition value
+     * is the threshold percentage and the rule rate is the multiplier.
+     */
+    public static QuotaAttainmentTracker fromPlan(CommissionPlan plan, int periodMonths) {
+        List<AttainmentBand> bands = new ArrayList<>();
+        for (CommissionRule rule : plan.getRules()) {
+            if (rule.getType() != CommissionRule.RuleType.ACCELERATOR
+                    && rule.getType() != CommissionRule.RuleType.DECELERATOR) {
+                continue;
+            }
+            for (RuleCondition condition : rule.getConditions()) {
+                if (ATTAINMENT_FIELD.equals(condition.getField())
+                        && (condition.getOperator() == RuleCondition.ConditionOperator.GREATER_THAN_OR_EQUALS
+                        || condition.getOperator() == RuleCondition.ConditionOperator.GREATER_THAN)) {
+                    bands.add(new AttainmentBand(rule.getId(), rule.getName(),
+                            new BigDecimal(condition.getValue()), rule.getRate()));
+                }
+            }
+        }
+        return new QuotaAttainmentTracker(bands, periodMonths);
+    }
+
+    /**
+     * Sets the quota for a sales rep. Band positions for periods already tracked are recomputed.
+     */
+    public void setQuota(String salesRepId, BigDecimal quota) {
+        if (salesRepId == null) {
+            throw new IllegalArgumentException("A quota must be set for a sales rep");
+        }
+        quotas.put(salesRepId, quota);
+        for (PeriodKey key : states.keySet()) {
+            if (salesRepId.equals(key.salesRepId())) {
+                states.computeIfPresent(key, (k, state) -> {
+                    state.bandIndex = bandIndexFor(state.attained, quota, 0);
+                    return state;
+                });
+            }
+        }
+    }
+
+    /**
+     * Records a closed deal against its sales rep's attainment for the period containing its close date.
+     *
+     * @param deal The closed deal
+     * @return The attainment change, including the blended accelerator multiplier for the deal,
+     *         or null if the deal has no sales rep
+     */
+    public AttainmentUpdate recordDeal(Deal deal) {
+        return recordValue(deal.getSalesRepId(), closeDateOf(deal), valueOf(deal));
+    }
+
+    /**
+     * Reverses a previously recorded deal, e.g. when it is cancelled or refunded.
+     * Returns null if the deal has no sales rep.
+     */
+    public AttainmentUpdate reverseDeal(Deal deal) {
+        return recordValue(deal.getSalesRepId(), closeDateOf(deal), valueOf(deal).negate());
+    }
+
+    /**
+     * Records a change in attained value for a sales rep on a given date.
+     *
+     * @param salesRepId The ID of the sales rep
+     * @param date The date the value was attained
+     * @param value The attained value; negative values reduce attainment
+     * @return The attainment change, including the blended accelerator multiplier for the value,
+     *         or null if there is no sales rep
+     */
+    public AttainmentUpdate recordValue(String salesRepId, LocalDate date, BigDecimal value) {
+        if (salesRepId == null) {
+            LOGGER.warning("Skipping attainment without a sales rep on " + date);
+            return null;
+        }
+        PeriodKey key = new PeriodKey(salesRepId, periodStartOf(date));
+        BigDecimal quota = quotas.get(salesRepId);
+        AttainmentUpdate[] result = new AttainmentUpdate[1];
+
+        states.compute(key, (k, state) -> {
+            if (state == null) {
+                state = new AttainmentState();
+            }
+            BigDecimal previous = state.attained;
+            int previousIndex = state.bandIndex;
+            BigDecimal updated = previous.add(value);
+            int updatedIndex = bandIndexFor(updated, quota, previousIndex);
+
+            BigDecimal multiplier = blendedMultiplier(previous, updated, quota, previousIndex, updatedIndex);
+            boolean crossedQuota = quota != null && quota.signum() > 0
+                    && previous.compareTo(quota) < 0 && updated.compareTo(quota) >= 0;
+
+            state.attained = updated;
+            state.bandIndex = updatedIndex;
+            result[0] = new AttainmentUpdate(salesRepId, k.periodStart(), previous, updated,
+                    bands.get(previousIndex), bands.get(updatedIndex), multiplier, crossedQuota);
+            return state;
+        });
+
+        if (result[0].getPreviousBand() != result[0].getCurrentBand()) {
+            LOGGER.info("Sales rep " + salesRepId + " moved from band " + result[0].getPreviousBand().getName()
+                    + " to " + result[0].getCurrentBand().getName());
+        }
+        return result[0];
+    }
+
+    /**
+     * Gets the value a sales rep has attained in the period containing the given date.
+     */
+    public BigDecimal getAttainedValue(String salesRepId, LocalDate date) {
+        AttainmentState state = states.get(new PeriodKey(salesRepId, periodStartOf(date)));
+        return state == null ? BigDecimal.ZERO : state.attained;
+    }
+
+    /**
+     * Gets a sales rep's attainment as a percentage of quota, or zero when no quota is set.
+     */
+    public BigDecimal getAttainmentPercentage(String salesRepId, LocalDate date) {
+        BigDecimal quota = salesRepId != null ? quotas.get(salesRepId) : null;
+        if (quota == null || quota.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return getAttainedValue(salesRepId, date).multiply(QUOTA_THRESHOLD).divide(quota, MathContext.DECIMAL64);
+    }
+
+    /**
+     * Gets the accelerator band a sales rep is currently in for the period containing the given date.
+     * This is a constant-time lookup of the band maintained as deals are recorded.
+     */
+    public AttainmentBand getCurrentBand(String salesRepId, LocalDate date) {
+        AttainmentState state = states.get(new PeriodKey(salesRepId, periodStartOf(date)));
+        return bands.get(state == null ? 0 : state.bandIndex);
+    }
+
+    /**
+     * Gets the bands used by this tracker, ordered by threshold.
+     */
+    public List<AttainmentBand> getBands() {
+        return bands;
+    }
+
+    /**
+     * Gets the first day of the attainment period containing the given date.
+     */
+    public LocalDate periodStartOf(LocalDate date) {
+        int startMonth = ((date.getMonthValue() - 1) / periodMonths) * periodMonths + 1;
+        return LocalDate.of(date.getYear(), startMonth, 1);
+    }
+
+    private int bandIndexFor(BigDecimal attained, BigDecimal quota, int fromIndex) {
+        int index = Math.min(fromIndex, bands.size() - 1);
+        while (index + 1 < bands.size() && thresholdValue(index + 1, quota).compareTo(attained) <= 0) {
+            index++;
+        }
+        while (index > 0 && thresholdValue(index, quota).compareTo(attained) > 0) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Weights each band's multiplier by the part of the change that falls within it.
+     */
+    private BigDecimal blendedMultiplier(BigDecimal previous, BigDecimal updated, BigDecimal quota,
+                                         int previousIndex, int updatedIndex) {
+        if (previousIndex == updatedIndex || previous.compareTo(updated) == 0) {
+            return bands.get(updatedIndex).getMultiplier();
+        }
+        boolean increasing = previous.compareTo(updated) < 0;
+        BigDecimal low = increasing ? previous : updated;
+        BigDecimal high = increasing ? updated : previous;
+        int index = increasing ? previousIndex : updatedIndex;
+
+        BigDecimal weighted = BigDecimal.ZERO;
+        BigDecimal position = low;
+        while (position.compareTo(high) < 0) {
+            BigDecimal bandEnd = index + 1 < bands.size() ? thresholdValue(index + 1, quota).min(high) : high;
+            weighted = weighted.add(bandEnd.subtract(position).multiply(bands.get(index).getMultiplier()));
+            position = bandEnd;
+            index++;
+        }
+        return weighted.divide(high.subtract(low), MathContext.DECIMAL64).stripTrailingZeros();
+    }
+
+    private BigDecimal thresholdValue(int index, BigDecimal quota) {
+        BigDecimal threshold = bands.get(index).getThreshold();
+        if (threshold.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        if (quota == null || quota.signum() <= 0) {
+            // Without a quota only the base band is reachable
+            return BigDecimal.valueOf(Long.MAX_VALUE);
+        }
+        return quota.multiply(threshold).movePointLeft(2);
+    }
+
+    private static LocalDate closeDateOf(Deal deal) {
+        return deal.getCloseDate() != null ? deal.getCloseDate() : LocalDate.now();
+    }
+
+    private static BigDecimal valueOf(Deal deal) {
+        return deal.getValue() != null ? deal.getValue() : deal.calculateTotalValue();
+    }
+
+    private record PeriodKey(String salesRepId, LocalDate periodStart) {
+    }
+
+    private static class AttainmentState {
+        private BigDecimal attained = BigDecimal.ZERO;
+        private int bandIndex;
+    }
+
+    /**
+     * The result of recording attained value: the attainment before and after, the bands
+     * before and after, and the blended multiplier earned by the recorded value.
+     */
+    public static class AttainmentUpdate {
+        private final String salesRepId;
+        private final LocalDate periodStart;
+        private final BigDecimal previousAttainment;
+        private final BigDecimal currentAttainment;
+        private final AttainmentBand previousBand;
+        private final AttainmentBand currentBand;
+        private final BigDecimal multiplier;
+        private final boolean crossedQuota;
+
+        AttainmentUpdate(String salesRepId, LocalDate periodStart, BigDecimal previousAttainment,
+                         BigDecimal currentAttainment, AttainmentBand previousBand, AttainmentBand currentBand,
+                         BigDecimal multiplier, boolean crossedQuota) {
+            this.salesRepId = salesRepId;
+            this.periodStart = periodStart;
+            this.previousAttainment = previousAttainment;
+            this.currentAttainment = currentAttainment;
+            this.previousBand = previousBand;
+            this.currentBand = currentBand;
+            this.multiplier = multiplier;
+            this.crossedQuota = crossedQuota;
+        }
+
+        public String getSalesRepId() {
+            return salesRepId;
+        }
+
+        public LocalDate getPeriodStart() {
+            return periodStart;
+        }
+
+        public BigDecimal getPreviousAttainment() {
+            return previousAttainment;
+        }
+
+        public BigDecimal getCurrentAttainment() {
+            return currentAttainment;
+        }
+
+        public AttainmentBand getPreviousBand() {
+            return previousBand;
+        }
+
+        public AttainmentBand getCurrentBand() {
+            return currentBand;
+        }
+
+        public BigDecimal getMultiplier() {
+            return multiplier;
+        }
+
+        /**
+         * Check if this update took the rep from below quota to at or above quota.
+         * Use this to award BonusRule.BonusType.QUOTA_ACHIEVEMENT bonuses exactly once per period.
+         */
+        public boolean isCrossedQuota() {
+            return crossedQuota;
+        }
+
+        /**
+         * Converts this update into an accelerator for the deal's commission calculation.
+         * @return the accelerator, or null when the blended multiplier is exactly 1
+         */
+        public AcceleratorCalculation toAcceleratorCalculation() {
+            if (multiplier.compareTo(BigDecimal.ONE) == 0) {
+                return null;
+            }
+            AcceleratorCalculation accelerator = new AcceleratorCalculation(
+                    currentBand.getRuleId(), currentBand.getName(), multiplier);
+            accelerator.setDescription("Attainment " + previousAttainment + " -> " + currentAttainment);
+            return accelerator;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.AcceleratorCalculation;
+import com.chapman.edu.commissions.model.BonusCalculation;
+import com.chapman.edu.commissions.model.CommissionCalculation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * This class is a read-only copy of a commission calculation.
+ * It is handed out by the CommissionCalculationCache so a cached result can be shared
+ * between callers without any of them changing it for the others.
+ * Every mutator throws UnsupportedOperationException.
+ */
+public class ReadOnlyCommissionCalculation extends CommissionCalculation {
+
+    /**
+     * Constructor that copies all fields of a calculation.
+     */
+    public ReadOnlyCommissionCalculation(CommissionCalculation source) {
+        super.setId(source.getId());
+        super.setDealId(source.getDealId());
+        super.setSalesRepId(source.getSalesRepId());
+        super.setBaseCommission(source.getBaseCommission());
+        super.setBonuses(source.getBonuses());
+        super.setAccelerators(source.getAccelerators());
+        super.setGrossCommission(source.getGrossCommission());
+        super.setNetCommission(source.getNetCommission());
+        super.setStatus(source.getStatus());
+        super.setCalculationDate(source.getCalculationDate());
+        super.setPayoutDate(source.getPayoutDate());
+        super.setPlanId(source.getPlanId());
+        super.setCalculatedBy(source.getCalculatedBy());
+        super.setAdjustedCalculationId(source.getAdjustedCalculationId());
+    }
+
+    @Override
+    public void setId(String id) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setDealId(String dealId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setSalesRepId(String salesRepId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBaseCommission(BigDecimal baseCommission) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBonuses(List<BonusCalculation> bonuses) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addBonus(BonusCalculation bonus) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setAccelerators(List<AcceleratorCalculation> accelerators) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addAccelerator(AcceleratorCalculation accelerator) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setGrossCommission(BigDecimal grossCommission) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setNetCommission(BigDecimal netCommission) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setStatus(CommissionStatus status) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setCalculationDate(LocalDate calculationDate) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPayoutDate(LocalDate payoutDate) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPlanId(String planId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setCalculatedBy(String calculatedBy) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setAdjustedCalculationId(String adjustedCalculationId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void recalculate() {
+        throw readOnly();
+    }
+
+    private UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Cached commission calculations are read-only");
+    }
+}
@@ -0,0 +1,382 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class recalculates every commission calculation of a plan after the plan has been corrected.
+ * It is responsible only for retroactive recalculation, following the Single Responsibility Principle.
+ *
+ * Calculations made since the plan's effective start date are processed in ID order, one chunk
+ * at a time. After each chunk the ID of the last processed calculation is written to a checkpoint
+ * file, so a restarted job resumes where it stopped instead of starting over. Recalculating a
+ * calculation twice gives the same result, so a chunk interrupted by a crash is simply redone.
+ * The job throttles itself to a configurable number of calculations per second.
+ *
+ * Only calculations that have not been paid are rewritten in place; they keep their status so
+ * they continue through approval and payout. A PAID calculation is left as the record of what
+ * was paid, and the difference is saved as a separate adjustment entry that refers to it. Later
+ * runs take earlier adjustment entries into account, so a paid calculation is never adjusted
+ * twice for the same difference. Cancelled, adjusted and reversed calculations, clawback
+ * reversal entries and adjustment entries themselves are skipped.
+ */
+public class RetroactiveRecalculationJob {
+    private static final Logger LOGGER = Logger.getLogger(RetroactiveRecalculationJob.class.getName());
+
+    static final String RECALCULATION_CALCULATED_BY = "RECALCULATION";
+
+    private final CommissionCalculator calculator;
+    private final DatabaseService databaseService;
+    private final IdGenerationService idGenerationService;
+    private final Path checkpointFile;
+    private final int chunkSize;
+    private final double maxCalculationsPerSecond;
+
+    private volatile long totalCount;
+    private volatile long processedCount;
+    private volatile long updatedCount;
+    private volatile long runStartedAt;
+    private volatile long processedAtRunStart;
+
+    /**
+     * Constructor that takes all required dependencies and settings.
+     *
+     * @param calculator The calculator used to recompute commissions
+     * @param databaseService The database holding the calculations
+     * @param checkpointFile The file in which progress is recorded
+     * @param chunkSize The number of calculations processed between checkpoints
+     * @param maxCalculationsPerSecond The throttle rate; zero or less disables throttling
+     */
+    public RetroactiveRecalculationJob(CommissionCalculator calculator, DatabaseService databaseService,
+                                       Path checkpointFile, int chunkSize, double maxCalculationsPerSecond) {
+        this(calculator, databaseService, IdGenerationServiceImpl.defaultInstance(), checkpointFile, chunkSize,
+                maxCalculationsPerSecond);
+    }
+
+    /**
+     * Constructor that also takes the service that assigns adjustment entry IDs.
+     */
+    public RetroactiveRecalculationJob(CommissionCalculator calculator, DatabaseService databaseService,
+                                       IdGenerationService idGenerationService, Path checkpointFile,
+                                       int chunkSize, double maxCalculationsPerSecond) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.calculator = calculator;
+        this.databaseService = databaseService;
+        this.idGenerationService = idGenerationService;
+        this.checkpointFile = checkpointFile;
+        this.chunkSize = chunkSize;
+        this.maxCalculationsPerSecond = maxCalculationsPerSecond;
+    }
+
+    /**
+     * Recalculates all calculations of a plan since its effective start date,
+     * resuming from the last checkpoint if a previous run of the same plan did not finish.
+     *
+     * @param planId The ID of the corrected plan
+     * @return The progress when the job finished or was interrupted
+     */
+    public RecalculationProgress run(String planId) {
+        return run(planId, CancellationToken.create());
+    }
+
+    /**
+     * Recalculates all calculations of a plan since its effective start date, stopping at the next
+     * chunk boundary once the token is cancelled or its deadline passes. A later run resumes from
+     * the checkpoint of the last finished chunk.
+     *
+     * @param planId The ID of the corrected plan
+     * @param token Signals that the job should stop
+     * @return The progress when the job finished or was stopped
+     */
+    public RecalculationProgress run(String planId, CancellationToken token) {
+        CommissionPlan plan = databaseService.getPlanFromDatabase(planId);
+        if (plan == null) {
+            LOGGER.severe("Plan not found: " + planId);
+            throw new IllegalArgumentException("Plan not found: " + planId);
+        }
+        LocalDate fromDate = plan.getEffectiveStartDate();
+
+        Properties checkpoint = loadCheckpoint(planId);
+        String lastCalculationId = checkpoint.getProperty("lastCalculationId");
+        processedCount = Long.parseLong(checkpoint.getProperty("processedCount", "0"));
+        updatedCount = Long.parseLong(checkpoint.getProperty("updatedCount", "0"));
+        totalCount = databaseService.countCalculationsByPlan(planId, fromDate);
+        runStartedAt = System.nanoTime();
+        processedAtRunStart = processedCount;
+
+        if (lastCalculationId != null) {
+            LOGGER.info("Resuming recalculation of plan " + planId + " after " + lastCalculationId
+                    + " (" + processedCount + " of " + totalCount + " done)");
+        } else {
+            LOGGER.info("Starting recalculation of plan " + planId + " for " + totalCount + " calculations");
+        }
+
+        while (!token.isStopRequested()) {
+            List<CommissionCalculation> chunk =
+                    databaseService.getCalculationsByPlan(planId, fromDate, lastCalculationId, chunkSize);
+            if (chunk.isEmpty()) {
+                deleteCheckpoint();
+                LOGGER.info("Recalculation of plan " + planId + " completed: " + updatedCount + " updated");
+                return getProgress();
+            }
+
+            for (CommissionCalculation calculation : chunk) {
+                if (recalculate(calculation, plan)) {
+                    updatedCount++;
+                }
+                processedCount++;
+            }
+            lastCalculationId = chunk.get(chunk.size() - 1).getId();
+            saveCheckpoint(planId, lastCalculationId);
+            throttle(token);
+        }
+
+        LOGGER.info("Recalculation of plan " + planId + " stopped after " + lastCalculationId + ": "
+                + token.getStopReason().getDisplayName());
+        return getProgress();
+    }
+
+    /**
+     * Gets the current progress. Safe to call from another thread while the job runs.
+     */
+    public RecalculationProgress getProgress() {
+        long processedThisRun = processedCount - processedAtRunStart;
+        double elapsedSeconds = (System.nanoTime() - runStartedAt) / 1_000_000_000.0;
+        double rate = elapsedSeconds > 0 ? processedThisRun / elapsedSeconds : 0;
+        return new RecalculationProgress(totalCount, processedCount, updatedCount, rate);
+    }
+
+    private boolean recalculate(CommissionCalculation calculation, CommissionPlan plan) {
+        if (ClawbackEngine.CLAWBACK_CALCULATED_BY.equals(calculation.getCalculatedBy())
+                || RECALCULATION_CALCULATED_BY.equals(calculation.getCalculatedBy())) {
+            return false;
+        }
+        return switch (calculation.getStatus()) {
+            case CALCULATED, APPROVED, DISPUTED -> recalculateUnpaid(calculation, plan);
+            case PAID -> adjustPaid(calculation, plan);
+            default -> false;
+        };
+    }
+
+    /**
+     * Rewrites the amounts of a calculation that has not been paid, keeping its status.
+     */
+    private boolean recalculateUnpaid(CommissionCalculation calculation, CommissionPlan plan) {
+        CommissionCalculation recalculated = recalculateDeal(calculation, plan);
+        if (recalculated == null || recalculated.getNetCommission().compareTo(calculation.getNetCommission()) == 0) {
+            return false;
+        }
+
+        calculation.setBaseCommission(recalculated.getBaseCommission());
+        calculation.setBonuses(recalculated.getBonuses());
+        calculation.setAccelerators(recalculated.getAccelerators());
+        calculation.setGrossCommission(recalculated.getGrossCommission());
+        calculation.setNetCommission(recalculated.getNetCommission());
+        databaseService.saveCalculationToDatabase(calculation);
+        return true;
+    }
+
+    /**
+     * Saves an adjustment entry for the part of the corrected amount of a paid calculation that
+     * has not been paid or adjusted already.
+     */
+    private boolean adjustPaid(CommissionCalculation paid, CommissionPlan plan) {
+        CommissionCalculation recalculated = recalculateDeal(paid, plan);
+        if (recalculated == null) {
+            return false;
+        }
+
+        BigDecimal base = recalculated.getBaseCommission().subtract(paid.getBaseCommission());
+        BigDecimal gross = recalculated.getGrossCommission().subtract(paid.getGrossCommission());
+        BigDecimal net = recalculated.getNetCommission().subtract(paid.getNetCommission());
+        for (CommissionCalculation previous : databaseService.getCalculationsByDeal(paid.getDealId())) {
+            if (paid.getId().equals(previous.getAdjustedCalculationId())
+                    && RECALCULATION_CALCULATED_BY.equals(previous.getCalculatedBy())
+                    && previous.getStatus() != CommissionCalculation.CommissionStatus.CANCELLED
+                    && previous.getStatus() != CommissionCalculation.CommissionStatus.REVERSED) {
+                base = base.subtract(previous.getBaseCommission());
+                gross = gross.subtract(previous.getGrossCommission());
+                net = net.subtract(previous.getNetCommission());
+            }
+        }
+        if (net.signum() == 0) {
+            return false;
+        }
+
+        CommissionCalculation adjustment = new CommissionCalculation();
+        adjustment.setId(idGenerationService.nextId("ADJ-"));
+        adjustment.setDealId(paid.getDealId());
+        adjustment.setSalesRepId(paid.getSalesRepId());
+        adjustment.setPlanId(paid.getPlanId());
+        adjustment.setBaseCommission(base);
+        adjustment.setGrossCommission(gross);
+        adjustment.setNetCommission(net);
+        adjustment.setCalculationDate(LocalDate.now());
+        adjustment.setCalculatedBy(RECALCULATION_CALCULATED_BY);
+        adjustment.setAdjustedCalculationId(paid.getId());
+        databaseService.saveCalculationToDatabase(adjustment);
+        return true;
+    }
+
+    private CommissionCalculation recalculateDeal(CommissionCalculation calculation, CommissionPlan plan) {
+        Deal deal = databaseService.getDealFromDatabase(calculation.getDealId());
+        if (deal == null) {
+            LOGGER.warning("Skipping calculation " + calculation.getId() + ": deal not found " + calculation.getDealId());
+            return null;
+        }
+        return calculator.calculateCommission(deal, plan);
+    }
+
+    /**
+     * Waits until the average rate of this run is back under the configured maximum, or until
+     * the token asks the job to stop.
+     */
+    private void throttle(CancellationToken token) {
+        if (maxCalculationsPerSecond <= 0) {
+            return;
+        }
+        long processedThisRun = processedCount - processedAtRunStart;
+        long targetElapsedNanos = (long) (processedThisRun / maxCalculationsPerSecond * 1_000_000_000L);
+        long waitNanos = targetElapsedNanos - (System.nanoTime() - runStartedAt);
+        if (waitNanos > 0) {
+            token.awaitStop(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    private Properties loadCheckpoint(String planId) {
+        Properties checkpoint = new Properties();
+        if (!Files.exists(checkpointFile)) {
+            return checkpoint;
+        }
+        try (InputStream input = Files.newInputStream(checkpointFile)) {
+            checkpoint.load(input);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading checkpoint: " + checkpointFile, e);
+        }
+        if (!planId.equals(checkpoint.getProperty("planId"))) {
+            LOGGER.warning("Ignoring checkpoint for another plan: " + checkpoint.getProperty("planId"));
+            return new Properties();
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file, forces it to disk and atomically replaces the previous one,
+     * so a crash never leaves a partially written checkpoint behind.
+     */
+    private void saveCheckpoint(String planId, String lastCalculationId) {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("planId", planId);
+        checkpoint.setProperty("lastCalculationId", lastCalculationId);
+        checkpoint.setProperty("processedCount", Long.toString(processedCount));
+        checkpoint.setProperty("updatedCount", Long.toString(updatedCount));
+
+        Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream output = Channels.newOutputStream(channel);
+            checkpoint.store(output, "Retroactive recalculation checkpoint");
+            output.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing checkpoint: " + checkpointFile, e);
+        }
+        try {
+            Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing checkpoint: " + checkpointFile, e);
+        }
+    }
+
+    private void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error deleting checkpoint: " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * A snapshot of the job's progress, with an estimate of the time remaining.
+     */
+    public static class RecalculationProgress {
+        private final long totalCount;
+        private final long processedCount;
+        private final long updatedCount;
+        private final double calculationsPerSecond;
+
+        RecalculationProgress(long totalCount, long processedCount, long updatedCount, double calculationsPerSecond) {
+            this.totalCount = totalCount;
+            this.processedCount = processedCount;
+            this.updatedCount = updatedCount;
+            this.calculationsPerSecond = calculationsPerSecond;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getProcessedCount() {
+            return processedCount;
+        }
+
+        /**
+         * Gets the number of calculations that were rewritten or given an adjustment entry.
+         */
+        public long getUpdatedCount() {
+            return updatedCount;
+        }
+
+        public double getCalculationsPerSecond() {
+            return calculationsPerSecond;
+        }
+
+        public double getPercentComplete() {
+            return totalCount == 0 ? 100.0 : Math.min(100.0, processedCount * 100.0 / totalCount);
+        }
+
+        /**
+         * Gets the estimated time remaining at the current rate, or null if no rate is known yet.
+         */
+        public Duration getEstimatedTimeRemaining() {
+            long remaining = Math.max(0, totalCount - processedCount);
+            if (remaining == 0) {
+                return Duration.ZERO;
+            }
+            if (calculationsPerSecond <= 0) {
+                return null;
+            }
+            return Duration.ofMillis((long) (remaining / calculationsPerSecond * 1000));
+        }
+
+        @Override
+        public String toString() {
+            return "RecalculationProgress{" +
+                    "processed=" + processedCount + "/" + totalCount +
+                    ", updated=" + updatedCount +
+                    ", rate=" + String.format("%.1f", calculationsPerSecond) + "/s" +
+                    ", eta=" + getEstimatedTimeRemaining() +
+                    '}';
+        }
+    }
+}
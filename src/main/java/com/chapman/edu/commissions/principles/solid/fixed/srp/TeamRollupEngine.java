@@ -0,0 +1,244 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.BonusCalculation;
+import com.chapman.edu.commissions.model.BonusRule;
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.RuleCondition;
+import com.chapman.edu.commissions.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class keeps running commission totals for every team in the reporting hierarchy.
+ * It is responsible only for team aggregation, following the Single Responsibility Principle.
+ *
+ * A manager's team is everyone who reports to them directly or indirectly through User.managerId.
+ * Each saved calculation is added to its rep's total and to the total of every manager above
+ * the rep, so a team total is always available without walking the team. Recording the same
+ * calculation again applies only the difference, and cancelled calculations count as zero.
+ * When a rep moves to another manager, the rep's whole subtree is moved between the old and
+ * new chains of managers.
+ *
+ * TEAM_PERFORMANCE bonus rules use conditions on the "teamTotal" field as thresholds. A rule
+ * pays when the team total meets all of them, and a percentage rule pays on the team total.
+ */
+public class TeamRollupEngine {
+
+    /**
+     * The bonus rule condition field that holds a team total threshold.
+     */
+    public static final String TEAM_TOTAL_FIELD = "teamTotal";
+
+    private final Map<String, String> managersByUser = new HashMap<>();
+    private final Map<String, List<String>> ancestorsByUser = new HashMap<>();
+    private final Map<String, Aggregate> repAggregates = new HashMap<>();
+    private final Map<String, Aggregate> teamAggregates = new HashMap<>();
+    private final Map<String, Contribution> contributions = new HashMap<>();
+
+    /**
+     * Registers a user's position in the hierarchy.
+     */
+    public void registerUser(User user) {
+        setManager(user.getId(), user.getManagerId());
+    }
+
+    public void registerUsers(Collection<User> users) {
+        for (User user : users) {
+            registerUser(user);
+        }
+    }
+
+    /**
+     * Sets or changes a user's manager. Totals already recorded for the user and their
+     * team move with them.
+     *
+     * @param userId The ID of the user
+     * @param managerId The ID of the new manager, or null if the user has none
+     */
+    public synchronized void setManager(String userId, String managerId) {
+        for (String ancestor = managerId; ancestor != null; ancestor = managersByUser.get(ancestor)) {
+            if (ancestor.equals(userId)) {
+                throw new IllegalArgumentException("Manager " + managerId + " reports to " + userId);
+            }
+        }
+        Aggregate subtree = subtreeOf(userId);
+        addToChain(ancestorsOf(userId), subtree.total.negate(), -subtree.count);
+        if (managerId == null) {
+            managersByUser.remove(userId);
+        } else {
+            managersByUser.put(userId, managerId);
+        }
+        // Ancestor chains below this user are no longer valid
+        ancestorsByUser.clear();
+        addToChain(ancestorsOf(userId), subtree.total, subtree.count);
+    }
+
+    /**
+     * Records a saved calculation, replacing whatever was recorded for it before.
+     */
+    public synchronized void recordCalculation(CommissionCalculation calculation) {
+        Contribution previous = contributions.remove(calculation.getId());
+        if (previous != null) {
+            apply(previous.salesRepId(), previous.amount().negate(), -1);
+        }
+        if (calculation.getSalesRepId() == null
+                || calculation.getStatus() == CommissionCalculation.CommissionStatus.CANCELLED) {
+            return;
+        }
+        BigDecimal amount = calculation.getNetCommission() != null ? calculation.getNetCommission() : BigDecimal.ZERO;
+        contributions.put(calculation.getId(), new Contribution(calculation.getSalesRepId(), amount));
+        apply(calculation.getSalesRepId(), amount, 1);
+    }
+
+    public void recordCalculations(Collection<CommissionCalculation> calculations) {
+        for (CommissionCalculation calculation : calculations) {
+            recordCalculation(calculation);
+        }
+    }
+
+    /**
+     * Gets the net commission total of everyone reporting to a manager, at any level.
+     */
+    public synchronized BigDecimal getTeamTotal(String managerId) {
+        Aggregate aggregate = teamAggregates.get(managerId);
+        return aggregate != null ? aggregate.total : BigDecimal.ZERO;
+    }
+
+    /**
+     * Gets the number of calculations recorded for everyone reporting to a manager, at any level.
+     */
+    public synchronized long getTeamCalculationCount(String managerId) {
+        Aggregate aggregate = teamAggregates.get(managerId);
+        return aggregate != null ? aggregate.count : 0;
+    }
+
+    /**
+     * Gets the net commission total of a single rep.
+     */
+    public synchronized BigDecimal getRepTotal(String salesRepId) {
+        Aggregate aggregate = repAggregates.get(salesRepId);
+        return aggregate != null ? aggregate.total : BigDecimal.ZERO;
+    }
+
+    /**
+     * Evaluates a team performance bonus for a manager's team.
+     *
+     * @param rule The bonus rule; rules of other types are ignored
+     * @param managerId The ID of the team's manager
+     * @param date The date on which the rule must be active
+     * @return The bonus, or null if the rule does not apply
+     */
+    public BonusCalculation evaluateTeamBonus(BonusRule rule, String managerId, LocalDate date) {
+        if (rule.getType() != BonusRule.BonusType.TEAM_PERFORMANCE || !rule.isActiveOn(date)) {
+            return null;
+        }
+        BigDecimal teamTotal = getTeamTotal(managerId);
+        for (RuleCondition condition : rule.getConditions()) {
+            if (TEAM_TOTAL_FIELD.equals(condition.getField()) && !meets(teamTotal, condition)) {
+                return null;
+            }
+        }
+        return new BonusCalculation(rule.getId(), rule.getName(), rule.calculateBonus(teamTotal));
+    }
+
+    /**
+     * Adds the plan's team performance bonuses for the calculation's rep, based on the team of
+     * the rep's direct manager.
+     */
+    public void applyTeamBonuses(CommissionCalculation calculation, CommissionPlan plan, LocalDate date) {
+        String managerId;
+        synchronized (this) {
+            managerId = managersByUser.get(calculation.getSalesRepId());
+        }
+        if (managerId == null) {
+            return;
+        }
+        for (BonusRule rule : plan.getBonuses()) {
+            BonusCalculation bonus = evaluateTeamBonus(rule, managerId, date);
+            if (bonus != null) {
+                calculation.addBonus(bonus);
+            }
+        }
+    }
+
+    /**
+     * Clears all totals, e.g. at the start of a new period. The hierarchy is kept.
+     */
+    public synchronized void reset() {
+        repAggregates.clear();
+        teamAggregates.clear();
+        contributions.clear();
+    }
+
+    private void apply(String salesRepId, BigDecimal amount, long count) {
+        repAggregates.computeIfAbsent(salesRepId, k -> new Aggregate()).add(amount, count);
+        addToChain(ancestorsOf(salesRepId), amount, count);
+    }
+
+    private void addToChain(List<String> managers, BigDecimal amount, long count) {
+        for (String managerId : managers) {
+            teamAggregates.computeIfAbsent(managerId, k -> new Aggregate()).add(amount, count);
+        }
+    }
+
+    /**
+     * Gets a user's own total plus the total of their team.
+     */
+    private Aggregate subtreeOf(String userId) {
+        Aggregate subtree = new Aggregate();
+        Aggregate own = repAggregates.get(userId);
+        if (own != null) {
+            subtree.add(own.total, own.count);
+        }
+        Aggregate team = teamAggregates.get(userId);
+        if (team != null) {
+            subtree.add(team.total, team.count);
+        }
+        return subtree;
+    }
+
+    private List<String> ancestorsOf(String userId) {
+        return ancestorsByUser.computeIfAbsent(userId, id -> {
+            List<String> ancestors = new ArrayList<>();
+            for (String manager = managersByUser.get(id); manager != null; manager = managersByUser.get(manager)) {
+                ancestors.add(manager);
+            }
+            return Collections.unmodifiableList(ancestors);
+        });
+    }
+
+    private boolean meets(BigDecimal teamTotal, RuleCondition condition) {
+        int comparison = teamTotal.compareTo(new BigDecimal(condition.getValue()));
+        return switch (condition.getOperator()) {
+            case GREATER_THAN -> comparison > 0;
+            case GREATER_THAN_OR_EQUALS -> comparison >= 0;
+            case LESS_THAN -> comparison < 0;
+            case LESS_THAN_OR_EQUALS -> comparison <= 0;
+            case EQUALS -> comparison == 0;
+            case NOT_EQUALS -> comparison != 0;
+            default -> throw new IllegalArgumentException("Unsupported operator for " + TEAM_TOTAL_FIELD + ": "
+                    + condition.getOperator());
+        };
+    }
+
+    private static class Aggregate {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+
+        void add(BigDecimal amount, long count) {
+            this.total = this.total.add(amount);
+            this.count += count;
+        }
+    }
+
+    private record Contribution(String salesRepId, BigDecimal amount) {
+    }
+}
@@ -1,5 +1,8 @@
 package com.chapman.edu.commissions;
 
+import com.chapman.edu.commissions.model.AcceleratorCalculation;
+import com.chapman.edu.commissions.model.BonusCalculation;
+import com.chapman.edu.commissions.model.CommissionCalculation;
 import com.chapman.edu.commissions.model.CommissionPlan;
 import com.chapman.edu.commissions.model.Deal;
 import com.chapman.edu.commissions.model.User;
@@ -73,4 +76,28 @@ public class CommissionCalculatorTest {
         
         System.out.println("[DEBUG_LOG] Deal model test passed");
     }
-}
\ No newline at end of file
+    
+    /**
+     * Test that CommissionCalculation keeps its running totals in step with its adjustments.
+     */
+    @Test
+    public void testCommissionCalculationTotals() {
+        CommissionCalculation calculation = new CommissionCalculation("1", "1", new BigDecimal("1000"));
+        calculation.addBonus(new BonusCalculation("B1", "Large Deal Bonus", new BigDecimal("500")));
+        calculation.addBonus(new BonusCalculation("B2", "SPIF", new BigDecimal("100")));
+        calculation.addAccelerator(new AcceleratorCalculation("A1", "Premium Deal", new BigDecimal("1.5")));
+        calculation.recalculate();
+        
+        assertEquals(0, new BigDecimal("2400").compareTo(calculation.getGrossCommission()),
+                "Gross commission should be (base + bonuses) * accelerators");
+        assertThrows(UnsupportedOperationException.class,
+                () -> calculation.getBonuses().add(new BonusCalculation("B3", "Hidden", BigDecimal.TEN)),
+                "Bonuses should only change through addBonus or setBonuses");
+        
+        calculation.setAccelerators(null);
+        assertEquals(0, new BigDecimal("1600").compareTo(calculation.calculateTotalCommission()),
+                "Clearing accelerators should reset the multiplier");
+        
+        System.out.println("[DEBUG_LOG] CommissionCalculation totals test passed");
+    }
+}
@@ -0,0 +1,115 @@
+package com.chapman.edu.commissions.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the cached totals of Deal and DealProduct.
+ */
+public class DealTotalsTest {
+
+    /**
+     * Test that cached totals are cleared by every change to the products of a deal and
+     * that concurrent readers all see the same total.
+     */
+    @Test
+    public void testTotalsFollowProductChanges() throws Exception {
+        Deal deal = new Deal();
+        DealProduct licence = new DealProduct("SOFTWARE", "Licence", 2, new BigDecimal("100.00"));
+        deal.addProduct(licence);
+        assertEquals(new BigDecimal("200.00"), deal.calculateTotalValue(), "Initial total");
+        assertSame(deal.calculateTotalValue(), deal.calculateTotalValue(), "Total should be cached");
+
+        deal.addProduct(new DealProduct("SERVICE", "Setup", 1, new BigDecimal("50.00")));
+        assertEquals(new BigDecimal("250.00"), deal.calculateTotalValue(), "Total after addProduct");
+
+        licence.setQuantity(3);
+        assertEquals(new BigDecimal("350.00"), deal.calculateTotalValue(), "Total after setQuantity");
+        licence.setPrice(new BigDecimal("10.00"));
+        assertEquals(new BigDecimal("80.00"), deal.calculateTotalValue(), "Total after setPrice");
+
+        licence.setDiscount(new BigDecimal("5.00"));
+        assertEquals(new BigDecimal("25.00"), licence.calculateTotalPrice(), "Line total after setDiscount");
+        assertEquals(new BigDecimal("80.00"), deal.calculateTotalValue(), "Deal total is before discounts");
+
+        DealProduct course = new DealProduct("TRAINING", "Course", 1, new BigDecimal("20.00"));
+        assertThrows(UnsupportedOperationException.class, () -> deal.getProducts().add(course),
+                "The product list should only change through addProduct");
+        assertThrows(UnsupportedOperationException.class, () -> deal.getProducts().set(0, course),
+                "Products should not be replaced through the list");
+        assertThrows(UnsupportedOperationException.class, () -> deal.getProducts().remove(0),
+                "Products should not be removed through the list");
+        assertEquals(new BigDecimal("80.00"), deal.calculateTotalValue(), "Rejected changes should leave the total");
+        deal.addProduct(course);
+        course.setPrice(new BigDecimal("30.00"));
+        assertEquals(new BigDecimal("110.00"), deal.calculateTotalValue(), "Total after changing an added product");
+
+        long version = deal.getVersion();
+        List<DealProduct> replacement = new ArrayList<>();
+        replacement.add(new DealProduct("HARDWARE", "Server", 4, new BigDecimal("1000.00")));
+        deal.setProducts(replacement);
+        assertTrue(deal.getVersion() > version, "Replacing the products should change the version");
+        assertEquals(new BigDecimal("4000.00"), deal.calculateTotalValue(), "Total after setProducts");
+        replacement.get(0).setQuantity(5);
+        assertEquals(new BigDecimal("5000.00"), deal.calculateTotalValue(), "Total after changing a new product");
+        replacement.add(new DealProduct("SERVICE", "Rack", 1, new BigDecimal("100.00")));
+        assertEquals(1, deal.getProducts().size(), "Later changes to the given list should not reach the deal");
+        assertEquals(new BigDecimal("5000.00"), deal.calculateTotalValue(), "Total after changing the given list");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BigDecimal>> readers = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                readers.add(executor.submit(deal::calculateTotalValue));
+            }
+            for (Future<BigDecimal> reader : readers) {
+                assertEquals(new BigDecimal("5000.00"), reader.get(), "Concurrent readers should agree");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        System.out.println("[DEBUG_LOG] Deal totals test passed");
+    }
+
+    /**
+     * Test that a product cannot belong to two deals at once, so a change to it always reaches
+     * the deal whose total includes it.
+     */
+    @Test
+    public void testProductsAreNotSharedBetweenDeals() {
+        Deal first = new Deal();
+        DealProduct licence = new DealProduct("SOFTWARE", "Licence", 2, new BigDecimal("100.00"));
+        first.addProduct(licence);
+        Deal second = new Deal();
+        second.addProduct(new DealProduct("SERVICE", "Setup", 1, new BigDecimal("50.00")));
+        assertEquals(new BigDecimal("50.00"), second.calculateTotalValue(), "Initial total");
+
+        assertThrows(IllegalArgumentException.class, () -> second.setProducts(first.getProducts()),
+                "Products of another deal should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> second.addProduct(licence),
+                "A product of another deal should be rejected");
+        assertEquals(1, second.getProducts().size(), "A rejected change should leave the products");
+        assertEquals(new BigDecimal("50.00"), second.calculateTotalValue(), "A rejected change should leave the total");
+
+        first.setProducts(first.getProducts());
+        assertEquals(new BigDecimal("200.00"), first.calculateTotalValue(), "A deal may be given its own products again");
+
+        first.setProducts(new ArrayList<>());
+        second.addProduct(licence);
+        assertEquals(new BigDecimal("250.00"), second.calculateTotalValue(), "A released product may join another deal");
+        licence.setQuantity(5);
+        assertEquals(new BigDecimal("550.00"), second.calculateTotalValue(), "Changes should reach the new deal");
+        assertEquals(BigDecimal.ZERO, first.calculateTotalValue(), "The old deal should not include the product");
+
+        System.out.println("[DEBUG_LOG] Deal product ownership test passed");
+    }
+}
@@ -0,0 +1,67 @@
+package com.chapman.edu.commissions.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the IdDictionary class.
+ */
+public class IdDictionaryTest {
+
+    /**
+     * Test that ordinals are dense, stable, separate per kind of ID and unique when assigned
+     * concurrently, and that model objects resolve their ordinals from the global dictionary.
+     */
+    @Test
+    public void testOrdinalsAreDenseAndStable() throws Exception {
+        IdDictionary dictionary = new IdDictionary();
+        assertEquals(0, dictionary.ordinalOf(IdDictionary.IdType.SALES_REP, "SALES-001"), "First ordinal");
+        assertEquals(1, dictionary.ordinalOf(IdDictionary.IdType.SALES_REP, "SALES-002"), "Second ordinal");
+        assertEquals(0, dictionary.ordinalOf(IdDictionary.IdType.SALES_REP, "SALES-001"), "Ordinal should be stable");
+        assertEquals(0, dictionary.ordinalOf(IdDictionary.IdType.PLAN, "SALES-001"), "Kinds should be separate");
+        assertEquals(IdDictionary.NO_ORDINAL, dictionary.findOrdinal(IdDictionary.IdType.PRODUCT, "SOFTWARE"),
+                "findOrdinal should not assign");
+        assertEquals(IdDictionary.NO_ORDINAL, dictionary.ordinalOf(IdDictionary.IdType.PRODUCT, null), "Null ID");
+        assertEquals("SALES-002", dictionary.idOf(IdDictionary.IdType.SALES_REP, 1), "Reverse lookup");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                String id = "PRODUCT-" + (i % 500);
+                futures.add(executor.submit(() -> dictionary.ordinalOf(IdDictionary.IdType.PRODUCT, id)));
+            }
+            Set<Integer> ordinals = ConcurrentHashMap.newKeySet();
+            for (Future<Integer> future : futures) {
+                ordinals.add(future.get());
+            }
+            assertEquals(500, ordinals.size(), "Each ID should get exactly one ordinal");
+            assertEquals(500, dictionary.size(IdDictionary.IdType.PRODUCT), "Ordinals should be dense");
+            for (int ordinal = 0; ordinal < 500; ordinal++) {
+                String id = dictionary.idOf(IdDictionary.IdType.PRODUCT, ordinal);
+                assertEquals(ordinal, dictionary.findOrdinal(IdDictionary.IdType.PRODUCT, id), "Round trip");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Deal deal = new Deal("Deal", BigDecimal.TEN, "SALES-DICT-1");
+        int ordinal = deal.getSalesRepOrdinal();
+        assertEquals("SALES-DICT-1", IdDictionary.global().idOf(IdDictionary.IdType.SALES_REP, ordinal),
+                "Deal should resolve its rep ordinal from the global dictionary");
+        deal.setSalesRepId("SALES-DICT-2");
+        assertNotEquals(ordinal, deal.getSalesRepOrdinal(), "Changing the rep ID should change the ordinal");
+
+        System.out.println("[DEBUG_LOG] ID dictionary test passed");
+    }
+}
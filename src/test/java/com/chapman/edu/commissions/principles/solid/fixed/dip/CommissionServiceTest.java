@@ -0,0 +1,167 @@
+package com.chapman.edu.commissions.principles.solid.fixed.dip;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CommissionService class.
+ */
+public class CommissionServiceTest {
+
+    /**
+     * Test that two concurrent callers for the same deal share one calculation.
+     */
+    @Test
+    public void testConcurrentCallersShareOneCalculation() throws Exception {
+        StubDatabase database = new StubDatabase(deal());
+        JoinLogger logger = new JoinLogger();
+        AtomicInteger emails = new AtomicInteger();
+        CommissionService service = new CommissionService(database, logger, emailService(emails));
+
+        CompletableFuture<CommissionCalculation> first = CompletableFuture.supplyAsync(
+                () -> service.calculateCommission("DEAL-001", "SALES-001"));
+        assertTrue(database.reading.await(5, TimeUnit.SECONDS), "First caller should start the calculation");
+        CompletableFuture<CommissionCalculation> second = CompletableFuture.supplyAsync(
+                () -> service.calculateCommission("DEAL-001", "SALES-001"));
+        assertTrue(logger.joined.await(5, TimeUnit.SECONDS), "Second caller should join the running calculation");
+        database.release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS), "Both callers should get the same result");
+        assertEquals(1, database.reads.get(), "The deal should be read once");
+        assertEquals(1, database.saves.get(), "The calculation should be saved once");
+        assertEquals(1, emails.get(), "The sales rep should be emailed once");
+
+        System.out.println("[DEBUG_LOG] Single-flight sharing test passed");
+    }
+
+    /**
+     * Test that a failed calculation is passed to every waiting caller and is not kept, so the
+     * next call calculates again.
+     */
+    @Test
+    public void testFailureIsSharedAndNotKept() throws Exception {
+        StubDatabase database = new StubDatabase(null);
+        JoinLogger logger = new JoinLogger();
+        CommissionService service = new CommissionService(database, logger, emailService(new AtomicInteger()));
+
+        CompletableFuture<CommissionCalculation> first = CompletableFuture.supplyAsync(
+                () -> service.calculateCommission("DEAL-001", "SALES-001"));
+        assertTrue(database.reading.await(5, TimeUnit.SECONDS), "First caller should start the calculation");
+        CompletableFuture<CommissionCalculation> second = CompletableFuture.supplyAsync(
+                () -> service.calculateCommission("DEAL-001", "SALES-001"));
+        assertTrue(logger.joined.await(5, TimeUnit.SECONDS), "Second caller should join the running calculation");
+        database.release.countDown();
+
+        ExecutionException firstFailure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        ExecutionException secondFailure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertSame(firstFailure.getCause(), secondFailure.getCause(), "Both callers should get the same exception");
+
+        database.deal = deal();
+        CommissionCalculation retried = service.calculateCommission("DEAL-001", "SALES-001");
+        assertNotNull(retried, "A call after the failure should calculate again");
+        assertEquals(2, database.reads.get(), "The failed calculation should not be reused");
+
+        System.out.println("[DEBUG_LOG] Single-flight failure test passed");
+    }
+
+    private Deal deal() {
+        Deal deal = new Deal("Enterprise License", new BigDecimal("10000"), "SALES-001");
+        deal.setId("DEAL-001");
+        return deal;
+    }
+
+    private EmailService emailService(AtomicInteger emails) {
+        return new EmailService() {
+            @Override
+            public void sendEmail(String toAddress, String subject, String body) {
+                emails.incrementAndGet();
+            }
+
+            @Override
+            public void sendEmailWithAttachment(String toAddress, String subject, String body, String attachmentPath) {
+                emails.incrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * A database whose first deal read waits until the test releases it.
+     */
+    private static class StubDatabase implements Database {
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger reads = new AtomicInteger();
+        final AtomicInteger saves = new AtomicInteger();
+        volatile Deal deal;
+
+        StubDatabase(Deal deal) {
+            this.deal = deal;
+        }
+
+        @Override
+        public Deal getDealById(String dealId) {
+            reads.incrementAndGet();
+            reading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return deal;
+        }
+
+        @Override
+        public User getUserById(String userId) {
+            User user = new User();
+            user.setId(userId);
+            user.setFirstName("Jane");
+            user.setLastName("Smith");
+            user.setEmail("jane.smith@example.com");
+            return user;
+        }
+
+        @Override
+        public void saveCommissionCalculation(CommissionCalculation calculation) {
+            saves.incrementAndGet();
+        }
+
+        @Override
+        public List<CommissionCalculation> getCommissionCalculationsBySalesRep(String salesRepId) {
+            return List.of();
+        }
+    }
+
+    /**
+     * A logger that signals when a caller joins a running calculation.
+     */
+    private static class JoinLogger implements Logger {
+        final CountDownLatch joined = new CountDownLatch(1);
+
+        @Override
+        public void logInfo(String message) {
+            if (message.startsWith("Joining in-flight")) {
+                joined.countDown();
+            }
+        }
+
+        @Override
+        public void logError(String message) {
+        }
+
+        @Override
+        public void logError(String message, Exception e) {
+        }
+    }
+}
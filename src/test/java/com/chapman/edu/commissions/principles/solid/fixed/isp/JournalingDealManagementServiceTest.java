@@ -0,0 +1,151 @@
+package com.chapman.edu.commissions.principles.solid.fixed.isp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.principles.solid.fixed.srp.DealMutationJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the JournalingDealManagementService class.
+ */
+public class JournalingDealManagementServiceTest {
+
+    /**
+     * Test that creates, updates and deletes are journaled, and that deleting an unknown
+     * deal is not.
+     */
+    @Test
+    public void testChangesAreJournaled(@TempDir Path tempDir) {
+        try (DealMutationJournal journal = new DealMutationJournal(tempDir.resolve("deals.journal"))) {
+            InMemoryDealManagementService delegate = new InMemoryDealManagementService();
+            DealManagementService service = new JournalingDealManagementService(delegate, journal);
+
+            Deal created = service.createDeal(new Deal("Enterprise License", new BigDecimal("10000"), "SALES-001"));
+            created.setTitle("Enterprise License Renewal");
+            service.updateDeal(created);
+            service.deleteDeal("DEAL-UNKNOWN");
+            service.deleteDeal(created.getId());
+            service.deleteDeal(created.getId());
+
+            List<DealMutationJournal.Mutation> mutations = journal.read(0, 10);
+            assertEquals(3, mutations.size(), "Only changes that were made should be journaled");
+            assertEquals(DealMutationJournal.MutationType.CREATE, mutations.get(0).getType(), "First record");
+            assertEquals(DealMutationJournal.MutationType.UPDATE, mutations.get(1).getType(), "Second record");
+            assertEquals("Enterprise License Renewal", mutations.get(1).getDeal().getTitle(), "Updated title");
+            assertEquals(DealMutationJournal.MutationType.DELETE, mutations.get(2).getType(), "Third record");
+            assertEquals(created.getId(), mutations.get(2).getDealId(), "Deleted deal");
+        }
+
+        System.out.println("[DEBUG_LOG] Journaling deal service test passed");
+    }
+
+    /**
+     * Test that concurrent updates to one deal are journaled in the order the wrapped service
+     * made them.
+     */
+    @Test
+    public void testConcurrentUpdatesAreJournaledInOrder(@TempDir Path tempDir) throws Exception {
+        try (DealMutationJournal journal = new DealMutationJournal(tempDir.resolve("deals.journal"))) {
+            InMemoryDealManagementService delegate = new InMemoryDealManagementService();
+            DealManagementService service = new JournalingDealManagementService(delegate, journal);
+            Deal deal = service.createDeal(new Deal("Enterprise License", new BigDecimal("10000"), "SALES-001"));
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            try {
+                List<Future<?>> writers = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    String title = "Update " + i;
+                    writers.add(executor.submit(() -> {
+                        start.await();
+                        Deal update = new Deal(title, new BigDecimal("10000"), "SALES-001");
+                        update.setId(deal.getId());
+                        service.updateDeal(update);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> writer : writers) {
+                    writer.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            List<String> journaledTitles = new ArrayList<>();
+            for (DealMutationJournal.Mutation mutation : journal.read(1, 500)) {
+                journaledTitles.add(mutation.getDeal().getTitle());
+            }
+            assertEquals(delegate.getAppliedTitles(), journaledTitles,
+                    "Updates should be journaled in the order they were applied");
+            assertEquals(journaledTitles.get(journaledTitles.size() - 1), delegate.getDealById(deal.getId()).getTitle(),
+                    "The last journaled update should match the stored deal");
+        }
+
+        System.out.println("[DEBUG_LOG] Journaling deal service ordering test passed");
+    }
+
+    /**
+     * A deal management service that keeps deals in a map and remembers the order of updates.
+     */
+    private static class InMemoryDealManagementService implements DealManagementService {
+        private final Map<String, Deal> deals = new ConcurrentHashMap<>();
+        private final List<String> appliedTitles = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger nextId = new AtomicInteger(1);
+
+        @Override
+        public Deal createDeal(Deal deal) {
+            deal.setId("DEAL-" + nextId.getAndIncrement());
+            deals.put(deal.getId(), deal);
+            return deal;
+        }
+
+        @Override
+        public Deal updateDeal(Deal deal) {
+            deals.put(deal.getId(), deal);
+            appliedTitles.add(deal.getTitle());
+            // Give a racing update the chance to overtake this one before it is journaled
+            Thread.yield();
+            return deal;
+        }
+
+        @Override
+        public Deal getDealById(String dealId) {
+            return deals.get(dealId);
+        }
+
+        @Override
+        public List<Deal> getAllDeals() {
+            return new ArrayList<>(deals.values());
+        }
+
+        @Override
+        public List<Deal> getDealsBySalesRep(String salesRepId) {
+            return deals.values().stream().filter(deal -> salesRepId.equals(deal.getSalesRepId())).toList();
+        }
+
+        @Override
+        public void deleteDeal(String dealId) {
+            deals.remove(dealId);
+        }
+
+        List<String> getAppliedTitles() {
+            return new ArrayList<>(appliedTitles);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.chapman.edu.commissions.principles.solid.fixed.isp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.User;
+import com.chapman.edu.commissions.model.UserRole;
+import com.chapman.edu.commissions.principles.solid.fixed.srp.CancellationToken;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ReportingClient class.
+ */
+public class ReportingClientTest {
+
+    /**
+     * Test that a system-wide report that is not stopped lists every sales rep and a total.
+     */
+    @Test
+    public void testSystemWideReportFinishes() {
+        ReportingClient client = new ReportingClient(new StubUsers(3), new StubCalculations(id -> { }));
+        String report = new String(client.generateSystemWideReport("2024-01-01", "2024-03-31", CancellationToken.create()),
+                StandardCharsets.UTF_8);
+
+        assertEquals("sales_rep_id,calculations,net_commission\n"
+                + "SALES-001,1,100\n"
+                + "SALES-002,1,100\n"
+                + "SALES-003,1,100\n"
+                + "TOTAL,3,300\n", report, "Report should list every sales rep in the period");
+
+        System.out.println("[DEBUG_LOG] System-wide report test passed");
+    }
+
+    /**
+     * Test that cancelling a running report stops it before the next sales rep and says how far it got.
+     */
+    @Test
+    public void testCancelStopsReportBetweenSalesReps() {
+        CancellationToken token = CancellationToken.create();
+        List<String> visited = new ArrayList<>();
+        ReportingClient client = new ReportingClient(new StubUsers(5), new StubCalculations(id -> {
+            visited.add(id);
+            if (id.equals("SALES-002")) {
+                token.cancel();
+            }
+        }));
+
+        ReportStoppedException stopped = assertThrows(ReportStoppedException.class,
+                () -> client.generateSystemWideReport("2024-01-01", "2024-03-31", token));
+        assertEquals(2, stopped.getCompletedCount(), "Two sales reps should have been finished");
+        assertEquals(5, stopped.getTotalCount(), "Total should be every sales rep");
+        assertEquals(CancellationToken.StopReason.CANCELLED, stopped.getStopReason(), "Report should be cancelled");
+        assertEquals(List.of("SALES-001", "SALES-002"), visited, "No sales rep should be read after the cancel");
+
+        System.out.println("[DEBUG_LOG] Report cancel test passed");
+    }
+
+    /**
+     * Test that a report whose deadline has passed stops before reading anything.
+     */
+    @Test
+    public void testDeadlineStopsReport() {
+        List<String> visited = new ArrayList<>();
+        ReportingClient client = new ReportingClient(new StubUsers(3), new StubCalculations(visited::add));
+
+        ReportStoppedException stopped = assertThrows(ReportStoppedException.class,
+                () -> client.generateSystemWideReport("2024-01-01", "2024-03-31", CancellationToken.withTimeout(Duration.ZERO)));
+        assertEquals(0, stopped.getCompletedCount(), "No sales rep should have been finished");
+        assertEquals(CancellationToken.StopReason.DEADLINE_EXCEEDED, stopped.getStopReason(), "Deadline should be reported");
+        assertTrue(visited.isEmpty(), "No calculations should be read after the deadline");
+
+        System.out.println("[DEBUG_LOG] Report deadline test passed");
+    }
+
+    /**
+     * User management service holding a fixed number of sales reps.
+     */
+    private static class StubUsers implements UserManagementService {
+        private final List<User> users = new ArrayList<>();
+
+        StubUsers(int salesReps) {
+            for (int i = salesReps; i >= 1; i--) {
+                User user = new User("rep" + i, "rep" + i + "@example.com", "Rep", String.valueOf(i));
+                user.setId(String.format("SALES-%03d", i));
+                user.addRole(UserRole.SALES_REP);
+                users.add(user);
+            }
+            User admin = new User("admin", "admin@example.com", "Admin", "User");
+            admin.setId("ADMIN-001");
+            admin.addRole(UserRole.SYSTEM_ADMIN);
+            users.add(admin);
+        }
+
+        @Override
+        public List<User> getAllUsers() {
+            return users;
+        }
+
+        @Override
+        public User getUserById(String userId) {
+            return users.stream().filter(user -> user.getId().equals(userId)).findFirst().orElse(null);
+        }
+
+        @Override
+        public User createUser(User user) {
+            return user;
+        }
+
+        @Override
+        public User updateUser(User user) {
+            return user;
+        }
+
+        @Override
+        public void deleteUser(String userId) {
+        }
+
+        @Override
+        public boolean authenticateUser(String username, String password) {
+            return false;
+        }
+
+        @Override
+        public void changePassword(String userId, String oldPassword, String newPassword) {
+        }
+    }
+
+    /**
+     * Calculation service giving each sales rep one calculation in the period and one outside it.
+     */
+    private static class StubCalculations implements CommissionCalculationService {
+        private final Consumer<String> onRead;
+
+        StubCalculations(Consumer<String> onRead) {
+            this.onRead = onRead;
+        }
+
+        @Override
+        public List<CommissionCalculation> getCalculationsBySalesRep(String salesRepId) {
+            onRead.accept(salesRepId);
+            CommissionCalculation inPeriod = new CommissionCalculation("DEAL-" + salesRepId, salesRepId, new BigDecimal("100"));
+            inPeriod.setCalculationDate(LocalDate.of(2024, 2, 1));
+            CommissionCalculation outside = new CommissionCalculation("DEAL-" + salesRepId, salesRepId, new BigDecimal("900"));
+            outside.setCalculationDate(LocalDate.of(2023, 12, 31));
+            return List.of(inPeriod, outside);
+        }
+
+        @Override
+        public CommissionCalculation calculateCommission(String dealId, String planId) {
+            return null;
+        }
+
+        @Override
+        public CommissionCalculation recalculateCommission(String calculationId) {
+            return null;
+        }
+
+        @Override
+        public List<CommissionCalculation> getCalculationsByDeal(String dealId) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.chapman.edu.commissions.principles.solid.fixed.ocp;
+
+import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.IdDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for strategy dispatch in the OCP CommissionCalculator.
+ */
+public class CommissionCalculatorDispatchTest {
+
+    /**
+     * Test that keyed strategies are found by product ID and that registration order
+     * still decides between keyed and predicate strategies.
+     */
+    @Test
+    public void testDispatchKeepsRegistrationOrder() {
+        CommissionStrategy bulkLicences = new CommissionStrategy() {
+            @Override
+            public boolean appliesTo(DealProduct product) {
+                return product.getQuantity() >= 100;
+            }
+
+            @Override
+            public BigDecimal calculateCommission(DealProduct product) {
+                return BigDecimal.ONE;
+            }
+        };
+        CommissionStrategy software = new SoftwareCommissionStrategy();
+        CommissionStrategy training = new TrainingCommissionStrategy();
+        CommissionCalculator calculator = new CommissionCalculator(List.of(software, bulkLicences));
+        calculator.addCommissionStrategy(training);
+
+        DealProduct bulkSoftware = new DealProduct("SOFTWARE", "Licence", 500, new BigDecimal("10"));
+        DealProduct bulkTraining = new DealProduct("TRAINING", "Seats", 500, new BigDecimal("10"));
+        DealProduct other = new DealProduct("SUPPORT", "Support", 1, new BigDecimal("10"));
+
+        assertSame(software, calculator.findStrategy(bulkSoftware), "Keyed strategy registered first should win");
+        assertSame(bulkLicences, calculator.findStrategy(bulkTraining), "Predicate registered first should win");
+        assertNull(calculator.findStrategy(other), "No strategy should apply to an unknown product");
+
+        System.out.println("[DEBUG_LOG] Commission strategy dispatch test passed");
+    }
+
+    /**
+     * Test that neither registering a strategy nor looking up a product no strategy is
+     * registered for adds a product ID to the global dictionary.
+     */
+    @Test
+    public void testProductIdsStayOutOfGlobalDictionary() {
+        String customId = "CUSTOM-" + System.nanoTime();
+        CommissionStrategy custom = new CommissionStrategy() {
+            @Override
+            public String getProductId() {
+                return customId;
+            }
+
+            @Override
+            public boolean appliesTo(DealProduct product) {
+                return customId.equals(product.getProductId());
+            }
+
+            @Override
+            public BigDecimal calculateCommission(DealProduct product) {
+                return BigDecimal.ONE;
+            }
+        };
+        int productCount = IdDictionary.global().size(IdDictionary.IdType.PRODUCT);
+        CommissionCalculator calculator = new CommissionCalculator(List.of(custom));
+
+        DealProduct unknown = new DealProduct("UNKNOWN-" + System.nanoTime(), "Custom", 1, new BigDecimal("10"));
+
+        assertSame(custom, calculator.findStrategy(new DealProduct(customId, "Custom", 1, new BigDecimal("10"))),
+                "The registered strategy should be found by product ID");
+        assertNull(calculator.findStrategy(unknown), "No strategy should apply to an unknown product");
+        assertEquals(productCount, IdDictionary.global().size(IdDictionary.IdType.PRODUCT),
+                "The calculator should not grow the global dictionary");
+        assertEquals(IdDictionary.NO_ORDINAL, IdDictionary.global().findOrdinal(IdDictionary.IdType.PRODUCT, customId),
+                "The registered product ID should not have a global ordinal");
+
+        System.out.println("[DEBUG_LOG] Local product dictionary test passed");
+    }
+}
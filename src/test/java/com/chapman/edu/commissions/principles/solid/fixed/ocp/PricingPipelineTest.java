@@ -0,0 +1,69 @@
+package com.chapman.edu.commissions.principles.solid.fixed.ocp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.LineItemEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the PricingPipeline class.
+ */
+public class PricingPipelineTest {
+
+    /**
+     * Test that the single-pass pipeline returns the same totals as the three calculators.
+     */
+    @Test
+    public void testPipelineMatchesSeparateCalculators() {
+        Deal deal = new Deal();
+        deal.addProduct(new DealProduct("SOFTWARE", "Licence", 7, new BigDecimal("1234.56")));
+        deal.addProduct(new DealProduct("HARDWARE", "Server", 3, new BigDecimal("899.99")));
+        deal.addProduct(new DealProduct("SERVICE", "Setup", 1, new BigDecimal("450.10")));
+        deal.addProduct(new DealProduct("TRAINING", "Course", 12, new BigDecimal("99.95")));
+        deal.addProduct(new DealProduct("SUPPORT", "Support", 2, new BigDecimal("10.01")));
+
+        PricingPipeline.PricingResult result = new PricingPipeline().price(deal, "CA");
+
+        assertEquals(new CommissionCalculator().calculateCommission(deal), result.getCommission(), "Commission");
+        assertEquals(new DiscountCalculator().calculateDiscount(deal), result.getDiscount(), "Discount");
+        assertEquals(new TaxCalculator().calculateTax(deal, "CA"), result.getTax(), "Tax");
+
+        System.out.println("[DEBUG_LOG] Pricing pipeline test passed");
+    }
+
+    /**
+     * Test that a deal large enough to be evaluated in parallel gives the same totals as
+     * evaluating its lines one by one.
+     */
+    @Test
+    public void testLargeDealMatchesSequentialEvaluation() {
+        String[] productIds = {"SOFTWARE", "HARDWARE", "SERVICE", "TRAINING"};
+        Deal deal = new Deal();
+        for (int i = 0; i < LineItemEvaluator.PARALLEL_THRESHOLD * 3 + 17; i++) {
+            deal.addProduct(new DealProduct(productIds[i % 4], "Line " + i, 1 + i % 7,
+                    new BigDecimal(i % 1000).add(new BigDecimal("0.37"))));
+        }
+
+        CommissionCalculator commissionCalculator = new CommissionCalculator();
+        BigDecimal expectedCommission = BigDecimal.ZERO;
+        BigDecimal expectedValue = BigDecimal.ZERO;
+        for (DealProduct product : deal.getProducts()) {
+            expectedCommission = expectedCommission.add(
+                    commissionCalculator.findStrategy(product).calculateCommission(product));
+            expectedValue = expectedValue.add(product.getPrice().multiply(BigDecimal.valueOf(product.getQuantity())));
+        }
+
+        PricingPipeline.PricingResult result = new PricingPipeline().price(deal, "US");
+        assertEquals(expectedCommission.setScale(2), result.getCommission(), "Parallel commission should match");
+        assertEquals(expectedCommission.setScale(2), commissionCalculator.calculateCommission(deal),
+                "Calculator should match");
+        assertEquals(new TaxCalculator().calculateTax(deal, "US"), result.getTax(), "Tax");
+        assertEquals(0, expectedValue.compareTo(deal.calculateTotalValue()), "Deal total value should match");
+
+        System.out.println("[DEBUG_LOG] Large deal pricing test passed");
+    }
+}
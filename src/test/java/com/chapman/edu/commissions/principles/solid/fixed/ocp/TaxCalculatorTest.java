@@ -0,0 +1,164 @@
+package com.chapman.edu.commissions.principles.solid.fixed.ocp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealProduct;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TaxCalculator class.
+ */
+public class TaxCalculatorTest {
+
+    /**
+     * Test that the batch calculation gives each deal the same tax as calculating it on its own,
+     * with the default strategy for countries that have no strategy of their own.
+     */
+    @Test
+    public void testBatchMatchesSingleDealCalculation() {
+        TaxCalculator calculator = new TaxCalculator();
+        Map<Deal, String> countryCodesByDeal = new LinkedHashMap<>();
+        countryCodesByDeal.put(deal("DEAL-001", "1000"), "US");
+        countryCodesByDeal.put(deal("DEAL-002", "250"), "UK");
+        countryCodesByDeal.put(deal("DEAL-003", "400"), "US");
+        countryCodesByDeal.put(deal("DEAL-004", "1000"), "FR");
+
+        Map<String, BigDecimal> taxByDeal = calculator.calculateTax(countryCodesByDeal);
+
+        assertEquals(4, taxByDeal.size(), "Every deal should have a tax amount");
+        for (Map.Entry<Deal, String> entry : countryCodesByDeal.entrySet()) {
+            assertEquals(0, calculator.calculateTax(entry.getKey(), entry.getValue())
+                            .compareTo(taxByDeal.get(entry.getKey().getId())),
+                    "Batch tax should match single tax for " + entry.getKey().getId());
+        }
+        assertEquals(0, new BigDecimal("85.00").compareTo(taxByDeal.get("DEAL-001")), "US tax is 8.5%");
+        assertEquals(0, new BigDecimal("50.00").compareTo(taxByDeal.get("DEAL-004")), "Default tax is 5%");
+
+        System.out.println("[DEBUG_LOG] Batch tax calculation test passed");
+    }
+
+    /**
+     * Test that the batch calculation rejects a deal without an ID instead of merging its result with another.
+     */
+    @Test
+    public void testBatchRejectsDealWithoutId() {
+        TaxCalculator calculator = new TaxCalculator();
+        Map<Deal, String> countryCodesByDeal = new LinkedHashMap<>();
+        countryCodesByDeal.put(deal("DEAL-001", "1000"), "US");
+        countryCodesByDeal.put(deal(null, "250"), "UK");
+
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculateTax(countryCodesByDeal),
+                "A deal without an ID should be rejected");
+
+        System.out.println("[DEBUG_LOG] Batch tax deal without ID test passed");
+    }
+
+    /**
+     * Test that a resolved strategy is cached and that adding a strategy replaces the cached one.
+     */
+    @Test
+    public void testAddedStrategyReplacesCachedStrategy() {
+        TaxStrategy fallback = new FixedTaxStrategy(null, "0.05");
+        TaxCalculator calculator = new TaxCalculator(List.of(new USTaxStrategy()), fallback);
+
+        assertSame(fallback, calculator.resolveStrategy("FR"), "France should use the default strategy");
+        assertSame(fallback, calculator.resolveStrategy("FR"), "The resolved strategy should be cached");
+
+        TaxStrategy france = new FixedTaxStrategy("FR", "0.20");
+        calculator.addTaxStrategy(france);
+
+        assertSame(france, calculator.resolveStrategy("FR"), "The added strategy should replace the cached one");
+        assertEquals(0, new BigDecimal("200.00").compareTo(calculator.calculateTax(deal("DEAL-001", "1000"), "FR")),
+                "Tax should use the added strategy");
+
+        System.out.println("[DEBUG_LOG] Tax strategy cache test passed");
+    }
+
+    /**
+     * Test that lookups racing with registrations never leave a stale strategy cached.
+     */
+    @Test
+    public void testRegistrationRacingWithLookups() throws Exception {
+        TaxStrategy fallback = new FixedTaxStrategy(null, "0.05");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 50; round++) {
+                TaxCalculator calculator = new TaxCalculator(List.of(), fallback);
+                String countryCode = "C" + round;
+                TaxStrategy added = new FixedTaxStrategy(countryCode, "0.10");
+                AtomicBoolean registered = new AtomicBoolean();
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?>[] readers = new Future<?>[3];
+                for (int i = 0; i < readers.length; i++) {
+                    readers[i] = executor.submit(() -> {
+                        start.await();
+                        while (!registered.get()) {
+                            calculator.resolveStrategy(countryCode);
+                        }
+                        return null;
+                    });
+                }
+                start.countDown();
+                calculator.addTaxStrategy(added);
+                registered.set(true);
+                for (Future<?> reader : readers) {
+                    reader.get();
+                }
+
+                assertSame(added, calculator.resolveStrategy(countryCode),
+                        "No lookup should leave the old strategy cached");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println("[DEBUG_LOG] Tax strategy registration race test passed");
+    }
+
+    private Deal deal(String id, String price) {
+        Deal deal = new Deal("Deal " + id, new BigDecimal(price), "SALES-001");
+        deal.setId(id);
+        deal.addProduct(new DealProduct("SOFTWARE", "Licence", 1, new BigDecimal(price)));
+        return deal;
+    }
+
+    /**
+     * A tax strategy with a fixed rate for one country, or for every country if none is given.
+     */
+    private static class FixedTaxStrategy implements TaxStrategy {
+        private final String countryCode;
+        private final BigDecimal rate;
+
+        FixedTaxStrategy(String countryCode, String rate) {
+            this.countryCode = countryCode;
+            this.rate = new BigDecimal(rate);
+        }
+
+        @Override
+        public boolean appliesTo(String countryCode) {
+            return this.countryCode == null || this.countryCode.equals(countryCode);
+        }
+
+        @Override
+        public BigDecimal calculateTax(DealProduct product) {
+            return calculateTax(new LineItemContext(product));
+        }
+
+        @Override
+        public BigDecimal calculateTax(LineItemContext line) {
+            return line.getProductTotal().multiply(rate).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
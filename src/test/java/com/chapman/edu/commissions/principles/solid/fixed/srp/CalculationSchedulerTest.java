@@ -0,0 +1,66 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CalculationScheduler class.
+ */
+public class CalculationSchedulerTest {
+
+    /**
+     * Test that an interactive request is served between bulk chunks instead of
+     * waiting for the bulk job to finish.
+     */
+    @Test
+    public void testInteractiveRequestIsNotStarvedByBulkWork() throws Exception {
+        CommissionPlan plan = new CommissionPlan();
+        plan.setId("PLAN-001");
+        Deal deal = new Deal();
+        deal.setId("DEAL-001");
+        deal.setSalesRepId("SALES-001");
+        deal.setValue(new BigDecimal("1000"));
+
+        CalculationScheduler scheduler = new CalculationScheduler(
+                new CommissionCalculator(new DatabaseServiceImpl()), 1, Duration.ofSeconds(5));
+        try {
+            List<Integer> items = new ArrayList<>(Collections.nCopies(100, 0));
+            CompletableFuture<List<Integer>> bulk = scheduler.submitBulk(items, 5, chunk -> {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return chunk;
+            });
+
+            CommissionCalculation calculation = scheduler.calculateInteractive(deal, plan).get(5, TimeUnit.SECONDS);
+            assertEquals(0, new BigDecimal("50").compareTo(calculation.getNetCommission()),
+                    "Interactive calculation should use the 5% default rate");
+            assertFalse(bulk.isDone(), "Interactive request should finish before the bulk job");
+
+            assertEquals(100, bulk.get(10, TimeUnit.SECONDS).size(), "Bulk job should process every item");
+        } finally {
+            scheduler.close();
+        }
+
+        assertEquals(1, scheduler.getMetrics(CalculationScheduler.Lane.INTERACTIVE).getCompletedCount(),
+                "One interactive task should be recorded");
+        assertEquals(20, scheduler.getMetrics(CalculationScheduler.Lane.BULK).getCompletedCount(),
+                "Each bulk chunk should be recorded as a task");
+
+        System.out.println("[DEBUG_LOG] Calculation scheduler priority test passed");
+    }
+}
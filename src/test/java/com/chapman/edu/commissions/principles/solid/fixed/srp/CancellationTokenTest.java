@@ -0,0 +1,71 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CancellationToken class.
+ */
+public class CancellationTokenTest {
+
+    /**
+     * Test the stop reasons reported for a cancel, a deadline and an interrupt.
+     */
+    @Test
+    public void testStopReasons() {
+        CancellationToken token = CancellationToken.create();
+        assertFalse(token.isStopRequested(), "A new token should not ask to stop");
+        assertNull(token.getRemaining(), "A token without a deadline has no time remaining");
+        token.cancel();
+        assertEquals(CancellationToken.StopReason.CANCELLED, token.getStopReason(), "Cancelled token");
+
+        CancellationToken expired = CancellationToken.withTimeout(Duration.ZERO);
+        assertEquals(CancellationToken.StopReason.DEADLINE_EXCEEDED, expired.getStopReason(), "Expired token");
+        assertEquals(Duration.ZERO, expired.getRemaining(), "No time should remain");
+
+        CancellationToken interrupted = CancellationToken.create();
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals(CancellationToken.StopReason.INTERRUPTED, interrupted.getStopReason(), "Interrupted thread");
+        } finally {
+            Thread.interrupted();
+        }
+
+        System.out.println("[DEBUG_LOG] Cancellation token reasons test passed");
+    }
+
+    /**
+     * Test that awaitStop waits out its timeout when nothing happens and returns early on a
+     * cancel or at the deadline.
+     */
+    @Test
+    public void testAwaitStop() throws Exception {
+        CancellationToken idle = CancellationToken.create();
+        assertFalse(idle.awaitStop(Duration.ofMillis(20)), "Nothing should stop an idle token");
+
+        CancellationToken token = CancellationToken.create();
+        CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            token.cancel();
+        });
+        long start = System.nanoTime();
+        assertTrue(token.awaitStop(Duration.ofSeconds(30)), "A cancel should end the wait");
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5, "The wait should end soon after the cancel");
+
+        CancellationToken deadline = CancellationToken.withTimeout(Duration.ofMillis(50));
+        start = System.nanoTime();
+        assertTrue(deadline.awaitStop(Duration.ofSeconds(30)), "The deadline should end the wait");
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5, "The wait should end at the deadline");
+
+        System.out.println("[DEBUG_LOG] Cancellation token await test passed");
+    }
+}
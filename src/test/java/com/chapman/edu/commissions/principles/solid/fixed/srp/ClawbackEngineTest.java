@@ -0,0 +1,176 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ClawbackEngine class.
+ */
+public class ClawbackEngineTest {
+
+    /**
+     * Test that cancelling a won deal reverses its paid calculation exactly once.
+     */
+    @Test
+    public void testCancelledDealIsReversedOnce() {
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        ClawbackEngine engine = new ClawbackEngine(databaseService, IdGenerationServiceImpl.defaultInstance());
+
+        Deal deal = new Deal("Enterprise License", new BigDecimal("10000"), "SALES-001");
+        deal.setId("DEAL-001");
+        deal.setStatus(DealStatus.WON);
+        engine.watch(deal);
+
+        CommissionCalculation paid = new CommissionCalculation();
+        paid.setId("CALC-001");
+        paid.setDealId("DEAL-001");
+        paid.setSalesRepId("SALES-001");
+        paid.setBaseCommission(new BigDecimal("500"));
+        paid.setGrossCommission(new BigDecimal("500"));
+        paid.setNetCommission(new BigDecimal("500"));
+        paid.setStatus(CommissionCalculation.CommissionStatus.PAID);
+        databaseService.saveCalculationToDatabase(paid);
+
+        deal.setStatus(DealStatus.CANCELLED);
+        deal.setStatus(DealStatus.LOST);
+        assertEquals(1, engine.getPendingCount(), "Only the change away from WON should be queued");
+
+        ClawbackEngine.ClawbackResult result = engine.processPending();
+        assertEquals(1, result.getReversals().size(), "Paid calculation should get one reversal");
+        assertEquals(0, new BigDecimal("-500").compareTo(result.getReversals().get(0).getNetCommission()),
+                "Reversal should negate the paid amount");
+        assertEquals(CommissionCalculation.CommissionStatus.REVERSED, paid.getStatus(),
+                "Paid calculation should be marked reversed");
+        assertEquals("CALC-001", result.getReversals().get(0).getAdjustedCalculationId(),
+                "Reversal should refer to the paid calculation");
+        assertEquals(2, databaseService.getCalculationsByDeal("DEAL-001").size(),
+                "Reversal should be saved against the deal");
+
+        deal.setStatus(DealStatus.WON);
+        deal.setStatus(DealStatus.CANCELLED);
+        assertTrue(engine.processPending().getReversals().isEmpty(), "A reversed calculation should not be reversed again");
+
+        System.out.println("[DEBUG_LOG] Clawback engine test passed");
+    }
+
+    /**
+     * Test that a deal won again before the queue is processed is not clawed back.
+     */
+    @Test
+    public void testDealWonAgainIsNotReversed() {
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        ClawbackEngine engine = new ClawbackEngine(databaseService, IdGenerationServiceImpl.defaultInstance());
+        CommissionCalculation paid = paid("CALC-001", "DEAL-001");
+        databaseService.saveCalculationToDatabase(paid);
+
+        Deal deal = wonDeal("DEAL-001");
+        engine.watch(deal);
+        deal.setStatus(DealStatus.CANCELLED);
+        deal.setStatus(DealStatus.WON);
+        assertEquals(0, engine.getPendingCount(), "Winning the deal again should take it off the queue");
+
+        // Queued through another copy of the deal, while the stored deal is won
+        Deal stale = wonDeal("DEAL-001");
+        engine.watch(stale);
+        stale.setStatus(DealStatus.LOST);
+        databaseService.saveDeal(deal);
+        ClawbackEngine.ClawbackResult result = engine.processPending();
+
+        assertTrue(result.getReversals().isEmpty(), "A deal that is won again should not be reversed");
+        assertEquals(CommissionCalculation.CommissionStatus.PAID, paid.getStatus(), "Paid calculation should be kept");
+
+        System.out.println("[DEBUG_LOG] Clawback re-won deal test passed");
+    }
+
+    /**
+     * Test that a paid calculation that was later adjusted is still clawed back.
+     */
+    @Test
+    public void testAdjustedCalculationIsReversed() {
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        ClawbackEngine engine = new ClawbackEngine(databaseService, IdGenerationServiceImpl.defaultInstance());
+        CommissionCalculation adjusted = paid("CALC-001", "DEAL-001");
+        adjusted.setStatus(CommissionCalculation.CommissionStatus.ADJUSTED);
+        databaseService.saveCalculationToDatabase(adjusted);
+
+        Deal deal = wonDeal("DEAL-001");
+        engine.watch(deal);
+        deal.setStatus(DealStatus.LOST);
+        ClawbackEngine.ClawbackResult result = engine.processPending();
+
+        assertEquals(1, result.getReversals().size(), "Adjusted calculation should be reversed");
+        assertEquals(CommissionCalculation.CommissionStatus.REVERSED, adjusted.getStatus(),
+                "Adjusted calculation should be marked reversed");
+
+        System.out.println("[DEBUG_LOG] Clawback adjusted calculation test passed");
+    }
+
+    /**
+     * Test that a reversal entry is settled by the next payout run and reduces the rep's payout.
+     */
+    @Test
+    public void testReversalIsSettledByPayoutRun(@TempDir Path tempDir) {
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        ClawbackEngine engine = new ClawbackEngine(databaseService, IdGenerationServiceImpl.defaultInstance());
+        databaseService.saveCalculationToDatabase(paid("CALC-001", "DEAL-001"));
+
+        Deal deal = wonDeal("DEAL-001");
+        engine.watch(deal);
+        deal.setStatus(DealStatus.LOST);
+        CommissionCalculation reversal = engine.processPending().getReversals().get(0);
+        assertEquals(CommissionCalculation.CommissionStatus.APPROVED, reversal.getStatus(),
+                "Reversal should wait for the payout run");
+
+        LocalDate today = LocalDate.now();
+        PayoutRunEngine.PayoutRunResult result = new PayoutRunEngine(databaseService, 10).run(
+                today, today, today, tempDir.resolve("payout.csv"));
+
+        assertEquals(1, result.getCalculationCount(), "The reversal should be settled");
+        assertEquals(0, new BigDecimal("-500").compareTo(result.getRepTotals().get("SALES-001")),
+                "The reversal should be deducted from the rep's payout");
+        assertEquals(CommissionCalculation.CommissionStatus.PAID, reversal.getStatus(),
+                "The settled reversal should be marked paid");
+
+        System.out.println("[DEBUG_LOG] Clawback settlement test passed");
+    }
+
+    /**
+     * Test that a status change of a watched deal without an ID is ignored instead of failing.
+     */
+    @Test
+    public void testDealWithoutIdIsIgnored() {
+        ClawbackEngine engine = new ClawbackEngine(new DatabaseServiceImpl(), IdGenerationServiceImpl.defaultInstance());
+        Deal deal = new Deal("Enterprise License", new BigDecimal("10000"), "SALES-001");
+        deal.setStatus(DealStatus.WON);
+        engine.watch(deal);
+
+        assertDoesNotThrow(() -> deal.setStatus(DealStatus.LOST), "Changing the deal's status should not fail");
+        assertEquals(DealStatus.LOST, deal.getStatus(), "The status change should be kept");
+        assertEquals(0, engine.getPendingCount(), "A deal without an ID should not be queued");
+
+        System.out.println("[DEBUG_LOG] Clawback deal without ID test passed");
+    }
+
+    private Deal wonDeal(String dealId) {
+        Deal deal = new Deal("Enterprise License", new BigDecimal("10000"), "SALES-001");
+        deal.setId(dealId);
+        deal.setStatus(DealStatus.WON);
+        return deal;
+    }
+
+    private CommissionCalculation paid(String id, String dealId) {
+        CommissionCalculation calculation = new CommissionCalculation(dealId, "SALES-001", new BigDecimal("500"));
+        calculation.setId(id);
+        calculation.setStatus(CommissionCalculation.CommissionStatus.PAID);
+        return calculation;
+    }
+}
@@ -0,0 +1,77 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.DealStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ColumnarDealStore class.
+ */
+public class ColumnarDealStoreTest {
+
+    /**
+     * Test that scans and aggregations over the columns match the stored deals, that stored
+     * deals can be replaced and removed, and that materialized deals round-trip.
+     */
+    @Test
+    public void testScansAndMaterialization() {
+        ColumnarDealStore store = new ColumnarDealStore(2);
+        for (int i = 0; i < 10; i++) {
+            store.put(deal("DEAL-" + i, i % 2 == 0 ? "SALES-001" : "SALES-002", "1000.005",
+                    i < 8 ? DealStatus.WON : DealStatus.OPEN, LocalDate.of(2024, 1 + i, 10)));
+        }
+        Deal withProducts = deal("DEAL-P", null, null, DealStatus.WON, LocalDate.of(2023, 12, 31));
+        withProducts.addProduct(new DealProduct("SOFTWARE", "Licence", 3, new BigDecimal("250.00")));
+        store.put(withProducts);
+
+        assertEquals(11, store.size(), "All deals should be stored");
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 6, 30);
+        assertEquals(6, store.count(DealStatus.WON, from, to), "Won deals closing in the first half");
+        assertEquals(0, new BigDecimal("6000.06").compareTo(store.sumValue(DealStatus.WON, from, to)),
+                "Values should be rounded to cents when stored");
+        Map<String, BigDecimal> byRep = store.sumValueByRep(DealStatus.WON, null, null);
+        assertEquals(0, new BigDecimal("4000.04").compareTo(byRep.get("SALES-001")), "Rep total");
+        assertEquals(2, byRep.size(), "Deals without a rep should be left out");
+        assertEquals(0, new BigDecimal("750.00").compareTo(store.sumValue(null, null, LocalDate.of(2023, 12, 31))),
+                "A deal without a value should be stored at its product total");
+
+        store.put(deal("DEAL-0", "SALES-002", "1", DealStatus.LOST, LocalDate.of(2024, 1, 10)));
+        assertEquals(11, store.size(), "Putting a stored ID should replace the row");
+        assertEquals(5, store.count(DealStatus.WON, from, to), "Replaced deal is no longer won");
+
+        assertTrue(store.remove("DEAL-1"), "Stored deal should be removed");
+        assertEquals(10, store.size(), "Size after removal");
+        assertEquals(-1, store.rowOf("DEAL-1"), "Removed deal should have no row");
+
+        int[] rows = store.select(DealStatus.OPEN, null, null);
+        assertEquals(2, rows.length, "Open deals");
+        Deal view = store.findDeal("DEAL-P");
+        assertEquals(DealStatus.WON, view.getStatus(), "Status should round-trip");
+        assertEquals(LocalDate.of(2023, 12, 31), view.getCloseDate(), "Close date should round-trip");
+        assertEquals(1, view.getProducts().size(), "Products should round-trip");
+        view.getProducts().get(0).setQuantity(100);
+        assertEquals(0, new BigDecimal("750.00").compareTo(store.findDeal("DEAL-P").calculateTotalValue()),
+                "Materialized deals should be detached from the store");
+        withProducts.getProducts().get(0).setQuantity(100);
+        assertEquals(0, new BigDecimal("750.00").compareTo(store.findDeal("DEAL-P").calculateTotalValue()),
+                "Stored deals should be detached from the deal that was put");
+
+        System.out.println("[DEBUG_LOG] Columnar deal store test passed");
+    }
+
+    private Deal deal(String id, String salesRepId, String value, DealStatus status, LocalDate closeDate) {
+        Deal deal = new Deal("Deal " + id, value != null ? new BigDecimal(value) : null, salesRepId);
+        deal.setId(id);
+        deal.setStatus(status);
+        deal.setCloseDate(closeDate);
+        return deal;
+    }
+}
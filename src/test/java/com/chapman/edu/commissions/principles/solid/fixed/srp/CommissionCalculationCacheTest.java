@@ -0,0 +1,157 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.BonusRule;
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.CommissionTier;
+import com.chapman.edu.commissions.model.Deal;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CommissionCalculationCache class.
+ */
+public class CommissionCalculationCacheTest {
+
+    /**
+     * Test that an unchanged deal and plan hit the cache and that changes to the plan's tiers
+     * and bonus rules and to the deal miss it.
+     */
+    @Test
+    public void testHitAndMissAfterMutation() {
+        CommissionCalculationCache cache = new CommissionCalculationCache(new CommissionCalculator(new DatabaseServiceImpl()), 10);
+        Deal deal = newDeal();
+        CommissionPlan plan = newPlan();
+
+        CommissionCalculation first = cache.getCalculation(deal, plan);
+        assertSame(first, cache.getCalculation(deal, plan), "Unchanged deal and plan should hit the cache");
+        assertEquals(1, cache.getHitCount(), "One hit");
+
+        plan.getTiers().get(0).setRate(new BigDecimal("10"));
+        CommissionCalculation afterTierChange = cache.getCalculation(deal, plan);
+        assertNotSame(first, afterTierChange, "Changing a tier's rate should miss the cache");
+
+        plan.getBonuses().get(0).setAmount(new BigDecimal("75"));
+        assertNotSame(afterTierChange, cache.getCalculation(deal, plan), "Changing a bonus rule should miss the cache");
+
+        deal.setValue(new BigDecimal("3000"));
+        assertEquals(0, new BigDecimal("150").compareTo(cache.getCalculation(deal, plan).getNetCommission()),
+                "Changing the deal should miss the cache");
+        assertEquals(4, cache.getMissCount(), "Each change should cause one miss");
+        assertEquals(1, cache.size(), "Superseded versions should be dropped");
+
+        assertThrows(UnsupportedOperationException.class, () -> plan.getTiers().clear(),
+                "Plan lists should only be changed through the plan");
+
+        System.out.println("[DEBUG_LOG] Cache hit and miss test passed");
+    }
+
+    /**
+     * Test that a result calculated for an older version does not replace a newer one that was
+     * cached while it was being calculated.
+     */
+    @Test
+    public void testNewerVersionWins() throws Exception {
+        CountDownLatch staleStarted = new CountDownLatch(1);
+        CountDownLatch releaseStale = new CountDownLatch(1);
+        Deal deal = newDeal();
+        long staleVersion = deal.getVersion();
+        CommissionCalculator calculator = new CommissionCalculator(new DatabaseServiceImpl()) {
+            @Override
+            public CommissionCalculation calculateCommission(Deal deal, CommissionPlan plan) {
+                CommissionCalculation calculation = super.calculateCommission(deal, plan);
+                if (deal.getVersion() == staleVersion) {
+                    staleStarted.countDown();
+                    try {
+                        releaseStale.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return calculation;
+            }
+        };
+        CommissionCalculationCache cache = new CommissionCalculationCache(calculator, 10);
+        CommissionPlan plan = newPlan();
+
+        CompletableFuture<CommissionCalculation> stale = CompletableFuture.supplyAsync(() -> cache.getCalculation(deal, plan));
+        assertTrue(staleStarted.await(5, TimeUnit.SECONDS), "Stale calculation should start");
+
+        deal.setValue(new BigDecimal("4000"));
+        CommissionCalculation fresh = cache.getCalculation(deal, plan);
+        releaseStale.countDown();
+        stale.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, cache.size(), "Only the newer version should be cached");
+        assertSame(fresh, cache.getCalculation(deal, plan), "The newer result should still be served");
+
+        System.out.println("[DEBUG_LOG] Cache newer version test passed");
+    }
+
+    /**
+     * Test that a deal replaced by a copy with the same ID and the same number of changes, but a
+     * different value, misses the cache.
+     */
+    @Test
+    public void testReplacedDealMissesCache() {
+        CommissionCalculationCache cache = new CommissionCalculationCache(new CommissionCalculator(new DatabaseServiceImpl()), 10);
+        CommissionPlan plan = newPlan();
+        Deal original = newDeal();
+        CommissionCalculation first = cache.getCalculation(original, plan);
+
+        Deal reloaded = new Deal("Enterprise License", new BigDecimal("4000"), "SALES-001");
+        reloaded.setId("DEAL-001");
+        CommissionCalculation second = cache.getCalculation(reloaded, plan);
+
+        assertNotSame(first, second, "A reloaded copy of the deal should miss the cache");
+        assertEquals(0, new BigDecimal("200").compareTo(second.getNetCommission()),
+                "The reloaded deal's value should be used");
+        assertSame(second, cache.getCalculation(reloaded, plan), "The reloaded deal should then hit the cache");
+
+        System.out.println("[DEBUG_LOG] Cache replaced deal test passed");
+    }
+
+    /**
+     * Test that a read-only copy keeps every field, including the adjustment link, and
+     * rejects changes to it.
+     */
+    @Test
+    public void testReadOnlyCopyKeepsAdjustmentLink() {
+        CommissionCalculation adjustment = new CommissionCalculation("DEAL-001", "SALES-001", new BigDecimal("25"));
+        adjustment.setId("ADJ-001");
+        adjustment.setAdjustedCalculationId("CALC-001");
+
+        CommissionCalculation copy = new ReadOnlyCommissionCalculation(adjustment);
+
+        assertEquals("CALC-001", copy.getAdjustedCalculationId(), "The adjustment link should be copied");
+        assertThrows(UnsupportedOperationException.class, () -> copy.setAdjustedCalculationId("CALC-002"),
+                "The adjustment link should be read-only");
+        assertThrows(UnsupportedOperationException.class, () -> copy.setStatus(CommissionCalculation.CommissionStatus.PAID),
+                "The status should be read-only");
+
+        System.out.println("[DEBUG_LOG] Read-only calculation test passed");
+    }
+
+    private Deal newDeal() {
+        Deal deal = new Deal("Enterprise License", new BigDecimal("2000"), "SALES-001");
+        deal.setId("DEAL-001");
+        return deal;
+    }
+
+    /**
+     * A plan paying 5% on every value, with a fixed bonus of 50.
+     */
+    private CommissionPlan newPlan() {
+        CommissionPlan plan = new CommissionPlan();
+        plan.setId("PLAN-001");
+        plan.addTier(new CommissionTier("Flat", BigDecimal.ZERO, null, new BigDecimal("5")));
+        plan.addBonus(new BonusRule("Launch SPIF", new BigDecimal("50"), false, BonusRule.BonusType.FIXED));
+        return plan;
+    }
+}
@@ -0,0 +1,91 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.BonusRule;
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.CommissionTier;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CommissionCalculator class.
+ */
+public class CommissionCalculatorTest {
+
+    /**
+     * Test that a deal earns the fixed 5% rate, the large-deal bonus and the premium accelerator,
+     * whatever tiers and bonus rules the plan defines.
+     */
+    @Test
+    public void testSimplifiedRatesIgnorePlanTiers() {
+        CommissionCalculator calculator = new CommissionCalculator(new DatabaseServiceImpl());
+        Deal deal = new Deal("Enterprise License", new BigDecimal("60000"), "SALES-001");
+        deal.setId("DEAL-001");
+
+        CommissionCalculation calculation = calculator.calculateCommission(deal, tieredPlan());
+
+        assertEquals(0, new BigDecimal("3000").compareTo(calculation.getBaseCommission()), "Base should be 5%");
+        assertEquals(1, calculation.getBonuses().size(), "Only the large-deal bonus should apply");
+        assertEquals(0, new BigDecimal("3570").compareTo(calculation.getNetCommission()),
+                "Net should be base plus 500 bonus, times the 1.02 accelerator");
+
+        System.out.println("[DEBUG_LOG] Simplified rates test passed");
+    }
+
+    /**
+     * Test that a small deal earns only the base rate.
+     */
+    @Test
+    public void testSmallDealEarnsBaseRateOnly() {
+        CommissionCalculator calculator = new CommissionCalculator(new DatabaseServiceImpl());
+        Deal deal = new Deal("Small Deal", new BigDecimal("8000"), "SALES-001");
+
+        CommissionCalculation calculation = calculator.calculateCommission(deal, new CommissionPlan());
+
+        assertTrue(calculation.getBonuses().isEmpty(), "No bonus should apply to a small deal");
+        assertEquals(0, new BigDecimal("400").compareTo(calculation.getNetCommission()), "Net should be 5%");
+
+        System.out.println("[DEBUG_LOG] Small deal test passed");
+    }
+
+    /**
+     * Test that the database-backed and in-memory paths pay the same for the same plan.
+     */
+    @Test
+    public void testDatabaseAndInMemoryPathsAgree() {
+        DatabaseServiceImpl databaseService = new DatabaseServiceImpl();
+        CommissionCalculator calculator = new CommissionCalculator(databaseService);
+        CommissionPlan plan = tieredPlan();
+        databaseService.savePlan(plan);
+        User salesRep = new User();
+        salesRep.setId("SALES-001");
+        databaseService.saveUser(salesRep);
+        Deal deal = new Deal("Enterprise License", new BigDecimal("17000"), "SALES-001");
+        deal.setId("DEAL-001");
+        databaseService.saveDeal(deal);
+
+        CommissionCalculation stored = calculator.calculateCommission("DEAL-001", plan.getId());
+        CommissionCalculation inMemory = calculator.calculateCommission(deal, plan);
+
+        assertNotNull(stored.getId(), "Database-backed calculation should be given an ID");
+        assertNull(inMemory.getId(), "In-memory calculation should have no ID");
+        assertEquals(0, stored.getNetCommission().compareTo(inMemory.getNetCommission()),
+                "Both paths should pay the same");
+
+        System.out.println("[DEBUG_LOG] Calculation paths test passed");
+    }
+
+    private CommissionPlan tieredPlan() {
+        CommissionPlan plan = new CommissionPlan();
+        plan.setId("PLAN-TIERED");
+        plan.addTier(new CommissionTier("Base", BigDecimal.ZERO, new BigDecimal("10000"), new BigDecimal("5")));
+        plan.addTier(new CommissionTier("Upper", new BigDecimal("10000"), null, new BigDecimal("8")));
+        plan.addBonus(new BonusRule("Launch SPIF", new BigDecimal("250"), false, BonusRule.BonusType.FIXED));
+        return plan;
+    }
+}
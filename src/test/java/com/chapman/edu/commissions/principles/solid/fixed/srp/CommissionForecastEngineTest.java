@@ -0,0 +1,95 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealStage;
+import com.chapman.edu.commissions.model.DealStatus;
+import com.chapman.edu.commissions.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CommissionForecastEngine class.
+ */
+public class CommissionForecastEngineTest {
+
+    /**
+     * Test that rep and team projections follow stage changes and closed deals incrementally.
+     */
+    @Test
+    public void testProjectionsUpdateIncrementally() {
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        User salesRep = new User();
+        salesRep.setId("SALES-001");
+        salesRep.setManagerId("MGR-001");
+        databaseService.saveUser(salesRep);
+
+        Deal first = new Deal("First", new BigDecimal("1000"), "SALES-001");
+        first.setId("DEAL-001");
+        first.setStage(DealStage.PROPOSAL);
+        Deal second = new Deal("Second", new BigDecimal("2000"), "SALES-001");
+        second.setId("DEAL-002");
+        second.setStage(DealStage.COMMIT);
+        Deal lost = new Deal("Lost", new BigDecimal("5000"), "SALES-001");
+        lost.setId("DEAL-003");
+        lost.setStatus(DealStatus.LOST);
+
+        CommissionPlan plan = new CommissionPlan();
+        plan.setId("PLAN-001");
+        CommissionForecastEngine engine = new CommissionForecastEngine(new CommissionCalculator(databaseService),
+                databaseService);
+        engine.rebuild(List.of(first, second, lost), plan);
+
+        // 5% of 1000 at 50% plus 5% of 2000 at 90%
+        assertEquals(0, new BigDecimal("115").compareTo(engine.getRepProjection("SALES-001")),
+                "Rep projection should weight each open deal by its stage");
+        assertEquals(0, new BigDecimal("115").compareTo(engine.getTeamProjection("MGR-001")),
+                "Team projection should include the rep's deals");
+
+        first.setStage(DealStage.COMMIT);
+        engine.updateDeal(first);
+        assertEquals(0, new BigDecimal("135").compareTo(engine.getRepProjection("SALES-001")),
+                "Stage change should update the projection");
+
+        second.setStatus(DealStatus.WON);
+        engine.updateDeal(second);
+        assertEquals(0, new BigDecimal("45").compareTo(engine.getTeamProjection("MGR-001")),
+                "Closed deals should leave the forecast");
+        assertNull(engine.getDealProjection("DEAL-002"), "Closed deal should have no projection");
+
+        System.out.println("[DEBUG_LOG] Commission forecast incremental test passed");
+    }
+
+    /**
+     * Test that deals without an ID are left out of the forecast instead of failing the rebuild.
+     */
+    @Test
+    public void testDealsWithoutIdAreSkipped() {
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        Deal tracked = new Deal("Tracked", new BigDecimal("1000"), "SALES-001");
+        tracked.setId("DEAL-001");
+        tracked.setStage(DealStage.COMMIT);
+        Deal unsaved = new Deal("Unsaved", new BigDecimal("2000"), "SALES-001");
+        unsaved.setStage(DealStage.COMMIT);
+
+        CommissionPlan plan = new CommissionPlan();
+        plan.setId("PLAN-001");
+        CommissionForecastEngine engine = new CommissionForecastEngine(new CommissionCalculator(databaseService),
+                databaseService);
+        engine.rebuild(List.of(tracked, unsaved), plan);
+
+        // 5% of 1000 at 90%
+        assertEquals(0, new BigDecimal("45").compareTo(engine.getRepProjection("SALES-001")),
+                "Only the deal with an ID should be projected");
+
+        engine.updateDeal(unsaved);
+        assertEquals(0, new BigDecimal("45").compareTo(engine.getTotalProjection()),
+                "Updating a deal without an ID should not change the forecast");
+
+        System.out.println("[DEBUG_LOG] Commission forecast deal without ID test passed");
+    }
+}
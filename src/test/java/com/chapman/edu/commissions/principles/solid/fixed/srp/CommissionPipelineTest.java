@@ -0,0 +1,70 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CommissionPipeline class.
+ */
+public class CommissionPipelineTest {
+
+    /**
+     * Test that every deal is calculated, saved and notified, and that the publisher
+     * never runs further ahead than the notification stage has requested.
+     */
+    @Test
+    public void testPipelineHonoursDemand() throws Exception {
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        User salesRep = new User();
+        salesRep.setId("SALES-001");
+        salesRep.setEmail("rep@example.com");
+        databaseService.saveUser(salesRep);
+
+        int requestSize = 4;
+        AtomicInteger emitted = new AtomicInteger();
+        AtomicInteger notified = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        List<Deal> deals = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Deal deal = new Deal();
+            deal.setId("DEAL-" + i);
+            deal.setSalesRepId("SALES-001");
+            deal.setValue(new BigDecimal("1000"));
+            deals.add(deal);
+        }
+        Iterable<Deal> source = () -> deals.stream()
+                .peek(deal -> maxAhead.accumulateAndGet(emitted.incrementAndGet() - notified.get(), Math::max))
+                .iterator();
+
+        EmailService emailService = new EmailServiceImpl("smtp.example.com", 25, "noreply@example.com") {
+            @Override
+            public void sendCommissionNotification(User rep, CommissionCalculation calculation) {
+                notified.incrementAndGet();
+            }
+        };
+        CommissionPipeline pipeline = new CommissionPipeline(new CommissionCalculator(databaseService),
+                databaseService, emailService, IdGenerationServiceImpl.defaultInstance(), requestSize);
+
+        CommissionPlan plan = new CommissionPlan();
+        plan.setId("PLAN-001");
+        long sent = pipeline.process(source, plan).get(10, TimeUnit.SECONDS);
+
+        assertEquals(25, sent, "Every deal should be notified");
+        assertEquals(25, databaseService.getCalculationsBySalesRep("SALES-001").size(),
+                "Every calculation should be saved");
+        assertTrue(maxAhead.get() <= requestSize, "Publisher should not run ahead of requested demand");
+
+        System.out.println("[DEBUG_LOG] Commission pipeline demand test passed");
+    }
+}
@@ -0,0 +1,142 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the CommissionProcessor class.
+ */
+public class CommissionProcessorTest {
+
+    /**
+     * Test that a batch is saved in one call, each rep gets one summary and a failing deal is skipped.
+     */
+    @Test
+    public void testProcessCommissionsBatch() {
+        List<Integer> saveSizes = new ArrayList<>();
+        DatabaseServiceImpl databaseService = new DatabaseServiceImpl() {
+            @Override
+            public void saveCalculationsToDatabase(List<CommissionCalculation> calculations) {
+                saveSizes.add(calculations.size());
+                super.saveCalculationsToDatabase(calculations);
+            }
+        };
+        populate(databaseService);
+        RecordingEmailService emailService = new RecordingEmailService();
+        CommissionProcessor processor = new CommissionProcessor(new CommissionCalculator(databaseService),
+                databaseService, emailService, new NoOpReportGenerator());
+
+        List<CommissionCalculation> calculations = processor.processCommissions(
+                List.of("DEAL-001", "DEAL-002", "DEAL-MISSING", "DEAL-003"), "PLAN-001");
+
+        assertEquals(3, calculations.size(), "The missing deal should be skipped");
+        assertEquals(List.of(3), saveSizes, "The batch should be saved in one call");
+        assertEquals(2, emailService.summaries.size(), "Each rep should get one summary");
+        assertEquals(2, emailService.summaries.get("SALES-A").size(), "Rep A's summary should cover both deals");
+        assertEquals(1, emailService.summaries.get("SALES-B").size(), "Rep B's summary should cover one deal");
+
+        System.out.println("[DEBUG_LOG] Batch commission processing test passed");
+    }
+
+    /**
+     * Test that a cancel between chunks stops the run with every finished chunk saved and reported.
+     */
+    @Test
+    public void testCancelledBatchReportsProgress() {
+        CancellationToken token = CancellationToken.create();
+        DatabaseServiceImpl databaseService = new DatabaseServiceImpl() {
+            @Override
+            public void saveCalculationsToDatabase(List<CommissionCalculation> calculations) {
+                super.saveCalculationsToDatabase(calculations);
+                // Stop after the first chunk has been saved
+                token.cancel();
+            }
+        };
+        populate(databaseService);
+        RecordingEmailService emailService = new RecordingEmailService();
+        CommissionProcessor processor = new CommissionProcessor(new CommissionCalculator(databaseService),
+                databaseService, emailService, new NoOpReportGenerator());
+
+        CommissionProcessor.BatchResult result = processor.processCommissions(
+                List.of("DEAL-001", "DEAL-002", "DEAL-003"), "PLAN-001", 1, token);
+
+        assertEquals(1, result.getProcessedCount(), "Only the first chunk should be processed");
+        assertEquals(3, result.getTotalCount(), "Total count");
+        assertFalse(result.isComplete(), "The run should not be complete");
+        assertEquals(CancellationToken.StopReason.CANCELLED, result.getStopReason(), "Stop reason");
+        assertEquals(1, result.getCalculations().size(), "The saved chunk should be returned");
+        assertEquals(1, emailService.summaries.get("SALES-A").size(), "The saved calculation should still be reported");
+
+        System.out.println("[DEBUG_LOG] Cancelled batch processing test passed");
+    }
+
+    static void populate(DatabaseServiceImpl databaseService) {
+        CommissionPlan plan = new CommissionPlan();
+        plan.setId("PLAN-001");
+        databaseService.savePlan(plan);
+        for (String repId : List.of("SALES-A", "SALES-B")) {
+            User user = new User();
+            user.setId(repId);
+            user.setEmail(repId.toLowerCase() + "@example.com");
+            databaseService.saveUser(user);
+        }
+        String[][] deals = {{"DEAL-001", "SALES-A"}, {"DEAL-002", "SALES-A"}, {"DEAL-003", "SALES-B"}};
+        for (String[] row : deals) {
+            Deal deal = new Deal("Deal " + row[0], new BigDecimal("1000"), row[1]);
+            deal.setId(row[0]);
+            databaseService.saveDeal(deal);
+        }
+    }
+
+    /**
+     * An email service that records the summaries it is asked to send.
+     */
+    static class RecordingEmailService implements EmailService {
+        final Map<String, List<CommissionCalculation>> summaries = new LinkedHashMap<>();
+
+        @Override
+        public void sendCommissionNotification(User salesRep, CommissionCalculation calculation) {
+            sendCommissionSummary(salesRep, List.of(calculation));
+        }
+
+        @Override
+        public void sendCommissionSummary(User salesRep, List<CommissionCalculation> calculations) {
+            summaries.put(salesRep.getId(), new ArrayList<>(calculations));
+        }
+
+        @Override
+        public void sendReportEmail(String recipientEmail, String subject, String reportContent, String attachmentPath) {
+        }
+    }
+
+    /**
+     * A report generator that does not write files.
+     */
+    static class NoOpReportGenerator implements ReportGenerator {
+        @Override
+        public String generateCommissionReport(User salesRep, List<CommissionCalculation> calculations) {
+            return "";
+        }
+
+        @Override
+        public String generateCommissionCsvReport(User salesRep, List<CommissionCalculation> calculations) {
+            return "";
+        }
+
+        @Override
+        public boolean saveReportToFile(String reportContent, String filePath) {
+            return true;
+        }
+    }
+}
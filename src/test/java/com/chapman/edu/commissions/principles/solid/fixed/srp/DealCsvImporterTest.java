@@ -0,0 +1,110 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealStage;
+import com.chapman.edu.commissions.model.DealStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the DealCsvImporter class.
+ */
+public class DealCsvImporterTest {
+
+    /**
+     * Test that a file split into many small chunks imports every deal once with all its line
+     * items, that quoted fields are unescaped and that bad rows are skipped.
+     */
+    @Test
+    public void testParallelImportKeepsDealsWhole(@TempDir Path tempDir) throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("deal_id,title,sales_rep_id,status,stage,close_date,value,product_id,product_name,quantity,price,discount");
+        for (int i = 0; i < 500; i++) {
+            String deal = "DEAL-" + i + ",\"Deal, \"\"" + i + "\"\"\",SALES-00" + i % 3 + ",won,NEGOTIATION,2024-03-"
+                    + String.format("%02d", 1 + i % 28) + ",";
+            int lineItems = i % 4;
+            if (lineItems == 0) {
+                lines.add(deal + "100.50,,,,,");
+            }
+            for (int line = 0; line < lineItems; line++) {
+                lines.add(deal + "," + (line % 2 == 0 ? "SOFTWARE" : "SERVICE") + ",Item " + line + ","
+                        + (line + 1) + ",19.99," + (line == 2 ? "1.5" : ""));
+            }
+        }
+        lines.add("DEAL-BAD,Bad,SALES-001,WON,COMMIT,2024-13-45,1,,,,,");
+        Path file = tempDir.resolve("deals.csv");
+        Files.write(file, lines);
+
+        Map<String, Deal> imported = new ConcurrentHashMap<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        DealCsvImporter.ImportResult result = new DealCsvImporter(16, 4, 256).importDeals(file, batch -> {
+            batchSizes.add(batch.size());
+            for (Deal deal : batch) {
+                assertNull(imported.put(deal.getId(), deal), "Each deal should be imported once");
+            }
+        });
+
+        assertEquals(500, result.getDealCount(), "Every deal should be imported");
+        assertEquals(500, imported.size(), "Every deal should reach the sink");
+        assertEquals(125 * (1 + 2 + 3), result.getLineItemCount(), "Every line item should be imported");
+        assertEquals(1, result.getRejectedRowCount(), "The row with an invalid date should be rejected");
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 16), "Batches should not exceed the batch size");
+
+        Deal deal = imported.get("DEAL-7");
+        assertEquals("Deal, \"7\"", deal.getTitle(), "Quoted title should be unescaped");
+        assertEquals(DealStatus.WON, deal.getStatus(), "Status should be matched ignoring case");
+        assertEquals(DealStage.NEGOTIATION, deal.getStage(), "Stage");
+        assertEquals(LocalDate.of(2024, 3, 8), deal.getCloseDate(), "Close date");
+        assertEquals(3, deal.getProducts().size(), "All rows of a deal should be grouped into it");
+        assertEquals(new BigDecimal("1.5"), deal.getProducts().get(2).getDiscount(), "Discount");
+        assertEquals(new BigDecimal("119.94"), deal.calculateTotalValue(), "Line items should add up");
+        assertEquals(new BigDecimal("100.50"), imported.get("DEAL-0").getValue(), "Deal value");
+
+        System.out.println("[DEBUG_LOG] Deal CSV importer test passed");
+    }
+
+    /**
+     * Test that a sink that throws stops the import with its exception, instead of being
+     * counted as a rejected row while the import reports success.
+     */
+    @Test
+    public void testFailingSinkStopsImport(@TempDir Path tempDir) throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("deal_id,title,sales_rep_id,product_id,product_name,quantity,price");
+        for (int i = 0; i < 50; i++) {
+            lines.add("DEAL-" + i + ",Deal " + i + ",SALES-001,SOFTWARE,Licence,1,10");
+            lines.add("DEAL-" + i + ",Deal " + i + ",SALES-001,SERVICE,Setup,1,5");
+        }
+        Path file = tempDir.resolve("deals.csv");
+        Files.write(file, lines);
+
+        IllegalStateException sinkFailure = new IllegalStateException("Database unavailable");
+        List<Deal> delivered = new ArrayList<>();
+        RuntimeException failure = assertThrows(RuntimeException.class,
+                () -> new DealCsvImporter(2, 1).importDeals(file, batch -> {
+                    if (!delivered.isEmpty()) {
+                        throw sinkFailure;
+                    }
+                    delivered.addAll(batch);
+                }), "A failing sink should stop the import");
+
+        assertSame(sinkFailure, failure.getCause(), "The sink's exception should be the cause");
+        assertEquals(2, delivered.size(), "Only the batch accepted before the failure should be delivered");
+        for (Deal deal : delivered) {
+            assertEquals(2, deal.getProducts().size(), "Delivered deals should have all their line items");
+        }
+
+        System.out.println("[DEBUG_LOG] Deal import failing sink test passed");
+    }
+}
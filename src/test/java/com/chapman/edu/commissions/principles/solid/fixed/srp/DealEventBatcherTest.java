@@ -0,0 +1,84 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the DealEventBatcher class.
+ */
+public class DealEventBatcherTest {
+
+    /**
+     * Test that a batch is flushed as soon as it reaches the maximum size.
+     */
+    @Test
+    public void testFlushOnSize() throws Exception {
+        BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+        try (DealEventBatcher batcher = new DealEventBatcher(batches::add, 3, Duration.ofHours(1))) {
+            for (int i = 1; i <= 7; i++) {
+                batcher.submit("DEAL-00" + i);
+            }
+            assertEquals(List.of("DEAL-001", "DEAL-002", "DEAL-003"), batches.poll(5, TimeUnit.SECONDS), "First full batch");
+            assertEquals(List.of("DEAL-004", "DEAL-005", "DEAL-006"), batches.poll(5, TimeUnit.SECONDS), "Second full batch");
+            assertEquals(1, batcher.getPendingCount(), "The seventh event should wait for more");
+            assertEquals(2, batcher.getFlushesBySize(), "Both batches should be flushed by size");
+        }
+
+        System.out.println("[DEBUG_LOG] Batcher flush on size test passed");
+    }
+
+    /**
+     * Test that a partial batch is flushed once its oldest event has waited for the maximum latency.
+     */
+    @Test
+    public void testFlushOnLatency() throws Exception {
+        BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+        try (DealEventBatcher batcher = new DealEventBatcher(batches::add, 100, Duration.ofMillis(50))) {
+            batcher.submit("DEAL-001");
+            batcher.submit("DEAL-002");
+            assertEquals(List.of("DEAL-001", "DEAL-002"), batches.poll(5, TimeUnit.SECONDS), "Partial batch should be flushed");
+            assertEquals(1, batcher.getFlushesByTime(), "Batch should be flushed by time");
+            assertEquals(0, batcher.getPendingCount(), "Nothing should be left waiting");
+        }
+
+        System.out.println("[DEBUG_LOG] Batcher flush on latency test passed");
+    }
+
+    /**
+     * Test that closing the batcher delivers the buffered events before it returns.
+     */
+    @Test
+    public void testFlushOnClose() {
+        BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+        DealEventBatcher batcher = new DealEventBatcher(batches::add, 100, Duration.ofHours(1));
+        batcher.submit("DEAL-001");
+        batcher.submit("DEAL-002");
+        batcher.close();
+
+        assertEquals(List.of("DEAL-001", "DEAL-002"), batches.poll(), "Buffered events should be delivered on close");
+        assertEquals(2, batcher.getEventsFlushed(), "Every event should be flushed");
+        assertThrows(IllegalStateException.class, () -> batcher.submit("DEAL-003"), "A closed batcher should reject events");
+
+        System.out.println("[DEBUG_LOG] Batcher flush on close test passed");
+    }
+
+    /**
+     * Test that invalid flush settings are rejected.
+     */
+    @Test
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new DealEventBatcher(batch -> { }, 0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new DealEventBatcher(batch -> { }, 10, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new DealEventBatcher(batch -> { }, 10, Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> new DealEventBatcher(batch -> { }, 10, null));
+
+        System.out.println("[DEBUG_LOG] Batcher settings test passed");
+    }
+}
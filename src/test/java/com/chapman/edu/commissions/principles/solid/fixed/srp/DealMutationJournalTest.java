@@ -0,0 +1,117 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealProduct;
+import com.chapman.edu.commissions.model.DealStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the DealMutationJournal class.
+ */
+public class DealMutationJournalTest {
+
+    /**
+     * Test that mutations get consecutive offsets, can be tailed in batches from any offset,
+     * survive reopening and that a torn record at the end is cut off.
+     */
+    @Test
+    public void testAppendTailAndRecover(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("deals.journal");
+        try (DealMutationJournal journal = new DealMutationJournal(file)) {
+            for (int i = 0; i < 600; i++) {
+                Deal deal = new Deal("Deal " + i, new BigDecimal("1000.50"), "SALES-001");
+                deal.setId("DEAL-" + i);
+                deal.setCloseDate(LocalDate.of(2024, 6, 30));
+                deal.addProduct(new DealProduct("SOFTWARE", "Licence", 2, new BigDecimal("500.25")));
+                assertEquals(i, journal.recordCreate(deal), "Offsets should be consecutive");
+            }
+            Deal won = journal.read(3, 1).get(0).getDeal();
+            won.setStatus(DealStatus.WON);
+            assertEquals(600, journal.recordUpdate(won), "Update offset");
+            assertEquals(601, journal.recordDelete("DEAL-4"), "Delete offset");
+
+            List<DealMutationJournal.Mutation> batch = journal.read(300, 5);
+            assertEquals(5, batch.size(), "Batch size should be respected");
+            assertEquals(300, batch.get(0).getOffset(), "Read should start at the requested offset");
+            assertEquals("DEAL-300", batch.get(0).getDealId(), "Deal ID");
+
+            DealMutationJournal.Cursor cursor = journal.tail(590);
+            assertEquals(10, cursor.poll(10).size(), "First poll");
+            List<DealMutationJournal.Mutation> rest = cursor.poll(10);
+            assertEquals(2, rest.size(), "Second poll should return the remaining records");
+            assertEquals(DealMutationJournal.MutationType.UPDATE, rest.get(0).getType(), "Update type");
+            assertEquals(DealStatus.WON, rest.get(0).getDeal().getStatus(), "Updated snapshot");
+            assertEquals(DealMutationJournal.MutationType.DELETE, rest.get(1).getType(), "Delete type");
+            assertNull(rest.get(1).getDeal(), "Deletes carry no snapshot");
+            assertTrue(cursor.poll(10).isEmpty(), "Caught-up cursor should return nothing");
+            assertEquals(602, cursor.getPosition(), "Cursor position");
+        }
+
+        // Simulate a crash part-way through writing a record
+        Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (DealMutationJournal journal = new DealMutationJournal(file)) {
+            assertEquals(602, journal.getNextOffset(), "Complete records should survive reopening");
+            Deal deal = journal.read(7, 1).get(0).getDeal();
+            assertEquals(new BigDecimal("1000.50"), deal.getValue(), "Value should round-trip");
+            assertEquals(1, deal.getProducts().size(), "Products should round-trip");
+            assertEquals(new BigDecimal("1000.50"), deal.calculateTotalValue(), "Product prices should round-trip");
+            assertEquals(602, journal.recordDelete("DEAL-5"), "Offsets should continue after the torn record");
+            assertEquals("DEAL-5", journal.read(602, 10).get(0).getDealId(), "New record should be readable");
+        }
+
+        System.out.println("[DEBUG_LOG] Deal mutation journal test passed");
+    }
+
+    /**
+     * Test that a damaged record followed by valid records fails the open instead of cutting
+     * off the valid records, and that a damaged last record is cut off.
+     */
+    @Test
+    public void testCorruptionBeforeEndFailsOpen(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("deals.journal");
+        try (DealMutationJournal journal = new DealMutationJournal(file)) {
+            for (int i = 0; i < 3; i++) {
+                journal.recordDelete("DEAL-" + i);
+            }
+        }
+        long size = Files.size(file);
+        long recordSize = size / 3;
+
+        // Flip a payload byte of the first record
+        flipByte(file, recordSize - 1);
+        assertThrows(IllegalStateException.class, () -> new DealMutationJournal(file),
+                "A damaged record in the middle should fail the open");
+        assertEquals(size, Files.size(file), "The file should be left as it was");
+
+        // Restore the first record and damage the last one instead
+        flipByte(file, recordSize - 1);
+        flipByte(file, size - 1);
+        try (DealMutationJournal journal = new DealMutationJournal(file)) {
+            assertEquals(2, journal.getNextOffset(), "The damaged last record should be cut off");
+            assertEquals("DEAL-1", journal.read(1, 1).get(0).getDealId(), "Earlier records should be kept");
+        }
+
+        System.out.println("[DEBUG_LOG] Deal mutation journal corruption test passed");
+    }
+
+    private void flipByte(Path file, long position) throws Exception {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xFF);
+        }
+    }
+}
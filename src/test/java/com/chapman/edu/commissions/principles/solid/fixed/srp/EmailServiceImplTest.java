@@ -0,0 +1,70 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the EmailServiceImpl class.
+ */
+public class EmailServiceImplTest {
+
+    /**
+     * Test that a summary of several calculations is sent as one email with a total, and that a
+     * summary of one calculation is sent as an ordinary notification.
+     */
+    @Test
+    public void testSendCommissionSummary() {
+        List<String> messages = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger(EmailServiceImpl.class.getName());
+        logger.addHandler(handler);
+        try {
+            EmailServiceImpl emailService = new EmailServiceImpl("smtp.example.com", 25, "commissions@example.com");
+            User salesRep = new User();
+            salesRep.setEmail("jane.smith@example.com");
+
+            emailService.sendCommissionSummary(salesRep, List.of(calculation("DEAL-001", "100.00"), calculation("DEAL-002", "50.50")));
+            assertTrue(messages.contains("Sending email to: jane.smith@example.com"), "Summary should go to the sales rep");
+            assertTrue(messages.contains("Subject: Commissions Calculated for 2 Deals"), "One email should cover both deals");
+            assertTrue(messages.stream().anyMatch(message -> message.contains("Total: $150.50")), "Summary should include the total");
+
+            messages.clear();
+            emailService.sendCommissionSummary(salesRep, List.of(calculation("DEAL-003", "75.00")));
+            assertTrue(messages.contains("Subject: Commission Calculated for Deal DEAL-003"),
+                    "A single calculation should be sent as a notification");
+        } finally {
+            logger.removeHandler(handler);
+        }
+
+        System.out.println("[DEBUG_LOG] Commission summary email test passed");
+    }
+
+    private CommissionCalculation calculation(String dealId, String net) {
+        CommissionCalculation calculation = new CommissionCalculation(dealId, "SALES-001", new BigDecimal(net));
+        calculation.setId("CALC-" + dealId);
+        return calculation;
+    }
+}
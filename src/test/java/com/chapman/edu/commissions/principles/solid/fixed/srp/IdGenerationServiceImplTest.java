@@ -0,0 +1,113 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the IdGenerationServiceImpl class.
+ */
+public class IdGenerationServiceImplTest {
+
+    /**
+     * Test that IDs generated concurrently from many threads are unique.
+     */
+    @Test
+    public void testConcurrentIdsAreUnique() throws Exception {
+        IdGenerationService service = new IdGenerationServiceImpl(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int idsPerThread = 20000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids.add(service.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * idsPerThread, ids.size(), "All generated IDs should be unique");
+
+        System.out.println("[DEBUG_LOG] Concurrent ID uniqueness test passed");
+    }
+
+    /**
+     * Test that IDs are time-ordered and carry the node ID.
+     */
+    @Test
+    public void testIdsAreOrderedAndCarryNodeId() {
+        IdGenerationService service = new IdGenerationServiceImpl(42);
+        long previous = service.nextId();
+        for (int i = 0; i < 10000; i++) {
+            long next = service.nextId();
+            assertTrue(next > previous, "IDs from one generator should increase");
+            previous = next;
+        }
+
+        assertEquals(42, IdGenerationServiceImpl.nodeIdOf(previous), "Node ID should be encoded in the ID");
+        assertTrue(service.nextId("CALC-").startsWith("CALC-"), "Prefixed ID should start with the prefix");
+
+        System.out.println("[DEBUG_LOG] ID ordering test passed");
+    }
+
+    /**
+     * Test that the binary encoding round-trips and preserves ordering.
+     */
+    @Test
+    public void testBinaryEncoding() {
+        IdGenerationService service = new IdGenerationServiceImpl();
+        long first = service.nextId();
+        long second = service.nextId();
+
+        byte[] firstBytes = service.toBytes(first);
+        byte[] secondBytes = service.toBytes(second);
+
+        assertEquals(Long.BYTES, firstBytes.length, "Encoded ID should be 8 bytes");
+        assertEquals(first, service.fromBytes(firstBytes), "Encoding should round-trip");
+        assertTrue(Arrays.compareUnsigned(firstBytes, secondBytes) < 0,
+                "Encoded IDs should sort in generation order");
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerationServiceImpl(1024),
+                "Node IDs outside the 10-bit range should be rejected");
+
+        System.out.println("[DEBUG_LOG] ID binary encoding test passed");
+    }
+
+    /**
+     * Test that the default generator is shared, so services without an injected generator
+     * never issue the same ID.
+     */
+    @Test
+    public void testDefaultInstanceIsShared() {
+        assertSame(IdGenerationServiceImpl.defaultInstance(), IdGenerationServiceImpl.defaultInstance(),
+                "The default generator should be one instance");
+        IdGenerationService first = IdGenerationServiceImpl.defaultInstance();
+        IdGenerationService second = IdGenerationServiceImpl.defaultInstance();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(ids.add(first.nextId()), "IDs from the default generator should be unique");
+            assertTrue(ids.add(second.nextId()), "IDs from the default generator should be unique");
+        }
+
+        System.out.println("[DEBUG_LOG] Default ID generator test passed");
+    }
+}
@@ -0,0 +1,76 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.DealStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the OffHeapArchive class and its deal and calculation layouts.
+ */
+public class OffHeapArchiveTest {
+
+    /**
+     * Test that archived records survive growth and reopening of the file, that lookups by ID
+     * return the latest version and that range scans filter by date.
+     */
+    @Test
+    public void testArchiveSurvivesReopen(@TempDir Path tempDir) {
+        Path dealFile = tempDir.resolve("deals.arc");
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        try (DealArchive archive = new DealArchive(dealFile)) {
+            for (int i = 0; i < 3000; i++) {
+                Deal deal = new Deal("Deal " + i, new BigDecimal(i).add(new BigDecimal("0.25")), "SALES-00" + i % 3);
+                deal.setId("DEAL-" + i);
+                deal.setStatus(DealStatus.WON);
+                deal.setCloseDate(start.plusDays(i % 365));
+                archive.append(deal);
+            }
+            Deal revised = new Deal("Deal 7 revised", new BigDecimal("77.77"), "SALES-001");
+            revised.setId("DEAL-7");
+            revised.setStatus(DealStatus.LOST);
+            archive.append(revised);
+        }
+
+        try (DealArchive archive = new DealArchive(dealFile)) {
+            assertEquals(3001, archive.size(), "Records should be read back from the file");
+            assertEquals(DealStatus.WON, archive.get(7).getStatus(), "Earlier version stays at its ordinal");
+            Deal latest = archive.find("DEAL-7");
+            assertEquals(DealStatus.LOST, latest.getStatus(), "Lookup by ID should return the latest version");
+            assertEquals(new BigDecimal("77.77"), latest.getValue(), "Value should round-trip");
+            assertEquals("SALES-002", archive.find("DEAL-2999").getSalesRepId(), "Rep ID should round-trip");
+
+            List<Deal> january = archive.scan(start, LocalDate.of(2023, 1, 31));
+            assertEquals(31 * 9, january.size(), "Deals closing in January");
+            assertTrue(january.stream().allMatch(deal -> deal.getCloseDate().getMonthValue() == 1),
+                    "Scan should only return deals in range");
+        }
+
+        try (CalculationArchive archive = new CalculationArchive(4)) {
+            CommissionCalculation calculation = new CommissionCalculation("DEAL-1", "SALES-001", new BigDecimal("125.005"));
+            calculation.setId("CALC-1");
+            calculation.setPlanId("PLAN-1");
+            calculation.setStatus(CommissionCalculation.CommissionStatus.PAID);
+            calculation.setCalculationDate(start);
+            calculation.setPayoutDate(start.plusDays(30));
+            archive.append(calculation);
+
+            CommissionCalculation read = archive.find("CALC-1");
+            assertEquals(new BigDecimal("125.01"), read.getNetCommission(), "Amounts should be archived in cents");
+            assertEquals("PLAN-1", read.getPlanId(), "Plan ID should round-trip");
+            assertEquals(start.plusDays(30), read.getPayoutDate(), "Payout date should round-trip");
+            assertEquals(CommissionCalculation.CommissionStatus.PAID, read.getStatus(), "Status should round-trip");
+            assertTrue(archive.scan(start.plusDays(1), null).isEmpty(), "Scan should exclude earlier calculations");
+        }
+
+        System.out.println("[DEBUG_LOG] Off-heap archive test passed");
+    }
+}
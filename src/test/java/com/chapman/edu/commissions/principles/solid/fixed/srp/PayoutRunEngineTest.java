@@ -0,0 +1,199 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the PayoutRunEngine class.
+ */
+public class PayoutRunEngineTest {
+
+    /**
+     * Test that approved calculations in the period are paid across several pages and
+     * totalled per rep, and that calculations outside the period are left alone.
+     */
+    @Test
+    public void testPayoutRunAcrossPages(@TempDir Path tempDir) throws Exception {
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        LocalDate inPeriod = LocalDate.of(2024, 3, 15);
+        for (int i = 0; i < 5; i++) {
+            databaseService.saveCalculationToDatabase(
+                    approved("CALC-00" + i, i % 2 == 0 ? "SALES-001" : "SALES-002", "100.005", inPeriod));
+        }
+        CommissionCalculation later = approved("CALC-009", "SALES-001", "999", LocalDate.of(2024, 4, 2));
+        databaseService.saveCalculationToDatabase(later);
+
+        Path payoutFile = tempDir.resolve("payout.csv");
+        PayoutRunEngine.PayoutRunResult result = new PayoutRunEngine(databaseService, 2).run(
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 5), payoutFile);
+
+        assertEquals(5, result.getCalculationCount(), "All approved calculations in March should be paid");
+        assertEquals(0, new BigDecimal("300.03").compareTo(result.getRepTotals().get("SALES-001")),
+                "Each amount should be rounded to cents before summing");
+        assertEquals(0, new BigDecimal("500.05").compareTo(result.getTotal()), "Run total");
+        assertEquals(CommissionCalculation.CommissionStatus.PAID,
+                databaseService.getCalculationFromDatabase("CALC-000").getStatus(), "Paid status should be saved");
+        assertEquals(CommissionCalculation.CommissionStatus.APPROVED, later.getStatus(),
+                "Calculations outside the period should not be paid");
+
+        List<String> lines = Files.readAllLines(payoutFile);
+        assertEquals(1 + 5 + 2, lines.size(), "File should have a header, five details and two summaries");
+        assertEquals("SUMMARY,,SALES-002,,200.02", lines.get(lines.size() - 1), "Summary line per rep");
+
+        System.out.println("[DEBUG_LOG] Payout run test passed");
+    }
+
+    /**
+     * Test that a run that fails part way leaves no payout file, that rerunning with the same
+     * payout file resumes it and pays the remaining calculations, and that a finished payout
+     * file is never overwritten.
+     */
+    @Test
+    public void testRerunAfterPartialFailure(@TempDir Path tempDir) throws Exception {
+        AtomicInteger pagesRead = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        DatabaseService databaseService = new DatabaseServiceImpl() {
+            @Override
+            public List<CommissionCalculation> getCalculationsByStatus(CommissionCalculation.CommissionStatus status,
+                    LocalDate from, LocalDate to, String afterId, int limit) {
+                if (failing.get() && pagesRead.incrementAndGet() > 1) {
+                    throw new IllegalStateException("Database unavailable");
+                }
+                return super.getCalculationsByStatus(status, from, to, afterId, limit);
+            }
+        };
+        LocalDate inPeriod = LocalDate.of(2024, 3, 15);
+        for (int i = 0; i < 5; i++) {
+            databaseService.saveCalculationToDatabase(approved("CALC-00" + i, "SALES-001", "100", inPeriod));
+        }
+        PayoutRunEngine engine = new PayoutRunEngine(databaseService, 2);
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        LocalDate payoutDate = LocalDate.of(2024, 4, 5);
+
+        Path payoutFile = tempDir.resolve("payout.csv");
+        Path partialFile = tempDir.resolve("payout.csv" + PayoutRunEngine.PARTIAL_SUFFIX);
+        assertThrows(IllegalStateException.class, () -> engine.run(from, to, payoutDate, payoutFile),
+                "The first run should fail after one page");
+        assertFalse(Files.exists(payoutFile), "A failed run should not leave a payout file");
+        assertEquals(1 + 2, Files.readAllLines(partialFile).size(), "The partial file should keep the paid page");
+
+        failing.set(false);
+        PayoutRunEngine.PayoutRunResult result = engine.run(from, to, payoutDate, payoutFile);
+
+        assertEquals(5, result.getCalculationCount(), "The resumed file should cover every calculation");
+        assertEquals(0, new BigDecimal("500").compareTo(result.getTotal()), "Total of the resumed file");
+        assertFalse(Files.exists(partialFile), "The partial file should be moved into place");
+        List<String> lines = Files.readAllLines(payoutFile);
+        assertEquals(1 + 5 + 1, lines.size(), "The payout file should have a header, five details and a summary");
+        assertEquals("SUMMARY,,SALES-001,,500.00", lines.get(lines.size() - 1), "Summary of the whole file");
+
+        assertThrows(IllegalStateException.class, () -> engine.run(from, to, payoutDate, payoutFile),
+                "A rerun should not overwrite a finished payout file");
+        assertEquals(lines, Files.readAllLines(payoutFile), "The finished payout file should be left untouched");
+
+        System.out.println("[DEBUG_LOG] Payout rerun test passed");
+    }
+
+    /**
+     * Test that calculations listed in a failed run's file but not marked paid are marked paid
+     * by the rerun instead of being listed a second time.
+     */
+    @Test
+    public void testRerunDoesNotListUnpaidLinesTwice(@TempDir Path tempDir) throws Exception {
+        AtomicInteger saves = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        DatabaseService databaseService = new DatabaseServiceImpl() {
+            @Override
+            public void saveCalculationsToDatabase(List<CommissionCalculation> calculations) {
+                if (failing.get() && saves.incrementAndGet() > 1) {
+                    for (CommissionCalculation calculation : calculations) {
+                        calculation.setStatus(CommissionCalculation.CommissionStatus.APPROVED);
+                    }
+                    throw new IllegalStateException("Database unavailable");
+                }
+                super.saveCalculationsToDatabase(calculations);
+            }
+        };
+        LocalDate inPeriod = LocalDate.of(2024, 3, 15);
+        for (int i = 0; i < 5; i++) {
+            databaseService.saveCalculationToDatabase(approved("CALC-00" + i, "SALES-001", "100", inPeriod));
+        }
+        PayoutRunEngine engine = new PayoutRunEngine(databaseService, 2);
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        LocalDate payoutDate = LocalDate.of(2024, 4, 5);
+        Path payoutFile = tempDir.resolve("payout.csv");
+
+        assertThrows(IllegalStateException.class, () -> engine.run(from, to, payoutDate, payoutFile),
+                "The first run should fail saving its second page");
+        assertEquals(CommissionCalculation.CommissionStatus.APPROVED,
+                databaseService.getCalculationFromDatabase("CALC-002").getStatus(),
+                "The second page should be listed but not paid");
+
+        failing.set(false);
+        PayoutRunEngine.PayoutRunResult result = engine.run(from, to, payoutDate, payoutFile);
+
+        assertEquals(5, result.getCalculationCount(), "Each calculation should be counted once");
+        assertEquals(CommissionCalculation.CommissionStatus.PAID,
+                databaseService.getCalculationFromDatabase("CALC-002").getStatus(),
+                "The listed calculation should be marked paid by the rerun");
+        List<String> lines = Files.readAllLines(payoutFile);
+        assertEquals(1, lines.stream().filter(line -> line.startsWith("DETAIL,CALC-002,")).count(),
+                "The listed calculation should not be listed again");
+        assertEquals(1 + 5 + 1, lines.size(), "The payout file should have a header, five details and a summary");
+
+        System.out.println("[DEBUG_LOG] Payout rerun without duplicate lines test passed");
+    }
+
+    /**
+     * Test that a calculation without a sales rep is left approved and out of the file
+     * while the rest of the run is paid.
+     */
+    @Test
+    public void testCalculationWithoutSalesRepIsSkipped(@TempDir Path tempDir) throws Exception {
+        DatabaseService databaseService = new DatabaseServiceImpl();
+        LocalDate inPeriod = LocalDate.of(2024, 3, 15);
+        databaseService.saveCalculationToDatabase(approved("CALC-001", "SALES-001", "100", inPeriod));
+        CommissionCalculation orphan = approved("CALC-002", null, "50", inPeriod);
+        databaseService.saveCalculationToDatabase(orphan);
+        databaseService.saveCalculationToDatabase(approved("CALC-003", "SALES-001", "100", inPeriod));
+
+        Path payoutFile = tempDir.resolve("payout.csv");
+        PayoutRunEngine.PayoutRunResult result = new PayoutRunEngine(databaseService, 2).run(
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 5), payoutFile);
+
+        assertEquals(2, result.getCalculationCount(), "Calculations with a sales rep should be paid");
+        assertEquals(1, result.getSkippedCount(), "The calculation without a sales rep should be skipped");
+        assertEquals(0, new BigDecimal("200").compareTo(result.getTotal()), "Run total");
+        assertEquals(CommissionCalculation.CommissionStatus.APPROVED, orphan.getStatus(),
+                "The skipped calculation should stay approved");
+        List<String> lines = Files.readAllLines(payoutFile);
+        assertEquals(1 + 2 + 1, lines.size(), "File should have a header, two details and one summary");
+        assertFalse(lines.stream().anyMatch(line -> line.contains("CALC-002")), "Skipped calculation should not be written");
+
+        System.out.println("[DEBUG_LOG] Payout skipped calculation test passed");
+    }
+
+    private CommissionCalculation approved(String id, String salesRepId, String netCommission, LocalDate date) {
+        CommissionCalculation calculation = new CommissionCalculation();
+        calculation.setId(id);
+        calculation.setDealId("DEAL-" + id);
+        calculation.setSalesRepId(salesRepId);
+        calculation.setNetCommission(new BigDecimal(netCommission));
+        calculation.setCalculationDate(date);
+        calculation.setStatus(CommissionCalculation.CommissionStatus.APPROVED);
+        return calculation;
+    }
+}
@@ -0,0 +1,88 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.BonusRule;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.CommissionTier;
+import com.chapman.edu.commissions.model.Deal;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the PlanSimulationEngine class.
+ */
+public class PlanSimulationEngineTest {
+
+    /**
+     * Test that a draft plan is compared with the baseline per rep and in total.
+     */
+    @Test
+    public void testDraftPlanDeltas() {
+        PlanSimulationEngine engine = new PlanSimulationEngine(new CommissionCalculator(new DatabaseServiceImpl()));
+
+        CommissionPlan baseline = new CommissionPlan();
+        baseline.setId("PLAN-CURRENT");
+        CommissionPlan draft = new CommissionPlan();
+        draft.setId("PLAN-DRAFT");
+        draft.addTier(new CommissionTier("Flat", BigDecimal.ZERO, null, new BigDecimal("10")));
+
+        List<Deal> deals = List.of(
+                new Deal("Deal A1", new BigDecimal("1000"), "SALES-A"),
+                new Deal("Deal A2", new BigDecimal("2000"), "SALES-A"),
+                new Deal("Deal B1", new BigDecimal("4000"), "SALES-B"),
+                new Deal("Unassigned", new BigDecimal("9000"), null));
+
+        PlanSimulationEngine.SimulationResult result = engine.simulate(baseline, List.of(draft), deals);
+
+        assertEquals(0, new BigDecimal("150").compareTo(result.getBaselinePayoutByRep().get("SALES-A")),
+                "Baseline should pay 5% to rep A");
+        assertEquals(0, new BigDecimal("350").compareTo(result.getBaselineTotalPayout()),
+                "Deals without a rep should be left out of the baseline");
+
+        PlanSimulationEngine.PlanOutcome outcome = result.getOutcome("PLAN-DRAFT");
+        assertEquals(0, new BigDecimal("300").compareTo(outcome.getPayoutByRep().get("SALES-A")),
+                "Draft should pay 10% to rep A");
+        assertEquals(0, new BigDecimal("200").compareTo(outcome.getDeltaByRep().get("SALES-B")),
+                "Rep B should gain 200 under the draft");
+        assertEquals(0, new BigDecimal("350").compareTo(outcome.getTotalDelta()),
+                "Total delta should be the draft total less the baseline total");
+
+        System.out.println("[DEBUG_LOG] Plan simulation test passed");
+    }
+
+    /**
+     * Test that a tiered draft plan is simulated with the containing tier's commission and its
+     * deal-level bonus rules, and that a value outside every tier earns no base commission.
+     */
+    @Test
+    public void testTieredDraftPlan() {
+        PlanSimulationEngine engine = new PlanSimulationEngine(new CommissionCalculator(new DatabaseServiceImpl()));
+
+        CommissionPlan baseline = new CommissionPlan();
+        baseline.setId("PLAN-CURRENT");
+        CommissionPlan draft = new CommissionPlan();
+        draft.setId("PLAN-TIERED");
+        draft.addTier(new CommissionTier("Base", new BigDecimal("1000"), new BigDecimal("10000"), new BigDecimal("5")));
+        draft.addTier(new CommissionTier("Upper", new BigDecimal("10000"), null, new BigDecimal("8")));
+        draft.addBonus(new BonusRule("Launch SPIF", new BigDecimal("250"), false, BonusRule.BonusType.FIXED));
+        draft.addBonus(new BonusRule("Quota Bonus", new BigDecimal("1000"), false, BonusRule.BonusType.QUOTA_ACHIEVEMENT));
+
+        List<Deal> deals = List.of(
+                new Deal("Deal A1", new BigDecimal("25000"), "SALES-A"),
+                new Deal("Deal B1", new BigDecimal("500"), "SALES-B"));
+
+        PlanSimulationEngine.PlanOutcome outcome = engine.simulate(baseline, List.of(draft), deals)
+                .getOutcome("PLAN-TIERED");
+
+        BigDecimal upperTier = draft.getTiers().get(1).calculateCommission(new BigDecimal("25000"));
+        assertEquals(0, upperTier.add(new BigDecimal("250")).compareTo(outcome.getPayoutByRep().get("SALES-A")),
+                "Rep A should earn the upper tier's commission plus the deal-level bonus only");
+        assertEquals(0, new BigDecimal("250").compareTo(outcome.getPayoutByRep().get("SALES-B")),
+                "A value outside every tier should earn only the bonus");
+
+        System.out.println("[DEBUG_LOG] Tiered plan simulation test passed");
+    }
+}
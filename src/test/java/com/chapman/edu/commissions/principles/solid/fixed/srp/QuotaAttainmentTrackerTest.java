@@ -0,0 +1,79 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.CommissionRule;
+import com.chapman.edu.commissions.model.Deal;
+import com.chapman.edu.commissions.model.RuleCondition;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the QuotaAttainmentTracker class.
+ */
+public class QuotaAttainmentTrackerTest {
+
+    /**
+     * Test that a deal crossing the quota threshold is split across bands.
+     */
+    @Test
+    public void testDealCrossingThresholdIsBlended() {
+        CommissionRule accelerator = new CommissionRule("Over Quota", new BigDecimal("1.5"),
+                CommissionRule.RuleType.ACCELERATOR);
+        accelerator.setId("RULE-ACCEL");
+        accelerator.addCondition(new RuleCondition(QuotaAttainmentTracker.ATTAINMENT_FIELD,
+                RuleCondition.ConditionOperator.GREATER_THAN_OR_EQUALS, "100"));
+        CommissionPlan plan = new CommissionPlan();
+        plan.addRule(accelerator);
+
+        QuotaAttainmentTracker tracker = QuotaAttainmentTracker.fromPlan(plan, 3);
+        tracker.setQuota("SALES-001", new BigDecimal("1000"));
+        LocalDate date = LocalDate.of(2024, 8, 15);
+
+        QuotaAttainmentTracker.AttainmentUpdate first = tracker.recordValue("SALES-001", date, new BigDecimal("800"));
+        assertEquals(0, BigDecimal.ONE.compareTo(first.getMultiplier()), "Below quota should pay the base rate");
+        assertNull(first.toAcceleratorCalculation(), "No accelerator should be produced below quota");
+        assertFalse(first.isCrossedQuota(), "Quota should not be crossed yet");
+
+        QuotaAttainmentTracker.AttainmentUpdate second = tracker.recordValue("SALES-001", date, new BigDecimal("400"));
+        assertEquals(0, new BigDecimal("1.25").compareTo(second.getMultiplier()),
+                "Half the deal is above quota, so the blended multiplier should be 1.25");
+        assertTrue(second.isCrossedQuota(), "Quota should be crossed by the second deal");
+        assertEquals("RULE-ACCEL", tracker.getCurrentBand("SALES-001", date).getRuleId(),
+                "Rep should now be in the accelerator band");
+        assertEquals(0, new BigDecimal("120").compareTo(tracker.getAttainmentPercentage("SALES-001", date)),
+                "Attainment should be 120%");
+        assertEquals(LocalDate.of(2024, 7, 1), tracker.periodStartOf(date), "August should fall in Q3");
+
+        System.out.println("[DEBUG_LOG] Quota attainment threshold test passed");
+    }
+
+    /**
+     * Test that a deal without a sales rep is skipped and leaves other reps' attainment alone.
+     */
+    @Test
+    public void testDealWithoutSalesRepIsSkipped() {
+        QuotaAttainmentTracker tracker = QuotaAttainmentTracker.fromPlan(new CommissionPlan(), 3);
+        tracker.setQuota("SALES-001", new BigDecimal("1000"));
+        LocalDate date = LocalDate.of(2024, 8, 15);
+        tracker.recordValue("SALES-001", date, new BigDecimal("400"));
+
+        Deal unassigned = new Deal("Unassigned", new BigDecimal("500"), null);
+        unassigned.setCloseDate(date);
+
+        assertNull(tracker.recordDeal(unassigned), "A deal without a sales rep should be skipped");
+        assertNull(tracker.reverseDeal(unassigned), "Reversing a deal without a sales rep should be skipped");
+        tracker.setQuota("SALES-001", new BigDecimal("2000"));
+        assertEquals(0, new BigDecimal("400").compareTo(tracker.getAttainedValue("SALES-001", date)),
+                "Other reps' attainment should be unchanged");
+        assertEquals(0, BigDecimal.ZERO.compareTo(tracker.getAttainmentPercentage(null, date)),
+                "No sales rep has no attainment");
+        assertThrows(IllegalArgumentException.class, () -> tracker.setQuota(null, BigDecimal.TEN),
+                "A quota needs a sales rep");
+
+        System.out.println("[DEBUG_LOG] Quota attainment without sales rep test passed");
+    }
+}
@@ -0,0 +1,196 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.CommissionPlan;
+import com.chapman.edu.commissions.model.Deal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the RetroactiveRecalculationJob class.
+ */
+public class RetroactiveRecalculationJobTest {
+
+    /**
+     * Test that unpaid calculations are rewritten, paid ones get a single adjustment entry and
+     * cancelled calculations and clawback reversals are left alone.
+     */
+    @Test
+    public void testOnlyUnpaidCalculationsAreRewritten(@TempDir Path tempDir) {
+        DatabaseServiceImpl databaseService = newDatabase();
+        CommissionCalculation unpaid = calculation("CALC-001", CommissionCalculation.CommissionStatus.APPROVED, "400");
+        CommissionCalculation paid = calculation("CALC-002", CommissionCalculation.CommissionStatus.PAID, "400");
+        CommissionCalculation cancelled = calculation("CALC-003", CommissionCalculation.CommissionStatus.CANCELLED, "400");
+        CommissionCalculation reversal = calculation("CALC-004", CommissionCalculation.CommissionStatus.ADJUSTED, "-400");
+        reversal.setCalculatedBy(ClawbackEngine.CLAWBACK_CALCULATED_BY);
+        databaseService.saveCalculationsToDatabase(List.of(unpaid, paid, cancelled, reversal));
+
+        RetroactiveRecalculationJob job = newJob(databaseService, tempDir, 10, 0);
+        RetroactiveRecalculationJob.RecalculationProgress progress = job.run("PLAN-001");
+
+        assertEquals(2, progress.getUpdatedCount(), "The unpaid and the paid calculation should be updated");
+        assertEquals(0, new BigDecimal("500").compareTo(unpaid.getNetCommission()), "Unpaid calculation should be rewritten");
+        assertEquals(CommissionCalculation.CommissionStatus.APPROVED, unpaid.getStatus(), "Unpaid calculation should keep its status");
+        assertEquals(0, new BigDecimal("400").compareTo(paid.getNetCommission()), "Paid amount should be kept");
+        assertEquals(CommissionCalculation.CommissionStatus.PAID, paid.getStatus(), "Paid calculation should stay paid");
+        assertEquals(0, new BigDecimal("400").compareTo(cancelled.getNetCommission()), "Cancelled calculation should be left alone");
+        assertEquals(CommissionCalculation.CommissionStatus.CANCELLED, cancelled.getStatus(), "Cancelled calculation should not be revived");
+        assertEquals(0, new BigDecimal("-400").compareTo(reversal.getNetCommission()), "Clawback reversal should be left alone");
+
+        List<CommissionCalculation> adjustments = adjustmentsOf(databaseService, "CALC-002");
+        assertEquals(1, adjustments.size(), "Paid calculation should get one adjustment entry");
+        assertEquals(0, new BigDecimal("100").compareTo(adjustments.get(0).getNetCommission()),
+                "Adjustment should be the difference between the corrected and the paid amount");
+
+        assertEquals(0, newJob(databaseService, tempDir, 10, 0).run("PLAN-001").getUpdatedCount(),
+                "A second run should find nothing left to change");
+        assertEquals(1, adjustmentsOf(databaseService, "CALC-002").size(), "A paid calculation should not be adjusted twice");
+
+        System.out.println("[DEBUG_LOG] Recalculation status test passed");
+    }
+
+    /**
+     * Test that a stopped job leaves a checkpoint and a later run resumes after it.
+     */
+    @Test
+    public void testResumesFromCheckpoint(@TempDir Path tempDir) {
+        CancellationToken token = CancellationToken.create();
+        List<String> resumedAfter = new ArrayList<>();
+        DatabaseServiceImpl databaseService = new DatabaseServiceImpl() {
+            @Override
+            public List<CommissionCalculation> getCalculationsByPlan(String planId, LocalDate fromDate,
+                                                                     String afterCalculationId, int limit) {
+                resumedAfter.add(afterCalculationId);
+                // Stop the first run once it has read its first chunk
+                token.cancel();
+                return super.getCalculationsByPlan(planId, fromDate, afterCalculationId, limit);
+            }
+        };
+        populate(databaseService);
+        for (int i = 1; i <= 5; i++) {
+            databaseService.saveCalculationToDatabase(
+                    calculation("CALC-00" + i, CommissionCalculation.CommissionStatus.CALCULATED, "400"));
+        }
+        Path checkpointFile = tempDir.resolve("recalculation.properties");
+
+        RetroactiveRecalculationJob.RecalculationProgress stopped =
+                newJob(databaseService, tempDir, 2, 0).run("PLAN-001", token);
+        assertEquals(2, stopped.getProcessedCount(), "Job should stop after the first chunk");
+        assertTrue(Files.exists(checkpointFile), "Stopped job should leave a checkpoint");
+
+        RetroactiveRecalculationJob.RecalculationProgress finished =
+                newJob(databaseService, tempDir, 2, 0).run("PLAN-001", CancellationToken.create());
+        assertEquals("CALC-002", resumedAfter.get(1), "Resumed run should start after the checkpointed calculation");
+        assertEquals(5, finished.getProcessedCount(), "Resumed run should finish the remaining calculations");
+        assertEquals(5, finished.getUpdatedCount(), "Counts should carry over from the checkpoint");
+        assertFalse(Files.exists(checkpointFile), "Finished job should delete its checkpoint");
+
+        System.out.println("[DEBUG_LOG] Recalculation checkpoint test passed");
+    }
+
+    /**
+     * Test that the job keeps to its rate and does not start when its deadline has passed.
+     */
+    @Test
+    public void testThrottleAndDeadline(@TempDir Path tempDir) {
+        DatabaseServiceImpl databaseService = newDatabase();
+        for (int i = 1; i <= 4; i++) {
+            databaseService.saveCalculationToDatabase(
+                    calculation("CALC-00" + i, CommissionCalculation.CommissionStatus.CALCULATED, "500"));
+        }
+
+        long start = System.nanoTime();
+        RetroactiveRecalculationJob.RecalculationProgress progress =
+                newJob(databaseService, tempDir, 1, 20).run("PLAN-001");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(4, progress.getProcessedCount(), "All calculations should be processed");
+        assertTrue(elapsedMillis >= 150, "Four calculations at 20 per second should take about 200 ms, took " + elapsedMillis);
+
+        CancellationToken expired = CancellationToken.withTimeout(Duration.ZERO);
+        RetroactiveRecalculationJob.RecalculationProgress stopped =
+                newJob(databaseService, tempDir, 1, 0).run("PLAN-001", expired);
+        assertEquals(0, stopped.getProcessedCount(), "A job past its deadline should not process anything");
+        assertEquals(CancellationToken.StopReason.DEADLINE_EXCEEDED, expired.getStopReason(), "Stop reason");
+
+        System.out.println("[DEBUG_LOG] Recalculation throttle test passed");
+    }
+
+    /**
+     * Test that a cancel during a long throttle wait stops the job promptly.
+     */
+    @Test
+    public void testCancelDuringThrottle(@TempDir Path tempDir) throws Exception {
+        DatabaseServiceImpl databaseService = newDatabase();
+        for (int i = 1; i <= 3; i++) {
+            databaseService.saveCalculationToDatabase(
+                    calculation("CALC-00" + i, CommissionCalculation.CommissionStatus.CALCULATED, "500"));
+        }
+        CancellationToken token = CancellationToken.create();
+        // At a tenth of a calculation per second, each chunk is followed by a ten second wait
+        CompletableFuture<RetroactiveRecalculationJob.RecalculationProgress> running = CompletableFuture.supplyAsync(
+                () -> newJob(databaseService, tempDir, 1, 0.1).run("PLAN-001", token));
+        Thread.sleep(100);
+        long start = System.nanoTime();
+        token.cancel();
+        RetroactiveRecalculationJob.RecalculationProgress progress = running.get(5, TimeUnit.SECONDS);
+
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 2, "Job should stop soon after the cancel");
+        assertEquals(1, progress.getProcessedCount(), "Job should stop after the chunk before the wait");
+        assertTrue(Files.exists(tempDir.resolve("recalculation.properties")), "Stopped job should keep its checkpoint");
+
+        System.out.println("[DEBUG_LOG] Recalculation cancel during throttle test passed");
+    }
+
+    private RetroactiveRecalculationJob newJob(DatabaseService databaseService, Path tempDir, int chunkSize, double rate) {
+        return new RetroactiveRecalculationJob(new CommissionCalculator(databaseService), databaseService,
+                tempDir.resolve("recalculation.properties"), chunkSize, rate);
+    }
+
+    private DatabaseServiceImpl newDatabase() {
+        DatabaseServiceImpl databaseService = new DatabaseServiceImpl();
+        populate(databaseService);
+        return databaseService;
+    }
+
+    /**
+     * Saves a plan without tiers, which pays 5%, and a deal worth 10000.
+     */
+    private void populate(DatabaseServiceImpl databaseService) {
+        CommissionPlan plan = new CommissionPlan();
+        plan.setId("PLAN-001");
+        databaseService.savePlan(plan);
+        Deal deal = new Deal("Enterprise License", new BigDecimal("10000"), "SALES-001");
+        deal.setId("DEAL-001");
+        databaseService.saveDeal(deal);
+    }
+
+    private CommissionCalculation calculation(String id, CommissionCalculation.CommissionStatus status, String net) {
+        CommissionCalculation calculation = new CommissionCalculation("DEAL-001", "SALES-001", new BigDecimal(net));
+        calculation.setId(id);
+        calculation.setPlanId("PLAN-001");
+        calculation.setStatus(status);
+        return calculation;
+    }
+
+    private List<CommissionCalculation> adjustmentsOf(DatabaseService databaseService, String calculationId) {
+        List<CommissionCalculation> adjustments = new ArrayList<>();
+        for (CommissionCalculation calculation : databaseService.getCalculationsByDeal("DEAL-001")) {
+            if (calculationId.equals(calculation.getAdjustedCalculationId())) {
+                adjustments.add(calculation);
+            }
+        }
+        return adjustments;
+    }
+}
@@ -0,0 +1,65 @@
+package com.chapman.edu.commissions.principles.solid.fixed.srp;
+
+import com.chapman.edu.commissions.model.BonusCalculation;
+import com.chapman.edu.commissions.model.BonusRule;
+import com.chapman.edu.commissions.model.CommissionCalculation;
+import com.chapman.edu.commissions.model.RuleCondition;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TeamRollupEngine class.
+ */
+public class TeamRollupEngineTest {
+
+    /**
+     * Test that totals roll up through several levels and follow a rep who changes manager.
+     */
+    @Test
+    public void testMultiLevelRollup() {
+        TeamRollupEngine engine = new TeamRollupEngine();
+        engine.setManager("MGR-A", "VP-001");
+        engine.setManager("MGR-B", "VP-001");
+        engine.setManager("SALES-001", "MGR-A");
+
+        engine.recordCalculation(calculation("CALC-001", "SALES-001", "600"));
+        engine.recordCalculation(calculation("CALC-002", "SALES-001", "400"));
+        assertEquals(0, new BigDecimal("1000").compareTo(engine.getTeamTotal("MGR-A")), "Direct manager total");
+        assertEquals(0, new BigDecimal("1000").compareTo(engine.getTeamTotal("VP-001")), "Second-level total");
+
+        // Saving the same calculation again applies only the difference
+        engine.recordCalculation(calculation("CALC-002", "SALES-001", "500"));
+        assertEquals(0, new BigDecimal("1100").compareTo(engine.getTeamTotal("VP-001")), "Re-saved calculation");
+
+        engine.setManager("SALES-001", "MGR-B");
+        assertEquals(0, BigDecimal.ZERO.compareTo(engine.getTeamTotal("MGR-A")), "Old manager should lose the rep");
+        assertEquals(0, new BigDecimal("1100").compareTo(engine.getTeamTotal("MGR-B")), "New manager should gain the rep");
+        assertEquals(2, engine.getTeamCalculationCount("VP-001"), "Count should be unchanged at the top");
+
+        BonusRule rule = new BonusRule("Team Target", new BigDecimal("10"), true, BonusRule.BonusType.TEAM_PERFORMANCE);
+        rule.setId("BONUS-TEAM");
+        rule.addCondition(new RuleCondition(TeamRollupEngine.TEAM_TOTAL_FIELD,
+                RuleCondition.ConditionOperator.GREATER_THAN_OR_EQUALS, "1000"));
+        BonusCalculation bonus = engine.evaluateTeamBonus(rule, "MGR-B", LocalDate.now());
+        assertNotNull(bonus, "Team over threshold should earn the bonus");
+        assertEquals(0, new BigDecimal("110").compareTo(bonus.getAmount()), "Bonus should be 10% of the team total");
+        assertNull(engine.evaluateTeamBonus(rule, "MGR-A", LocalDate.now()), "Team under threshold should not");
+
+        assertThrows(IllegalArgumentException.class, () -> engine.setManager("VP-001", "SALES-001"),
+                "Cycles in the hierarchy should be rejected");
+
+        System.out.println("[DEBUG_LOG] Team rollup test passed");
+    }
+
+    private CommissionCalculation calculation(String id, String salesRepId, String netCommission) {
+        CommissionCalculation calculation = new CommissionCalculation();
+        calculation.setId(id);
+        calculation.setSalesRepId(salesRepId);
+        calculation.setNetCommission(new BigDecimal(netCommission));
+        return calculation;
+    }
+}